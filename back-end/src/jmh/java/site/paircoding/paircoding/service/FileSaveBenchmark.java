@@ -0,0 +1,132 @@
+package site.paircoding.paircoding.service;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import site.paircoding.paircoding.entity.Project;
+import site.paircoding.paircoding.entity.dto.DirectorySaveDto;
+import site.paircoding.paircoding.util.DirectoryTreeCache;
+import site.paircoding.paircoding.util.FileSearchIndex;
+import site.paircoding.paircoding.util.FileVersionStore;
+import site.paircoding.paircoding.util.IgnoredDirectories;
+import site.paircoding.paircoding.util.KubernetesUtil;
+import site.paircoding.paircoding.util.PodCommandExecutor;
+
+/**
+ * 파일 저장 비교: 내용을 명령 인자에 넣는 기존 방식(sh -c "echo '...' > 파일")과 DirectoryService.save의 stdin 전송.
+ * <p>
+ * pod exec 대신 로컬 sh 프로세스를 실행하므로 네트워크 구간은 포함하지 않는다. 기존 방식은 인자 하나가 커널 제한(MAX_ARG_STRLEN,
+ * 128 KiB)을 넘으면 실행 자체가 실패한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FileSaveBenchmark {
+
+  @Param({"1024", "1048576", "10485760"})
+  private int size;
+
+  private Path root;
+  private String content;
+  private DirectorySaveDto request;
+  private DirectoryService directoryService;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    root = Files.createTempDirectory("pading-save");
+    StringBuilder text = new StringBuilder();
+    while (text.length() < size) {
+      text.append("const message = 'it''s saved';\n");
+    }
+    content = text.substring(0, size);
+    request = new ObjectMapper().readValue("""
+        {"action":"SAVE","type":"FILE","path":"","name":"stdin.txt","content":%s}
+        """.formatted(new ObjectMapper().writeValueAsString(content)), DirectorySaveDto.class);
+
+    ProjectService projectService = mock(ProjectService.class);
+    Project project = mock(Project.class);
+    when(project.getContainerId()).thenReturn("project-a");
+    when(projectService.getProject(1, 2)).thenReturn(project);
+    FileVersionStore fileVersionStore = new FileVersionStore();
+    ReflectionTestUtils.setField(fileVersionStore, "cacheBytes", 1L << 30);
+    directoryService = new DirectoryService(mock(KubernetesUtil.class),
+        mock(DirectoryTreeCache.class), fileVersionStore, mock(FileSearchIndex.class),
+        new LocalShellExecutor(root), mock(SimpMessagingTemplate.class), projectService,
+        mock(IgnoredDirectories.class));
+    ReflectionTestUtils.setField(directoryService, "contentTimeoutSeconds", 60L);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(root)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  @Benchmark
+  public int echoArgument() throws Exception {
+    String command = String.format("echo '%s' > %s", content.replace("'", "'\\''"),
+        root.resolve("echo.txt"));
+    return new ProcessBuilder("sh", "-c", command).start().waitFor();
+  }
+
+  @Benchmark
+  public Long stdinSave() {
+    return directoryService.save(1, 2, request).getBytesWritten();
+  }
+
+  /**
+   * 명령을 pod 대신 로컬 sh로 실행한다. /app은 임시 디렉토리로 바꾼다.
+   */
+  private static class LocalShellExecutor extends PodCommandExecutor {
+
+    private final Path root;
+
+    private LocalShellExecutor(Path root) {
+      super(null, null, null);
+      this.root = root;
+    }
+
+    @Override
+    public CompletableFuture<StreamResult> stream(String deploymentName, String command,
+        InputStream input, OutputStream output, Duration timeout) {
+      try {
+        Process process = new ProcessBuilder("sh", "-c",
+            command.replace("'/app/", "'" + root + "/")).start();
+        try (OutputStream stdin = process.getOutputStream()) {
+          input.transferTo(stdin);
+        }
+        process.getInputStream().transferTo(output);
+        String error = new String(process.getErrorStream().readAllBytes(),
+            StandardCharsets.UTF_8);
+        return CompletableFuture.completedFuture(new StreamResult(process.waitFor(), error));
+      } catch (IOException | InterruptedException e) {
+        return CompletableFuture.failedFuture(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package site.paircoding.paircoding.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+import site.paircoding.paircoding.util.FileSearchIndex.ProjectIndex;
+
+/**
+ * 빠른 열기 색인의 검색 시간과 경로당 메모리.
+ * <p>
+ * 소스 트리 모양의 합성 경로 10만 개로 색인을 만든 뒤 질의 종류별 검색 시간을 잰다. 경로당 메모리는 setUp에서 estimatedBytes와 색인 전후의
+ * 힙 사용량 차이로 출력한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FileSearchIndexBenchmark {
+
+  private static final int PATHS = 100_000;
+  private static final String[] DIRECTORIES = {"src", "main", "java", "test", "components",
+      "service", "util", "config", "api", "controller", "repository", "entity", "dto", "hooks",
+      "pages", "styles", "assets", "lib", "internal", "common"};
+  private static final String[] WORDS = {"Directory", "Project", "User", "Group", "File",
+      "Search", "Index", "Tree", "Cache", "Terminal", "Session", "Route", "Pod", "Command",
+      "Provisioning", "Chat", "Message", "Auth", "Token", "Image"};
+  private static final String[] SUFFIXES = {"Service", "Controller", "Repository", "Util",
+      "Config", "Dto", "Test", "", "View", "Store"};
+  private static final String[] EXTENSIONS = {".java", ".ts", ".tsx", ".js", ".css", ".md"};
+
+  // 파일 이름 일치 / 경로 일치 / 글자 순서만 일치 / 짧은 질의 / 없는 이름
+  @Param({"DirectoryService", "controller/user", "dsvc", "ma", "zzzz"})
+  private String query;
+
+  private ProjectIndex index;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    FileSearchIndex fileSearchIndex = new FileSearchIndex();
+    ReflectionTestUtils.setField(fileSearchIndex, "idleSeconds", 1800L);
+    // 경로 목록은 색인 안에서 만들고 버려지므로, 힙 차이에는 색인이 붙잡은 경로 문자열까지 포함된다
+    long before = usedHeap();
+    index = fileSearchIndex.get(1, FileSearchIndexBenchmark::paths);
+    long after = usedHeap();
+    System.out.printf("%npaths=%d, estimatedBytes/path=%d, heapBytes/path=%d%n", index.size(),
+        index.estimatedBytes() / index.size(), (after - before) / index.size());
+  }
+
+  @Benchmark
+  public List<String> search() {
+    return index.search(query, 50);
+  }
+
+  private static List<String> paths() {
+    Random random = new Random(42);
+    Set<String> paths = new LinkedHashSet<>();
+    while (paths.size() < PATHS) {
+      StringBuilder path = new StringBuilder();
+      for (int depth = 2 + random.nextInt(5); depth > 0; depth--) {
+        path.append('/').append(DIRECTORIES[random.nextInt(DIRECTORIES.length)]);
+      }
+      path.append('/').append(WORDS[random.nextInt(WORDS.length)])
+          .append(WORDS[random.nextInt(WORDS.length)])
+          .append(SUFFIXES[random.nextInt(SUFFIXES.length)])
+          .append(EXTENSIONS[random.nextInt(EXTENSIONS.length)]);
+      paths.add(path.toString());
+    }
+    return new ArrayList<>(paths);
+  }
+
+  private static long usedHeap() {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    Runtime runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,159 @@
+package site.paircoding.paircoding.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * nginx 라우팅 설정 생성 비용: 프로젝트마다 server 블록을 만드는 기존 방식과 하나의 map 파일.
+ * <p>
+ * 만든 스크립트는 /etc/nginx 대신 임시 디렉토리를 대상으로 로컬 sh에서 실행한다. nginx -t와 reload 시간은 nginx가 있는 호스트에서만 잴 수
+ * 있으므로, setUp에서 각 방식이 nginx에 읽히는 설정 크기를 출력한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NginxRouteMapBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  private int projects;
+
+  private Path root;
+  private Map<String, Integer> routes;
+  private CapturingCoalescer coalescer;
+  private NginxConfigUtil mapMode;
+  private NginxConfigUtil serverMode;
+  private String mapScript;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    root = Files.createTempDirectory("nginx-bench");
+    Files.createDirectory(root.resolve("sites-available"));
+    Files.createDirectory(root.resolve("sites-enabled"));
+    routes = new LinkedHashMap<>();
+    for (int i = 0; i < projects; i++) {
+      routes.put("deploy-" + Long.toHexString(0x10000000L + i * 7919L), 30000 + i % 2768);
+    }
+
+    coalescer = new CapturingCoalescer();
+    mapMode = nginxConfigUtil("map");
+    serverMode = nginxConfigUtil("server");
+    mapMode.renderRouteMap(routes);
+    mapScript = coalescer.script;
+    run(mapScript);
+
+    long serverBytes = 0;
+    for (Map.Entry<String, Integer> route : routes.entrySet()) {
+      serverMode.createNginxConfig(route.getKey(), route.getValue());
+      serverBytes += coalescer.script.length();
+    }
+    System.out.printf("%nprojects=%d, map config bytes=%d, server config bytes=%d%n", projects,
+        mapScript.length(), serverBytes);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    try (Stream<Path> paths = Files.walk(root)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  /**
+   * 모든 프로젝트의 server 블록 스크립트 생성 (기존 방식의 전체 렌더링).
+   */
+  @Benchmark
+  public long renderServerBlocks() {
+    long length = 0;
+    for (Map.Entry<String, Integer> route : routes.entrySet()) {
+      serverMode.createNginxConfig(route.getKey(), route.getValue());
+      length += coalescer.script.length();
+    }
+    return length;
+  }
+
+  /**
+   * Project 테이블 전체로 map 파일 스크립트 생성.
+   */
+  @Benchmark
+  public String renderMap() {
+    mapMode.renderRouteMap(routes);
+    return coalescer.script;
+  }
+
+  /**
+   * 전체 map 파일과 server 블록을 임시 파일에 쓰고 교체.
+   */
+  @Benchmark
+  public int writeMap() throws Exception {
+    return run(mapScript);
+  }
+
+  /**
+   * 프로젝트 하나 추가: projects 줄의 map에서 기존 줄을 지우고 한 줄 추가.
+   */
+  @Benchmark
+  public int addRoute() throws Exception {
+    mapMode.createNginxConfig("deploy-ffffffff", 32767);
+    return run(coalescer.script);
+  }
+
+  private NginxConfigUtil nginxConfigUtil(String routingMode) {
+    NginxConfigUtil nginxConfigUtil = new NginxConfigUtil(coalescer);
+    ReflectionTestUtils.setField(nginxConfigUtil, "SUBDOMAIN_PREFIX", "deploy-");
+    ReflectionTestUtils.setField(nginxConfigUtil, "routingMode", routingMode);
+    return nginxConfigUtil;
+  }
+
+  // NginxReloadCoalescer처럼 스크립트를 sh의 stdin으로 보낸다 (10k 줄 스크립트는 인자 길이 제한을 넘는다)
+  private int run(String script) throws IOException, InterruptedException {
+    Process process = new ProcessBuilder("sh")
+        .redirectErrorStream(true)
+        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+        .start();
+    try (OutputStream input = process.getOutputStream()) {
+      input.write(script.replace("/etc/nginx/", root + "/").getBytes(StandardCharsets.UTF_8));
+    }
+    int exitCode = process.waitFor();
+    if (exitCode != 0) {
+      throw new IllegalStateException("script failed: " + exitCode);
+    }
+    return exitCode;
+  }
+
+  /**
+   * 원격 실행 대신 마지막 스크립트만 보관한다.
+   */
+  private static class CapturingCoalescer extends NginxReloadCoalescer {
+
+    private String script;
+
+    CapturingCoalescer() {
+      super(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> submit(String script) {
+      this.script = script;
+      return CompletableFuture.completedFuture(null);
+    }
+  }
+}
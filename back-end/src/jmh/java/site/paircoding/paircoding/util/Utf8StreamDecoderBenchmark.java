@@ -0,0 +1,63 @@
+package site.paircoding.paircoding.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 터미널 출력 디코딩 비교: 청크마다 new String을 만드는 기존 방식과 Utf8StreamDecoder.
+ * <p>
+ * 한글/영문이 섞인 1 MiB 출력을 TerminalBridge와 같은 1 KiB 청크로 나눠 디코딩한다. 할당량은 gc 프로파일러의
+ * gc.alloc.rate.norm으로 확인한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class Utf8StreamDecoderBenchmark {
+
+  private static final int TOTAL_BYTES = 1 << 20;
+
+  @Param({"1024", "8192"})
+  private int chunkSize;
+
+  private byte[] output;
+  private Utf8StreamDecoder decoder;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    StringBuilder text = new StringBuilder();
+    while (text.length() < TOTAL_BYTES / 2) {
+      text.append("$ ls -al\n드라이브의 볼륨에는 이름이 없습니다. build.gradle 빌드 성공\n");
+    }
+    byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+    output = Arrays.copyOf(bytes, TOTAL_BYTES);
+    decoder = new Utf8StreamDecoder();
+  }
+
+  @Benchmark
+  public void newStringPerChunk(Blackhole blackhole) {
+    for (int offset = 0; offset < output.length; offset += chunkSize) {
+      int length = Math.min(chunkSize, output.length - offset);
+      blackhole.consume(new String(output, offset, length, StandardCharsets.UTF_8));
+    }
+  }
+
+  @Benchmark
+  public void streamDecoder(Blackhole blackhole) {
+    for (int offset = 0; offset < output.length; offset += chunkSize) {
+      int length = Math.min(chunkSize, output.length - offset);
+      blackhole.consume(decoder.decode(output, offset, length));
+    }
+    blackhole.consume(decoder.flush());
+  }
+}
@@ -0,0 +1,292 @@
+package site.paircoding.paircoding.config.proxy;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import site.paircoding.paircoding.config.AppConfig;
+import site.paircoding.paircoding.util.ProjectRouteTable;
+
+/**
+ * 프로젝트 서브도메인으로 들어온 요청을 프로젝트 NodePort로 전달하는 리버스 프록시 필터.
+ * <p>
+ * proxy.enabled 일 때만 동작하며, 프로젝트 도메인(app.domain)의 바로 아래 서브도메인 중 라우팅 테이블에 있는 호스트만 전달하고 나머지는
+ * 그대로 다음 필터로 넘긴다. 인증 필터보다 먼저 실행된다.
+ * <p>
+ * 서블릿 비동기 처리로 업스트림 응답을 기다리는 동안 요청 스레드를 붙잡지 않는다. 응답 본문은 HttpClient가 받는 대로 비블로킹 쓰기로
+ * 전달하고, 요청 본문은 HttpClient 스레드에서 읽어 보낸다. 업스트림 연결은 HttpClient가 재사용한다. HttpClient는 Host 헤더를 바꿀 수
+ * 없으므로 업스트림에는 원래 Host 대신 X-Forwarded-Host로 전달된다.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ProjectProxyFilter extends OncePerRequestFilter {
+
+  // HttpClient가 직접 관리하거나 홉 간에만 의미가 있는 헤더
+  private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive",
+      "proxy-authenticate", "proxy-authorization", "te", "trailer", "transfer-encoding",
+      "upgrade", "host", "content-length", "expect", "http2-settings");
+
+  @Value("${proxy.upstream-host:192.168.0.38}")
+  private String upstreamHost;
+
+  @Value("${proxy.connect-timeout-millis:3000}")
+  private long connectTimeoutMillis;
+
+  @Value("${proxy.response-timeout-seconds:300}")
+  private long responseTimeoutSeconds;
+
+  private final ProjectRouteTable projectRouteTable;
+  private final AppConfig appConfig;
+  private HttpClient httpClient;
+
+  @PostConstruct
+  public void init() {
+    httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+        .build();
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !projectRouteTable.isEnabled() || findNodePort(request) == null;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    Integer nodePort = findNodePort(request);
+    if (nodePort == null) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    String query = request.getQueryString();
+    URI uri = URI.create("http://" + upstreamHost + ":" + nodePort + request.getRequestURI()
+        + (query == null ? "" : "?" + query));
+
+    HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+        .timeout(Duration.ofSeconds(responseTimeoutSeconds))
+        .method(request.getMethod(), bodyPublisher(request));
+
+    for (String name : Collections.list(request.getHeaderNames())) {
+      if (HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+        continue;
+      }
+      for (String value : Collections.list(request.getHeaders(name))) {
+        builder.header(name, value);
+      }
+    }
+    builder.header("X-Forwarded-Host", request.getServerName());
+    builder.header("X-Forwarded-Proto", request.getScheme());
+    builder.header("X-Forwarded-For", request.getRemoteAddr());
+
+    // 응답 제한 시간은 HttpClient가 적용하고, 본문 전달이 끝나면 직접 complete 한다
+    AsyncContext asyncContext = request.startAsync();
+    asyncContext.setTimeout(0);
+    CompletableFuture<HttpResponse<Void>> exchange = httpClient.sendAsync(builder.build(),
+        responseInfo -> {
+          copyResponseHead(responseInfo, response);
+          return new ResponseBodyWriter(response);
+        });
+    asyncContext.addListener(new AsyncListener() {
+      @Override
+      public void onComplete(AsyncEvent event) {
+      }
+
+      @Override
+      public void onTimeout(AsyncEvent event) {
+      }
+
+      @Override
+      public void onError(AsyncEvent event) {
+        // 클라이언트 연결이 끊기면 업스트림 요청도 끊는다
+        exchange.cancel(true);
+      }
+
+      @Override
+      public void onStartAsync(AsyncEvent event) {
+      }
+    });
+    exchange.whenComplete((ignored, e) -> {
+      if (e != null) {
+        Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+        log.warn("Proxy upstream failed: uri={}, {}", uri, cause.toString());
+        if (!response.isCommitted()) {
+          try {
+            response.sendError(HttpServletResponse.SC_BAD_GATEWAY);
+          } catch (IOException | IllegalStateException ignoredError) {
+            // 클라이언트 연결이 이미 끊겼다
+          }
+        }
+      }
+      asyncContext.complete();
+    });
+  }
+
+  private static void copyResponseHead(HttpResponse.ResponseInfo responseInfo,
+      HttpServletResponse response) {
+    response.setStatus(responseInfo.statusCode());
+    for (Map.Entry<String, List<String>> header : responseInfo.headers().map().entrySet()) {
+      if (HOP_BY_HOP_HEADERS.contains(header.getKey().toLowerCase())
+          || header.getKey().startsWith(":")) {
+        continue;
+      }
+      header.getValue().forEach(value -> response.addHeader(header.getKey(), value));
+    }
+    responseInfo.headers().firstValueAsLong("content-length")
+        .ifPresent(response::setContentLengthLong);
+  }
+
+  private Integer findNodePort(HttpServletRequest request) {
+    // 다른 도메인이나 더 깊은 서브도메인의 Host로 프로젝트에 접근하지 못하도록 한다
+    String host = request.getServerName().toLowerCase(Locale.ROOT);
+    String suffix = "." + appConfig.getDomain().toLowerCase(Locale.ROOT);
+    if (!host.endsWith(suffix)) {
+      return null;
+    }
+    String subdomain = host.substring(0, host.length() - suffix.length());
+    return subdomain.isEmpty() || subdomain.indexOf('.') >= 0 ? null
+        : projectRouteTable.find(subdomain);
+  }
+
+  // 요청 본문은 HttpClient 스레드에서 읽는 대로 업스트림에 전달한다
+  private static HttpRequest.BodyPublisher bodyPublisher(HttpServletRequest request) {
+    if (request.getContentLengthLong() <= 0 && request.getHeader("Transfer-Encoding") == null) {
+      return HttpRequest.BodyPublishers.noBody();
+    }
+    return HttpRequest.BodyPublishers.ofInputStream(() -> {
+      try {
+        return request.getInputStream();
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+  }
+
+  /**
+   * 업스트림 응답 본문을 받는 대로 서블릿 응답에 비블로킹으로 쓴다. 응답 스트림이 쓰기 가능할 때만 다음 조각을 요청한다.
+   */
+  private static class ResponseBodyWriter implements HttpResponse.BodySubscriber<Void>,
+      WriteListener {
+
+    private final HttpServletResponse response;
+    private final CompletableFuture<Void> body = new CompletableFuture<>();
+    private final Deque<ByteBuffer> buffers = new ArrayDeque<>();
+    private ServletOutputStream output;
+    private Flow.Subscription subscription;
+    private boolean requested;
+    private boolean upstreamDone;
+
+    private ResponseBodyWriter(HttpServletResponse response) {
+      this.response = response;
+    }
+
+    @Override
+    public CompletionStage<Void> getBody() {
+      return body;
+    }
+
+    @Override
+    public synchronized void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      try {
+        output = response.getOutputStream();
+        // 쓰기 가능해지면 컨테이너가 onWritePossible을 호출한다
+        output.setWriteListener(this);
+      } catch (IOException | RuntimeException e) {
+        subscription.cancel();
+        body.completeExceptionally(e);
+      }
+    }
+
+    @Override
+    public synchronized void onNext(List<ByteBuffer> items) {
+      requested = false;
+      buffers.addAll(items);
+      drain();
+    }
+
+    @Override
+    public synchronized void onComplete() {
+      upstreamDone = true;
+      drain();
+    }
+
+    // 업스트림 수신 실패와 응답 쓰기 실패 모두 여기로 온다
+    @Override
+    public void onError(Throwable throwable) {
+      subscription.cancel();
+      body.completeExceptionally(throwable);
+    }
+
+    @Override
+    public synchronized void onWritePossible() {
+      drain();
+    }
+
+    private void drain() {
+      if (output == null || body.isDone()) {
+        return;
+      }
+      try {
+        while (output.isReady()) {
+          ByteBuffer buffer = buffers.poll();
+          if (buffer != null) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            output.write(bytes);
+          } else if (upstreamDone) {
+            body.complete(null);
+            return;
+          } else {
+            // 받은 만큼은 바로 보내고 다음 조각을 요청한다
+            output.flush();
+            if (output.isReady() && !requested) {
+              requested = true;
+              subscription.request(1);
+            }
+            return;
+          }
+        }
+      } catch (IOException e) {
+        subscription.cancel();
+        body.completeExceptionally(e);
+      }
+    }
+  }
+}
@@ -13,8 +13,11 @@ import site.paircoding.paircoding.entity.dto.DirectoryCreateDto;
 import site.paircoding.paircoding.entity.dto.DirectoryDeleteDto;
 import site.paircoding.paircoding.entity.dto.DirectoryExceptionDto;
 import site.paircoding.paircoding.entity.dto.DirectoryListDto;
+import site.paircoding.paircoding.entity.dto.DirectoryPatchDto;
+import site.paircoding.paircoding.entity.dto.DirectoryQuickOpenDto;
 import site.paircoding.paircoding.entity.dto.DirectoryRenameDto;
 import site.paircoding.paircoding.entity.dto.DirectorySaveDto;
+import site.paircoding.paircoding.entity.dto.DirectorySearchDto;
 import site.paircoding.paircoding.global.exception.WebsocketException;
 import site.paircoding.paircoding.service.DirectoryService;
 
@@ -34,6 +37,24 @@ public class DirectoryController {
         directoryService.get(groupId, projectId, dto));
   }
 
+  @MessageMapping("/groups/{groupId}/projects/{projectId}/users/{userId}/directory/list-recursive")
+  public void getRecursive(@DestinationVariable("groupId") Integer groupId,
+      @DestinationVariable("projectId") Integer projectId,
+      @DestinationVariable("userId") Integer userId, DirectoryListDto dto) {
+    messagingTemplate.convertAndSend(
+        "/sub/groups/" + groupId + "/projects/" + projectId + "/users/" + userId + "/directory",
+        directoryService.getRecursive(groupId, projectId, dto));
+  }
+
+  @MessageMapping("/groups/{groupId}/projects/{projectId}/users/{userId}/directory/quick-open")
+  public void quickOpen(@DestinationVariable("groupId") Integer groupId,
+      @DestinationVariable("projectId") Integer projectId,
+      @DestinationVariable("userId") Integer userId, DirectoryQuickOpenDto dto) {
+    messagingTemplate.convertAndSend(
+        "/sub/groups/" + groupId + "/projects/" + projectId + "/users/" + userId + "/directory",
+        directoryService.quickOpen(groupId, projectId, dto));
+  }
+
   @MessageMapping("/groups/{groupId}/projects/{projectId}/users/{userId}/directory/create")
   @SendTo("/sub/groups/{groupId}/projects/{projectId}/users/all/directory")
   public DirectoryCreateDto create(@DestinationVariable("groupId") Integer groupId,
@@ -62,9 +83,16 @@ public class DirectoryController {
   public void content(@DestinationVariable("groupId") Integer groupId,
       @DestinationVariable("projectId") Integer projectId,
       @DestinationVariable("userId") Integer userId, DirectoryContentDto dto) {
-    messagingTemplate.convertAndSend(
-        "/sub/groups/" + groupId + "/projects/" + projectId + "/users/" + userId + "/directory",
-        directoryService.content(groupId, projectId, dto));
+    // 파일 내용은 크기에 따라 한 번 또는 청크로 나눠 사용자 destination으로 전송된다
+    directoryService.content(groupId, projectId, userId, dto);
+  }
+
+  @MessageMapping("/groups/{groupId}/projects/{projectId}/users/{userId}/directory/search")
+  public void search(@DestinationVariable("groupId") Integer groupId,
+      @DestinationVariable("projectId") Integer projectId,
+      @DestinationVariable("userId") Integer userId, DirectorySearchDto dto) {
+    // 검색 결과는 찾는 대로 사용자 destination으로 전송된다
+    directoryService.search(groupId, projectId, userId, dto);
   }
 
   @MessageMapping("/groups/{groupId}/projects/{projectId}/users/{userId}/directory/save")
@@ -74,6 +102,13 @@ public class DirectoryController {
     return directoryService.save(groupId, projectId, dto);
   }
 
+  @MessageMapping("/groups/{groupId}/projects/{projectId}/users/{userId}/directory/patch")
+  @SendTo("/sub/groups/{groupId}/projects/{projectId}/users/all/directory")
+  public DirectoryPatchDto patch(@DestinationVariable("groupId") Integer groupId,
+      @DestinationVariable("projectId") Integer projectId, DirectoryPatchDto dto) {
+    return directoryService.patch(groupId, projectId, dto);
+  }
+
   @MessageExceptionHandler(WebsocketException.class)
   @SendTo("/sub/groups/{groupId}/projects/{projectId}/directory")
   public DirectoryExceptionDto handleWebsocketException(Exception e) {
@@ -1,5 +1,7 @@
 package site.paircoding.paircoding.entity.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
@@ -13,4 +15,12 @@ public class DirectoryChildren {
   private Integer id;
   private DirectoryType type;
   private String name;
+
+  // LIST_RECURSIVE 응답에서만 채워지는 하위 항목 (읽지 않은 디렉토리는 null)
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private List<DirectoryChildren> children;
+
+  public DirectoryChildren(Integer id, DirectoryType type, String name) {
+    this(id, type, name, null);
+  }
 }
@@ -0,0 +1,19 @@
+package site.paircoding.paircoding.entity.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import site.paircoding.paircoding.entity.enums.DirectoryAction;
+
+@Getter
+@Builder
+public class DirectoryContentChunkDto {
+
+  private DirectoryAction action;
+  private String path;
+  private String name;
+  private long size; // 파일 전체 크기 (byte)
+  private long offset; // 이 청크의 파일 내 시작 위치 (byte)
+  private int chunkIndex; // 0부터 시작하는 청크 번호
+  private String content;
+  private boolean last;
+}
@@ -14,5 +14,15 @@ public class DirectoryContentDto {
   private String name;
   @Setter
   private String content;
+  private Long offset; // 읽기 시작 위치 (byte), 없으면 0
+  private Long length; // 읽을 길이 (byte), 없으면 파일 끝까지
+  @Setter
+  private Long size; // 파일 전체 크기 (byte)
+  @Setter
+  private Boolean binary; // 바이너리 파일이면 content 없이 메타데이터만 보낸다
+  @Setter
+  private String hash; // 전체 내용의 SHA-256 - 패치의 baseHash로 사용한다
+  @Setter
+  private Long version;
 
 }
@@ -0,0 +1,11 @@
+package site.paircoding.paircoding.entity.dto;
+
+import lombok.Getter;
+
+@Getter
+public class DirectoryEditOperation {
+
+  private int offset; // 변경 시작 위치 (UTF-16 문자 단위, 앞선 연산이 적용된 내용 기준)
+  private int deleteCount; // 삭제할 문자 수
+  private String insert; // 삽입할 문자열, 없으면 삭제만
+}
@@ -1,7 +1,9 @@
 package site.paircoding.paircoding.entity.dto;
 
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 
+@Getter
 @AllArgsConstructor
 public class DirectoryExceptionDto {
 
@@ -13,4 +13,7 @@ public class DirectoryListDto {
   private String path;
   private List<DirectoryChildren> children;
 
+  private Integer depth; // LIST_RECURSIVE 탐색 깊이, 없으면 서버 최대값
+  private Boolean truncated; // LIST_RECURSIVE 항목 수 제한으로 일부만 응답했는지 여부
+
 }
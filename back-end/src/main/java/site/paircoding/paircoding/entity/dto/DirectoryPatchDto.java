@@ -0,0 +1,24 @@
+package site.paircoding.paircoding.entity.dto;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import site.paircoding.paircoding.entity.enums.DirectoryAction;
+import site.paircoding.paircoding.entity.enums.DirectoryType;
+
+@Getter
+public class DirectoryPatchDto {
+
+  private DirectoryAction action;
+  private DirectoryType type;
+  private String path;
+  private String name;
+  private String baseHash; // 패치를 만든 기준 내용의 SHA-256
+  private List<DirectoryEditOperation> operations;
+  @Setter
+  private String hash; // 패치 적용 후 내용의 SHA-256
+  @Setter
+  private Long version;
+  @Setter
+  private Long bytesWritten; // pod로 전송한 바이트 수
+}
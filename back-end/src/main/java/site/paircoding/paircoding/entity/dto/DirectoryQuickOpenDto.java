@@ -0,0 +1,20 @@
+package site.paircoding.paircoding.entity.dto;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import site.paircoding.paircoding.entity.enums.DirectoryAction;
+
+@Getter
+public class DirectoryQuickOpenDto {
+
+  private DirectoryAction action;
+  private String query;
+  private Integer limit; // 최대 결과 수, 없으면 서버 기본값
+  @Setter
+  private List<String> results; // 점수 순으로 정렬된 파일 경로 (/app 기준)
+  @Setter
+  private Integer indexedPaths; // 색인된 파일 수
+  @Setter
+  private Long indexBytes; // 색인의 추정 메모리 사용량 (byte)
+}
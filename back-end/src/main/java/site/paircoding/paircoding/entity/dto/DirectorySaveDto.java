@@ -1,6 +1,7 @@
 package site.paircoding.paircoding.entity.dto;
 
 import lombok.Getter;
+import lombok.Setter;
 import site.paircoding.paircoding.entity.enums.DirectoryAction;
 import site.paircoding.paircoding.entity.enums.DirectoryType;
 
@@ -12,5 +13,11 @@ public class DirectorySaveDto {
   private String path;
   private String name;
   private String content;
+  @Setter
+  private Long bytesWritten; // 저장된 파일 크기 (byte)
+  @Setter
+  private String hash; // 저장된 내용의 SHA-256, 이후 패치의 기준
+  @Setter
+  private Long version;
 
 }
@@ -0,0 +1,17 @@
+package site.paircoding.paircoding.entity.dto;
+
+import java.util.List;
+import lombok.Getter;
+import site.paircoding.paircoding.entity.enums.DirectoryAction;
+
+@Getter
+public class DirectorySearchDto {
+
+  private DirectoryAction action;
+  private String searchId; // 클라이언트가 붙인 검색 id, 결과에 그대로 담긴다
+  private String query; // 비어 있으면 진행 중인 검색만 취소
+  private List<String> globs; // 검색할 파일 패턴 ("*.java", "src/**"), 없으면 전체
+  private Boolean caseSensitive;
+  private Boolean regex; // 정규식(ERE) 여부, 기본은 문자열 그대로 검색
+  private Integer limit; // 최대 결과 수, 없으면 서버 기본값
+}
@@ -0,0 +1,13 @@
+package site.paircoding.paircoding.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class DirectorySearchMatch {
+
+  private String path; // /app 기준 파일 경로
+  private Integer line;
+  private String preview; // 일치한 줄 (preview-chars 까지)
+}
@@ -0,0 +1,17 @@
+package site.paircoding.paircoding.entity.dto;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+import site.paircoding.paircoding.entity.enums.DirectoryAction;
+
+@Getter
+@Builder
+public class DirectorySearchResultDto {
+
+  private DirectoryAction action;
+  private String searchId;
+  private List<DirectorySearchMatch> matches; // 이번 메시지에 담긴 결과
+  private boolean last; // 검색이 끝났으면 true
+  private boolean truncated; // 결과 수 제한이나 제한 시간으로 일부만 찾았는지 여부
+}
@@ -0,0 +1,16 @@
+package site.paircoding.paircoding.entity.dto;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+import site.paircoding.paircoding.entity.enums.DirectoryAction;
+
+@Getter
+@Builder
+public class DirectoryTreeDiffDto {
+
+  private DirectoryAction action;
+  private String path; // 내용이 바뀐 디렉토리
+  private List<DirectoryChildren> added;
+  private List<DirectoryChildren> removed;
+}
@@ -0,0 +1,16 @@
+package site.paircoding.paircoding.entity.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import site.paircoding.paircoding.entity.enums.ProvisioningStatus;
+
+@Getter
+@Builder
+public class ProvisioningEventDto {
+
+  private Integer projectId;
+  private String step; // pv, pvc, deployment, service, nginx, ready
+  private ProvisioningStatus status;
+  private long elapsedMillis; // 단계 소요 시간, 완료/실패 이벤트는 전체 소요 시간
+  private String message;
+}
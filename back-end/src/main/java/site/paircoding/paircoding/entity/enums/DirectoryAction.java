@@ -1,5 +1,5 @@
 package site.paircoding.paircoding.entity.enums;
 
 public enum DirectoryAction {
-  LIST, CREATE, DELETE, RENAME, CONTENT, SAVE
+  LIST, CREATE, DELETE, RENAME, CONTENT, SAVE, PATCH, DIFF, LIST_RECURSIVE, QUICK_OPEN, SEARCH
 }
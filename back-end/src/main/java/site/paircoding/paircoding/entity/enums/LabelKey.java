@@ -6,7 +6,8 @@ import lombok.Getter;
 public enum LabelKey {
   ENV("env"),
   GROUP_ID("groupId"),
-  DEPLOYMENT_NAME("deploymentName");
+  DEPLOYMENT_NAME("deploymentName"),
+  WARM_POOL("warmPool");
 
   private final String key;
 
@@ -0,0 +1,5 @@
+package site.paircoding.paircoding.entity.enums;
+
+public enum ProvisioningStatus {
+  IN_PROGRESS, COMPLETED, FAILED
+}
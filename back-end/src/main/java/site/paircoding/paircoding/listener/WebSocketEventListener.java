@@ -2,13 +2,19 @@ package site.paircoding.paircoding.listener;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.messaging.SessionConnectEvent;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
@@ -22,6 +28,11 @@ public class WebSocketEventListener {
 
   private static final String STATUS_PREFIX = "statusId=%d";
   private static final String PROJECT_USER_KEY = "project:%s:user:%s"; // Redis 저장 키 형식
+  private static final String PROJECT_ONLINE_KEY = "project:%s:online"; // 프로젝트 접속자 ZSET (점수: 마지막 하트비트 시각)
+
+  // 하트비트가 이 시간 동안 없으면(서버 종료 등) 접속하지 않은 것으로 본다
+  @Value("${presence.ttl-seconds:90}")
+  private long presenceTtlSeconds;
 
   private final RedisUtil redisUtil;
   private final SimpMessagingTemplate messagingTemplate;
@@ -79,9 +90,11 @@ public class WebSocketEventListener {
       log.info("User Subscribed: sessionId={}, userId={}, projectId={}", sessionId, userId,
           projectId);
 
-      // ✅ Redis에 저장하여 접속 중 상태로 표시
-      String redisKey = PROJECT_USER_KEY.formatted(projectId, userId);
-      redisUtil.set(redisKey, "online");
+      // ✅ Redis에 저장하여 접속 중 상태로 표시 (하트비트로 갱신)
+      if (userId != null) {
+        long now = System.currentTimeMillis();
+        redisUtil.pipelined(operations -> markOnline(operations, projectId, userId, now));
+      }
 
       Map<String, String> projectStatusMessage = new HashMap<>();
       projectStatusMessage.put("status", "member");
@@ -116,8 +129,17 @@ public class WebSocketEventListener {
 
       // ✅ 프로젝트에서 나가면 Redis에서 해당 정보 삭제
       if (projectId != null) {
-        String redisKey = PROJECT_USER_KEY.formatted(projectId, userId);
-        redisUtil.delete(redisKey); // Redis에서 삭제
+        // 같은 유저가 이 서버의 다른 세션으로 같은 프로젝트에 접속해 있으면 유지
+        boolean connectedElsewhere = sessionProjectMap.entrySet().stream()
+            .anyMatch(entry -> !entry.getKey().equals(sessionId)
+                && entry.getValue().equals(projectId)
+                && userId.equals(userSessionMap.get(entry.getKey())));
+        if (!connectedElsewhere) {
+          redisUtil.pipelined(operations -> {
+            operations.opsForZSet().remove(PROJECT_ONLINE_KEY.formatted(projectId), userId);
+            operations.delete(PROJECT_USER_KEY.formatted(projectId, userId)); // Redis에서 삭제
+          });
+        }
 
         Map<String, String> projectStatusMessage = new HashMap<>();
         projectStatusMessage.put("status", "member");
@@ -152,4 +174,33 @@ public class WebSocketEventListener {
       sessionProjectMap.remove(sessionId);
     }
   }
+
+  /**
+   * 이 서버에 연결된 프로젝트 접속자의 하트비트를 한 번의 파이프라인으로 갱신하고, 오래 갱신되지 않은 접속자를 정리한다.
+   */
+  @Scheduled(fixedDelayString = "${presence.heartbeat-interval-millis:30000}")
+  public void heartbeat() {
+    if (sessionProjectMap.isEmpty()) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    Set<String> projectIds = new HashSet<>(sessionProjectMap.values());
+    redisUtil.pipelined(operations -> {
+      sessionProjectMap.forEach((sessionId, projectId) -> {
+        String userId = userSessionMap.get(sessionId);
+        if (userId != null) {
+          markOnline(operations, projectId, userId, now);
+        }
+      });
+      projectIds.forEach(projectId -> operations.opsForZSet().removeRangeByScore(
+          PROJECT_ONLINE_KEY.formatted(projectId), 0, now - presenceTtlSeconds * 1000));
+    });
+  }
+
+  private void markOnline(RedisOperations<String, Object> operations, String projectId,
+      String userId, long now) {
+    operations.opsForZSet().add(PROJECT_ONLINE_KEY.formatted(projectId), userId, now);
+    operations.opsForValue().set(PROJECT_USER_KEY.formatted(projectId, userId), "online",
+        presenceTtlSeconds, TimeUnit.SECONDS);
+  }
 }
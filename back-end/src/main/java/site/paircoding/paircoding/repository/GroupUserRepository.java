@@ -18,6 +18,14 @@ public interface GroupUserRepository extends JpaRepository<GroupUser, Integer> {
 
   Optional<List<GroupUser>> findGroupUserByGroupId(Integer groupId);
 
+  @Query("SELECT gu FROM GroupUser gu JOIN FETCH gu.user JOIN FETCH gu.group "
+      + "WHERE gu.id.groupId = :groupId")
+  List<GroupUser> findWithUserByGroupId(Integer groupId);
+
+  @Query("SELECT gu FROM GroupUser gu JOIN FETCH gu.user "
+      + "WHERE gu.id.groupId = :groupId and gu.id.userId in :userIds")
+  List<GroupUser> findWithUserByGroupIdAndUserIdIn(Integer groupId, List<Integer> userIds);
+
   Optional<GroupUser> findByGroupIdAndUserId(Integer groupId, Integer userId);
 
   Integer countByGroupId(Integer groupId);
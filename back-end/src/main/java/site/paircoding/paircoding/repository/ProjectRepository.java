@@ -13,5 +13,11 @@ public interface ProjectRepository extends JpaRepository<Project, Integer> {
 
   List<Project> findByGroupId(Integer groupId);
 
+  @Query("select pu.project from ProjectUser pu "
+      + "where pu.project.group.id = :groupId and pu.user.id = :userId")
+  List<Project> findByGroupIdAndUserId(Integer groupId, Integer userId);
+
   List<Project> findAllByGroupId(Integer groupId);
+
+  boolean existsByDeploymentUrl(String deploymentUrl);
 }
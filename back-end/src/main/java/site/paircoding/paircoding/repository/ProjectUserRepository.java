@@ -3,6 +3,7 @@ package site.paircoding.paircoding.repository;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import site.paircoding.paircoding.entity.Project;
 import site.paircoding.paircoding.entity.ProjectUser;
 import site.paircoding.paircoding.entity.ProjectUserId;
@@ -12,6 +13,10 @@ public interface ProjectUserRepository extends JpaRepository<ProjectUser, Projec
 
   List<ProjectUser> findByProject(Project project);
 
+  @Query("select pu from ProjectUser pu join fetch pu.user join fetch pu.project "
+      + "where pu.project.id in :projectIds")
+  List<ProjectUser> findWithUserByProjectIdIn(List<Integer> projectIds);
+
   List<ProjectUser> findByUser(User user);
 
   void deleteByProject(Project project);
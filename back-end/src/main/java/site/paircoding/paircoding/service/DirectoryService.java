@@ -1,36 +1,118 @@
 package site.paircoding.paircoding.service;
 
 
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import site.paircoding.paircoding.entity.Project;
 import site.paircoding.paircoding.entity.dto.DirectoryChildren;
+import site.paircoding.paircoding.entity.dto.DirectoryContentChunkDto;
 import site.paircoding.paircoding.entity.dto.DirectoryContentDto;
 import site.paircoding.paircoding.entity.dto.DirectoryCreateDto;
 import site.paircoding.paircoding.entity.dto.DirectoryDeleteDto;
+import site.paircoding.paircoding.entity.dto.DirectoryEditOperation;
+import site.paircoding.paircoding.entity.dto.DirectoryExceptionDto;
 import site.paircoding.paircoding.entity.dto.DirectoryListDto;
+import site.paircoding.paircoding.entity.dto.DirectoryPatchDto;
+import site.paircoding.paircoding.entity.dto.DirectoryQuickOpenDto;
 import site.paircoding.paircoding.entity.dto.DirectoryRenameDto;
 import site.paircoding.paircoding.entity.dto.DirectorySaveDto;
+import site.paircoding.paircoding.entity.dto.DirectorySearchDto;
+import site.paircoding.paircoding.entity.dto.DirectorySearchMatch;
+import site.paircoding.paircoding.entity.dto.DirectorySearchResultDto;
 import site.paircoding.paircoding.entity.enums.DirectoryAction;
 import site.paircoding.paircoding.entity.enums.DirectoryType;
 import site.paircoding.paircoding.global.exception.WebsocketException;
+import site.paircoding.paircoding.util.DirectoryTreeCache;
+import site.paircoding.paircoding.util.FileSearchIndex;
+import site.paircoding.paircoding.util.FileSearchIndex.ProjectIndex;
+import site.paircoding.paircoding.util.FileVersionStore;
+import site.paircoding.paircoding.util.FileVersionStore.FileVersion;
+import site.paircoding.paircoding.util.IgnoredDirectories;
 import site.paircoding.paircoding.util.KubernetesUtil;
+import site.paircoding.paircoding.util.PodCommandExecutor;
+import site.paircoding.paircoding.util.Utf8StreamDecoder;
 
 @Service
 @RequiredArgsConstructor
 public class DirectoryService {
 
+  private static final String USER_DESTINATION = "/sub/groups/%d/projects/%d/users/%d/directory";
+  private static final String ERROR_DESTINATION = "/sub/groups/%d/projects/%d/directory";
+  private static final int BINARY_PROBE_BYTES = 8192;
+  private static final int SEARCH_BATCH_SIZE = 50;
+  private static final long SEARCH_FLUSH_MILLIS = 200;
+
+  // 같은 파일의 저장/패치를 순서대로 처리하기 위한 락
+  private final Object[] pathLocks = Stream.generate(Object::new).limit(64).toArray();
+
+  // 사용자별("projectId:userId") 진행 중인 검색
+  private final Map<String, CompletableFuture<PodCommandExecutor.StreamResult>> activeSearches =
+      new ConcurrentHashMap<>();
+
+  @Value("${directory.content.chunk-bytes:65536}")
+  private int contentChunkBytes;
+
+  // 파일 내용 조회/저장 제한 시간
+  @Value("${directory.content.timeout-seconds:60}")
+  private long contentTimeoutSeconds;
+
+  @Value("${directory.recursive.max-depth:3}")
+  private int recursiveMaxDepth;
+
+  @Value("${directory.recursive.max-entries:5000}")
+  private int recursiveMaxEntries;
+
+  @Value("${directory.quick-open.limit:50}")
+  private int quickOpenLimit;
+
+  @Value("${directory.quick-open.max-paths:200000}")
+  private int quickOpenMaxPaths;
+
+  @Value("${directory.search.parallelism:4}")
+  private int searchParallelism;
+
+  @Value("${directory.search.default-limit:200}")
+  private int searchDefaultLimit;
+
+  @Value("${directory.search.max-results:1000}")
+  private int searchMaxResults;
+
+  @Value("${directory.search.timeout-seconds:30}")
+  private long searchTimeoutSeconds;
+
+  @Value("${directory.search.preview-chars:300}")
+  private int searchPreviewChars;
+
   private final KubernetesUtil kubernetesUtil;
+  private final DirectoryTreeCache directoryTreeCache;
+  private final FileVersionStore fileVersionStore;
+  private final FileSearchIndex fileSearchIndex;
+  private final PodCommandExecutor podCommandExecutor;
   private final SimpMessagingTemplate messagingTemplate;
   private final ProjectService projectService;
+  private final IgnoredDirectories ignoredDirectories;
 
   // todo pod 확인
-  // todo 메서드 호출마다 pod 찾는 로직 -> 찾아놓은 pod 이용하기
 
 
   public DirectoryListDto get(Integer groupId, Integer projectId, DirectoryListDto dto) {
@@ -41,7 +123,15 @@ public class DirectoryService {
     Project project = projectService.getProject(groupId, projectId);
 
     String deploymentName = project.getContainerId();
-    String command = "ls -al /app" + dto.getPath();
+    // 같은 디렉토리는 캐시에서 응답하고, 바뀐 내용은 캐시가 모든 사용자에게 전달한다
+    dto.setChildren(directoryTreeCache.list(groupId, projectId, deploymentName, dto.getPath(),
+        path -> listDirectory(deploymentName, path)));
+
+    return dto;
+  }
+
+  private List<DirectoryChildren> listDirectory(String deploymentName, String path) {
+    String command = "ls -al /app" + path;
 
     String[] lines = kubernetesUtil.executeCommand(deploymentName, command).split("\n");
     List<DirectoryChildren> directoryList = new ArrayList<>();
@@ -74,12 +164,141 @@ public class DirectoryService {
         fileList.add(new DirectoryChildren(++cnt, type, name));
       }
     }
-    dto.setChildren(Stream.concat(directoryList.stream(), fileList.stream())
-        .collect(Collectors.toList()));
+    return Stream.concat(directoryList.stream(), fileList.stream())
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * 디렉토리 아래를 한 번의 find로 depth 단계까지 읽어 중첩된 목록으로 응답한다.
+   * <p>
+   * 무시 패턴에 맞는 디렉토리(node_modules, .git 등)는 항목만 포함하고 안으로 들어가지 않으며, 항목 수가 최대값을 넘으면 앞부분만 응답하고
+   * truncated를 표시한다. 하위 항목을 읽지 않은 디렉토리는 children이 null이다.
+   */
+  public DirectoryListDto getRecursive(Integer groupId, Integer projectId, DirectoryListDto dto) {
+    if (DirectoryAction.LIST_RECURSIVE != dto.getAction()) {
+      throw new WebsocketException("Invalid action");
+    }
+
+    Project project = projectService.getProject(groupId, projectId);
+
+    String deploymentName = project.getContainerId();
+    int depth = dto.getDepth() == null ? recursiveMaxDepth
+        : Math.min(Math.max(dto.getDepth(), 1), recursiveMaxDepth);
+
+    // 항목마다 "종류 상대경로"를 NUL로 구분해 출력 (파일 이름에 공백/줄바꿈이 있어도 안전)
+    String command = "cd " + quote("/app" + dto.getPath())
+        + " && find . -mindepth 1 -maxdepth " + depth
+        + ignoredDirectories.pruneClause("-printf '%y %P\\0'") + " -printf '%y %P\\0'";
+
+    List<String> entries = findRecords(deploymentName, command,
+        recursiveMaxEntries + 1);
+    dto.setTruncated(entries.size() > recursiveMaxEntries);
+    if (dto.getTruncated()) {
+      entries = entries.subList(0, recursiveMaxEntries);
+    }
+
+    // find는 부모를 자식보다 먼저 출력한다
+    DirectoryChildren root = new DirectoryChildren(0, DirectoryType.DIRECTORY, "",
+        new ArrayList<>());
+    Map<String, DirectoryChildren> directories = new HashMap<>();
+    directories.put("", root);
+    for (String entry : entries) {
+      String relativePath = entry.substring(2);
+      int slash = relativePath.lastIndexOf('/');
+      DirectoryChildren parent = directories.get(slash < 0 ? "" : relativePath.substring(0, slash));
+      if (parent == null) {
+        continue;
+      }
+
+      String name = relativePath.substring(slash + 1);
+      DirectoryType type = entry.charAt(0) == 'd' ? DirectoryType.DIRECTORY : DirectoryType.FILE;
+      DirectoryChildren child = new DirectoryChildren(null, type, name);
+      int level = (int) relativePath.chars().filter(c -> c == '/').count() + 1;
+      if (type == DirectoryType.DIRECTORY && level < depth
+          && !ignoredDirectories.contains(name)) {
+        child.setChildren(new ArrayList<>());
+        directories.put(relativePath, child);
+      }
+      parent.getChildren().add(child);
+    }
+
+    sortAndNumber(root.getChildren(), new int[]{0});
+    dto.setChildren(root.getChildren());
+
+    return dto;
+  }
+
+  /**
+   * 파일 경로 색인에서 질의와 비슷한 파일을 찾아 점수 순으로 응답한다. 프로젝트의 첫 검색에서 색인을 만든다.
+   */
+  public DirectoryQuickOpenDto quickOpen(Integer groupId, Integer projectId,
+      DirectoryQuickOpenDto dto) {
+    if (DirectoryAction.QUICK_OPEN != dto.getAction()) {
+      throw new WebsocketException("Invalid action");
+    }
+
+    Project project = projectService.getProject(groupId, projectId);
+
+    String deploymentName = project.getContainerId();
+    ProjectIndex index = fileSearchIndex.get(projectId, () -> listFiles(deploymentName));
+    int limit = dto.getLimit() == null ? quickOpenLimit
+        : Math.min(Math.max(dto.getLimit(), 1), quickOpenLimit);
+
+    dto.setResults(dto.getQuery() == null || dto.getQuery().isBlank()
+        ? List.of() : index.search(dto.getQuery().trim(), limit));
+    dto.setIndexedPaths(index.size());
+    dto.setIndexBytes(index.estimatedBytes());
 
     return dto;
   }
 
+  /**
+   * 무시 패턴 디렉토리를 제외한 프로젝트의 모든 파일 경로를 /app 기준으로 읽는다.
+   */
+  private List<String> listFiles(String deploymentName) {
+    String command = "cd /app && find ." + ignoredDirectories.pruneClause("")
+        + " -type f -printf '%P\\0'";
+    return findRecords(deploymentName, command, quickOpenMaxPaths).stream()
+        .map(path -> "/" + path)
+        .toList();
+  }
+
+  /**
+   * NUL로 구분된 find 출력을 최대 maxEntries개까지 읽는다.
+   */
+  private List<String> findRecords(String deploymentName, String command, int maxEntries) {
+    RecordCollector records = new RecordCollector(maxEntries);
+    PodCommandExecutor.StreamResult result;
+    try {
+      result = podCommandExecutor.stream(deploymentName, command, null, records,
+          Duration.ofSeconds(contentTimeoutSeconds)).get();
+    } catch (ExecutionException e) {
+      throw new KubernetesClientException("Directory list failed", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new KubernetesClientException("Directory list interrupted", e);
+    }
+    // 읽을 수 없는 하위 디렉토리가 있어도 find는 실패 코드로 끝나므로 결과가 없을 때만 실패로 본다
+    if (result.getExitCode() != 0 && records.entries.isEmpty()) {
+      throw new WebsocketException("Path does not exist");
+    }
+    return records.entries;
+  }
+
+  /**
+   * LIST와 같이 디렉토리를 먼저, 이름순으로 정렬하고 순서대로 id를 붙인다.
+   */
+  private static void sortAndNumber(List<DirectoryChildren> children, int[] sequence) {
+    children.sort(Comparator.comparing((DirectoryChildren child) -> child.getType()
+        != DirectoryType.DIRECTORY).thenComparing(DirectoryChildren::getName));
+    for (DirectoryChildren child : children) {
+      child.setId(++sequence[0]);
+      if (child.getChildren() != null) {
+        sortAndNumber(child.getChildren(), sequence);
+      }
+    }
+  }
+
   public DirectoryCreateDto create(Integer groupId, Integer projectId, DirectoryCreateDto dto) {
     if (DirectoryAction.CREATE != dto.getAction()) {
       throw new WebsocketException("Invalid action");
@@ -109,6 +328,10 @@ public class DirectoryService {
     command = dto.getType() == DirectoryType.DIRECTORY ? "mkdir " + path : "touch " + path;
 
     kubernetesUtil.executeCommand(deploymentName, command);
+    directoryTreeCache.invalidate(projectId, dto.getPath(), dto.getName());
+    if (dto.getType() == DirectoryType.FILE) {
+      fileSearchIndex.add(projectId, dto.getPath() + "/" + dto.getName());
+    }
 
     return dto;
   }
@@ -143,6 +366,9 @@ public class DirectoryService {
         String command = "rm -rf " + path;
 
         kubernetesUtil.executeCommand(deploymentName, command);
+        fileVersionStore.invalidate(projectId, path);
+        directoryTreeCache.invalidate(projectId, dto.getPath(), dto.getName());
+        fileSearchIndex.remove(projectId, dto.getPath() + "/" + dto.getName());
 
         return dto;
       }
@@ -197,6 +423,12 @@ public class DirectoryService {
         command = "mv " + oldPath + " " + newPath;
 
         kubernetesUtil.executeCommand(deploymentName, command);
+        fileVersionStore.invalidate(projectId, oldPath);
+        fileVersionStore.invalidate(projectId, newPath);
+        directoryTreeCache.invalidate(projectId, dto.getPath(), dto.getOldName());
+        directoryTreeCache.invalidate(projectId, dto.getPath(), dto.getNewName());
+        fileSearchIndex.rename(projectId, dto.getPath() + "/" + dto.getOldName(),
+            dto.getPath() + "/" + dto.getNewName());
         break;
       }
     }
@@ -204,7 +436,14 @@ public class DirectoryService {
     return dto;
   }
 
-  public DirectoryContentDto content(Integer groupId, Integer projectId, DirectoryContentDto dto) {
+  /**
+   * 파일 내용을 사용자 destination으로 보낸다. 바이너리 파일은 메타데이터만 보낸다.
+   * <p>
+   * 범위(offset/length) 없이 요청한 작은 파일은 기존처럼 메시지 하나로 보내고, 범위를 지정했거나 파일이 크면 요청한 범위만 읽어 번호를 붙인
+   * 청크로 나눠 보낸다. 파일 전체를 서버 메모리에 올리지 않는다. 작은 파일은 내용을 패치 기준 버전으로 기록하고 hash/version을 함께 보낸다.
+   */
+  public void content(Integer groupId, Integer projectId, Integer userId,
+      DirectoryContentDto dto) {
     if (DirectoryAction.CONTENT != dto.getAction()) {
       throw new WebsocketException("Invalid action");
     }
@@ -216,14 +455,127 @@ public class DirectoryService {
     Project project = projectService.getProject(groupId, projectId);
 
     String deploymentName = project.getContainerId();
-    String command = "cat /app" + dto.getPath() + "/" + dto.getName();
+    String filePath = "/app" + dto.getPath() + "/" + dto.getName();
+    String path = quote(filePath);
+    String destination = USER_DESTINATION.formatted(groupId, projectId, userId);
+
+    // 파일 크기와 앞부분의 NUL 바이트 수를 한 번에 조회
+    String command = "stat -c %s " + path + " && head -c " + BINARY_PROBE_BYTES + " " + path
+        + " | tr -dc '\\000' | wc -c";
+    String[] probe = kubernetesUtil.executeCommand(deploymentName, command).split("\\s+");
+    long size = Long.parseLong(probe[0]);
+    dto.setSize(size);
+    dto.setBinary(Long.parseLong(probe[1]) > 0);
+
+    if (dto.getBinary()) {
+      messagingTemplate.convertAndSend(destination, dto);
+      return;
+    }
 
-    dto.setContent(kubernetesUtil.executeCommand(deploymentName, command));
+    if (dto.getOffset() == null && dto.getLength() == null && size <= contentChunkBytes) {
+      // 앞뒤 공백과 줄바꿈까지 그대로 보내도록 바이트 단위로 읽고, 읽은 내용을 패치 기준 버전으로 기록한다
+      synchronized (pathLock(projectId, filePath)) {
+        String content = readFile(deploymentName, filePath);
+        FileVersion current = fileVersionStore.get(projectId, filePath);
+        if (current == null || !current.getContent().equals(content)) {
+          current = fileVersionStore.put(projectId, filePath, content);
+        }
+        dto.setContent(content);
+        dto.setHash(current.getHash());
+        dto.setVersion(current.getVersion());
+      }
+      messagingTemplate.convertAndSend(destination, dto);
+      return;
+    }
 
-    return dto;
+    long offset = Math.min(dto.getOffset() == null ? 0 : Math.max(dto.getOffset(), 0), size);
+    long length = Math.min(dto.getLength() == null ? size : Math.max(dto.getLength(), 0),
+        size - offset);
+
+    ContentChunkStream chunks = new ContentChunkStream(destination, dto, size, offset);
+    command = "tail -c +" + (offset + 1) + " " + path + " | head -c " + length;
+    podCommandExecutor.stream(deploymentName, command, null, chunks,
+            Duration.ofSeconds(contentTimeoutSeconds))
+        .whenComplete((result, e) -> {
+          if (e == null && result.getExitCode() == 0) {
+            chunks.finish();
+            return;
+          }
+          String message = e != null ? e.getMessage() : result.getError().trim();
+          messagingTemplate.convertAndSend(ERROR_DESTINATION.formatted(groupId, projectId),
+              new DirectoryExceptionDto("File system error: " + message));
+        });
   }
 
+  /**
+   * 프로젝트 파일 내용을 pod에서 grep으로 검색하고, 찾는 대로 묶어서 사용자 destination으로 보낸다.
+   * <p>
+   * 파일 목록을 xargs -P로 나눠 여러 grep을 동시에 실행하며, 결과 수 제한에 도달하면 head가 끝나면서 pod의 검색도 멈춘다. 같은 사용자가
+   * 새 검색을 보내면(빈 질의 포함) 진행 중인 검색의 exec를 닫아 취소한다.
+   */
+  public void search(Integer groupId, Integer projectId, Integer userId, DirectorySearchDto dto) {
+    if (DirectoryAction.SEARCH != dto.getAction()) {
+      throw new WebsocketException("Invalid action");
+    }
+
+    String searchKey = projectId + ":" + userId;
+    CompletableFuture<PodCommandExecutor.StreamResult> previous = activeSearches.remove(searchKey);
+    if (previous != null) {
+      previous.cancel(true);
+    }
+    if (dto.getQuery() == null || dto.getQuery().isEmpty()) {
+      return;
+    }
+
+    Project project = projectService.getProject(groupId, projectId);
+
+    String deploymentName = project.getContainerId();
+    String destination = USER_DESTINATION.formatted(groupId, projectId, userId);
+    int limit = dto.getLimit() == null ? searchDefaultLimit
+        : Math.min(Math.max(dto.getLimit(), 1), searchMaxResults);
+
+    StringBuilder command = new StringBuilder("cd /app && find .")
+        .append(ignoredDirectories.pruneClause(""))
+        .append(" -type f");
+    if (dto.getGlobs() != null && !dto.getGlobs().isEmpty()) {
+      // 경로가 들어간 패턴은 -path, 이름 패턴은 -name으로 비교한다
+      command.append(" \\( ").append(dto.getGlobs().stream()
+              .map(glob -> glob.contains("/") ? "-path " + quote("./" + glob) : "-name " + quote(glob))
+              .collect(Collectors.joining(" -o ")))
+          .append(" \\)");
+    }
+    // 파일 이름 뒤에 NUL을 붙여(-Z) 이름에 ':'가 있어도 구분하고, 줄 단위로 출력해 여러 grep의 결과가 섞이지 않게 한다
+    command.append(" -print0 | xargs -0 -r -P ").append(searchParallelism)
+        .append(" -n 64 grep -I -n -H -Z --line-buffered")
+        .append(Boolean.TRUE.equals(dto.getCaseSensitive()) ? "" : " -i")
+        .append(Boolean.TRUE.equals(dto.getRegex()) ? " -E" : " -F")
+        .append(" -e ").append(quote(dto.getQuery()))
+        .append(" -- 2>/dev/null | head -n ").append(limit + 1);
+
+    SearchResultStream results = new SearchResultStream(destination, dto.getSearchId(), limit);
+    CompletableFuture<PodCommandExecutor.StreamResult> future = podCommandExecutor.stream(
+        deploymentName, command.toString(), null, results,
+        Duration.ofSeconds(searchTimeoutSeconds));
+    activeSearches.put(searchKey, future);
+    future.whenComplete((result, e) -> {
+      activeSearches.remove(searchKey, future);
+      if (future.isCancelled()) {
+        results.cancel(); // 새 검색으로 취소됨 - 더 보내지 않는다
+        return;
+      }
+      boolean timedOut = e instanceof TimeoutException;
+      if (e != null && !timedOut) {
+        messagingTemplate.convertAndSend(ERROR_DESTINATION.formatted(groupId, projectId),
+            new DirectoryExceptionDto("File system error: " + e.getMessage()));
+      }
+      results.finish(timedOut);
+    });
+  }
 
+  /**
+   * 파일 내용을 exec의 stdin으로 보내 저장한다. 명령 인자 길이 제한이 없고 바이트를 그대로 쓰며, 임시 파일에 다 쓴 뒤 교체하므로 저장 중인
+   * 파일이 잘린 상태로 보이지 않는다.
+   */
   public DirectorySaveDto save(Integer groupId, Integer projectId, DirectorySaveDto dto) {
     if (DirectoryAction.SAVE != dto.getAction()) {
       throw new WebsocketException("Invalid action");
@@ -237,10 +589,362 @@ public class DirectoryService {
 
     String deploymentName = project.getContainerId();
     String path = "/app" + dto.getPath() + "/" + dto.getName();
-    String command = String.format("echo '%s' > %s", dto.getContent().replace("'", "'\\''"), path);
+    byte[] content = dto.getContent().getBytes(StandardCharsets.UTF_8);
+    synchronized (pathLock(projectId, path)) {
+      writeFile(deploymentName, path, -1, 0, content);
+      FileVersion version = fileVersionStore.put(projectId, path, dto.getContent());
+      dto.setHash(version.getHash());
+      dto.setVersion(version.getVersion());
+    }
+    dto.setBytesWritten((long) content.length);
 
-    kubernetesUtil.executeCommand(deploymentName, command);
+    return dto;
+  }
+
+  /**
+   * 편집 연산을 마지막 저장 내용에 적용해 저장하고, 다른 사용자에게는 연산만 전달한다.
+   * <p>
+   * baseHash가 현재 버전과 다르면 거부한다. pod에는 처음 바뀐 위치 이후의 내용만 보내고 앞부분은 pod에 있는 파일에서 그대로 복사한다. pod의
+   * 파일 크기가 기록과 다르면(터미널 등에서 수정된 경우) 덮어쓰지 않고 거부한다.
+   */
+  public DirectoryPatchDto patch(Integer groupId, Integer projectId, DirectoryPatchDto dto) {
+    if (DirectoryAction.PATCH != dto.getAction()) {
+      throw new WebsocketException("Invalid action");
+    }
+
+    if (DirectoryType.FILE != dto.getType()) {
+      throw new WebsocketException("Invalid type");
+    }
+
+    Project project = projectService.getProject(groupId, projectId);
+
+    String deploymentName = project.getContainerId();
+    String path = "/app" + dto.getPath() + "/" + dto.getName();
+
+    synchronized (pathLock(projectId, path)) {
+      FileVersion current = fileVersionStore.get(projectId, path);
+      if (current == null) {
+        current = fileVersionStore.put(projectId, path, readFile(deploymentName, path));
+      }
+      if (!current.getHash().equals(dto.getBaseHash())) {
+        throw new WebsocketException("Stale patch");
+      }
+
+      // 연산을 순서대로 적용하며 처음 바뀐 위치를 기록한다
+      StringBuilder content = new StringBuilder(current.getContent());
+      int firstChange = content.length();
+      for (DirectoryEditOperation operation : dto.getOperations()) {
+        int start = operation.getOffset();
+        int end = start + operation.getDeleteCount();
+        if (start < 0 || operation.getDeleteCount() < 0 || end > content.length()) {
+          throw new WebsocketException("Invalid patch");
+        }
+        content.replace(start, end, operation.getInsert() == null ? "" : operation.getInsert());
+        firstChange = Math.min(firstChange, start);
+      }
+      // 서로게이트 쌍 중간에서 자르지 않는다
+      if (firstChange > 0 && Character.isHighSurrogate(content.charAt(firstChange - 1))) {
+        firstChange--;
+      }
+
+      String updated = content.toString();
+      int keepBytes = updated.substring(0, firstChange).getBytes(StandardCharsets.UTF_8).length;
+      byte[] tail = updated.substring(firstChange).getBytes(StandardCharsets.UTF_8);
+      try {
+        writeFile(deploymentName, path, current.getByteLength(), keepBytes, tail);
+      } catch (WebsocketException e) {
+        // pod의 파일이 기록과 다를 수 있으므로 다음 요청에서 다시 읽는다
+        fileVersionStore.invalidate(projectId, path);
+        throw e;
+      }
+
+      FileVersion version = fileVersionStore.put(projectId, path, updated);
+      dto.setHash(version.getHash());
+      dto.setVersion(version.getVersion());
+      dto.setBytesWritten((long) tail.length);
+    }
 
     return dto;
   }
+
+  /**
+   * 기존 파일의 앞부분(keepBytes)과 stdin으로 받은 내용(tail)을 임시 파일에 쓰고, 크기가 맞으면 원래 파일과 교체한다.
+   * <p>
+   * 심볼릭 링크는 가리키는 파일을 고친다. 임시 파일에 원래 파일의 권한과 소유자를 옮긴 뒤 rename으로 교체하며, 하드 링크가 있거나 소유자를
+   * 옮길 수 없으면 rename 대신 원래 파일에 내용을 덮어써 inode를 유지한다.
+   *
+   * @param expectedSize 기존 파일 크기가 이 값과 다르면 쓰지 않는다, 음수면 확인하지 않음
+   * @param keepBytes    기존 파일에서 그대로 둘 앞부분 바이트 수
+   * @param tail         앞부분 뒤에 이어 쓸 내용
+   */
+  private void writeFile(String deploymentName, String path, long expectedSize, long keepBytes,
+      byte[] tail) {
+    long size = keepBytes + tail.length;
+
+    // 링크를 따라간 실제 경로 - 없는 파일이면 그대로 쓴다
+    StringBuilder command = new StringBuilder("t=$(readlink -f ").append(quote(path))
+        .append(") || t=").append(quote(path)).append("; s=\"$t.pading-save\"; ");
+    if (expectedSize >= 0) {
+      command.append("[ \"$(wc -c < \"$t\")\" -eq ").append(expectedSize)
+          .append(" ] || exit 2; ");
+    }
+    // stdin 종료(EOF)에 의존하지 않도록 정확한 바이트 수만큼만 읽는다
+    command.append("{ ");
+    if (keepBytes > 0) {
+      command.append("head -c ").append(keepBytes).append(" \"$t\" && ");
+    }
+    command.append("head -c ").append(tail.length).append("; } > \"$s\"")
+        .append(" && [ \"$(wc -c < \"$s\")\" -eq ").append(size).append(" ]")
+        .append(" || { rm -f \"$s\"; exit 1; }; ")
+        .append("if [ ! -e \"$t\" ]; then mv -f \"$s\" \"$t\"; ")
+        .append("elif set -- $(stat -c '%h %a %u:%g' \"$t\") && [ \"$1\" -eq 1 ]")
+        .append(" && chmod \"$2\" \"$s\" && chown \"$3\" \"$s\" 2>/dev/null;")
+        .append(" then mv -f \"$s\" \"$t\"; ")
+        .append("else cat \"$s\" > \"$t\"; fi; r=$?; rm -f \"$s\"; exit $r");
+
+    PodCommandExecutor.StreamResult result;
+    try {
+      result = podCommandExecutor.stream(deploymentName, command.toString(),
+              new ByteArrayInputStream(tail), OutputStream.nullOutputStream(),
+              Duration.ofSeconds(contentTimeoutSeconds))
+          .get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof TimeoutException) {
+        throw new WebsocketException("File save timed out");
+      }
+      throw new KubernetesClientException("File save failed", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new KubernetesClientException("File save interrupted", e);
+    }
+
+    if (result.getExitCode() == 2) {
+      throw new WebsocketException("Stale patch");
+    }
+    if (result.getExitCode() != 0) {
+      String error = result.getError();
+      throw new WebsocketException(error.contains("No such file or directory")
+          ? "Path does not exist" : "File operation failed");
+    }
+  }
+
+  private String readFile(String deploymentName, String path) {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    PodCommandExecutor.StreamResult result;
+    try {
+      result = podCommandExecutor.stream(deploymentName, "cat " + quote(path), null, output,
+          Duration.ofSeconds(contentTimeoutSeconds)).get();
+    } catch (ExecutionException e) {
+      throw new KubernetesClientException("File read failed", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new KubernetesClientException("File read interrupted", e);
+    }
+    if (result.getExitCode() != 0) {
+      throw new WebsocketException("Path does not exist");
+    }
+    return output.toString(StandardCharsets.UTF_8);
+  }
+
+  private Object pathLock(int projectId, String path) {
+    return pathLocks[Math.floorMod(Objects.hash(projectId, path), pathLocks.length)];
+  }
+
+  /**
+   * grep 출력("경로\\0줄번호:내용" 형식)을 줄 단위로 나눠 SEARCH_BATCH_SIZE개씩, 또는 SEARCH_FLUSH_MILLIS마다 보내는
+   * 스트림.
+   */
+  private class SearchResultStream extends OutputStream {
+
+    private final String destination;
+    private final String searchId;
+    private final int limit;
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+    private List<DirectorySearchMatch> pending = new ArrayList<>();
+    private int count;
+    private boolean closed;
+    private long lastSentAt = System.nanoTime();
+
+    private SearchResultStream(String destination, String searchId, int limit) {
+      this.destination = destination;
+      this.searchId = searchId;
+      this.limit = limit;
+    }
+
+    @Override
+    public synchronized void write(int b) {
+      if (closed) {
+        return;
+      }
+      if (b != '\n') {
+        line.write(b);
+        return;
+      }
+      byte[] bytes = line.toByteArray();
+      line.reset();
+      if (++count > limit) {
+        return; // 제한을 넘었는지 확인하기 위해 한 줄 더 받는다
+      }
+      parse(bytes);
+      if (pending.size() >= SEARCH_BATCH_SIZE
+          || System.nanoTime() - lastSentAt > SEARCH_FLUSH_MILLIS * 1_000_000) {
+        send(false, false);
+      }
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+      for (int i = off; i < off + len; i++) {
+        write(b[i]);
+      }
+    }
+
+    private void parse(byte[] bytes) {
+      int separator = 0;
+      while (separator < bytes.length && bytes[separator] != 0) {
+        separator++;
+      }
+      if (separator < 2 || separator == bytes.length) {
+        return;
+      }
+      String rest = new String(bytes, separator + 1, bytes.length - separator - 1,
+          StandardCharsets.UTF_8);
+      int colon = rest.indexOf(':');
+      if (colon < 0) {
+        return;
+      }
+      // find 출력은 ./ 로 시작한다
+      String path = new String(bytes, 1, separator - 1, StandardCharsets.UTF_8);
+      String preview = rest.substring(colon + 1);
+      pending.add(new DirectorySearchMatch(path, Integer.parseInt(rest.substring(0, colon)),
+          preview.length() > searchPreviewChars ? preview.substring(0, searchPreviewChars)
+              : preview));
+    }
+
+    private synchronized void finish(boolean timedOut) {
+      if (!closed) {
+        send(true, timedOut || count > limit);
+        closed = true;
+      }
+    }
+
+    private synchronized void cancel() {
+      closed = true;
+    }
+
+    private void send(boolean last, boolean truncated) {
+      messagingTemplate.convertAndSend(destination, DirectorySearchResultDto.builder()
+          .action(DirectoryAction.SEARCH)
+          .searchId(searchId)
+          .matches(pending)
+          .last(last)
+          .truncated(truncated)
+          .build());
+      pending = new ArrayList<>();
+      lastSentAt = System.nanoTime();
+    }
+  }
+
+  /**
+   * NUL로 구분된 항목을 최대 개수까지만 모으고 나머지는 버리는 스트림.
+   */
+  private static class RecordCollector extends OutputStream {
+
+    private final int maxEntries;
+    private final List<String> entries = new ArrayList<>();
+    private final ByteArrayOutputStream current = new ByteArrayOutputStream();
+
+    private RecordCollector(int maxEntries) {
+      this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public synchronized void write(int b) {
+      if (entries.size() >= maxEntries) {
+        return;
+      }
+      if (b != 0) {
+        current.write(b);
+        return;
+      }
+      entries.add(current.toString(StandardCharsets.UTF_8));
+      current.reset();
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+      for (int i = off; i < off + len && entries.size() < maxEntries; i++) {
+        write(b[i]);
+      }
+    }
+  }
+
+  private static String quote(String path) {
+    return "'" + path.replace("'", "'\\''") + "'";
+  }
+
+  /**
+   * exec 출력을 일정 크기로 모아 UTF-8 경계에 맞춰 디코딩한 뒤 번호를 붙여 보내는 스트림.
+   */
+  private class ContentChunkStream extends OutputStream {
+
+    private final String destination;
+    private final DirectoryContentDto request;
+    private final long size;
+    private final byte[] buffer = new byte[contentChunkBytes];
+    private final Utf8StreamDecoder decoder = new Utf8StreamDecoder(contentChunkBytes);
+    private int count;
+    private int chunkIndex;
+    private long chunkOffset;
+
+    private ContentChunkStream(String destination, DirectoryContentDto request, long size,
+        long offset) {
+      this.destination = destination;
+      this.request = request;
+      this.size = size;
+      this.chunkOffset = offset;
+    }
+
+    @Override
+    public void write(int b) {
+      write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+      while (len > 0) {
+        int n = Math.min(len, buffer.length - count);
+        System.arraycopy(b, off, buffer, count, n);
+        count += n;
+        off += n;
+        len -= n;
+        if (count == buffer.length) {
+          send(false);
+        }
+      }
+    }
+
+    private synchronized void finish() {
+      send(true);
+    }
+
+    private void send(boolean last) {
+      String content = decoder.decode(buffer, 0, count);
+      if (last) {
+        content += decoder.flush();
+      }
+      messagingTemplate.convertAndSend(destination, DirectoryContentChunkDto.builder()
+          .action(DirectoryAction.CONTENT)
+          .path(request.getPath())
+          .name(request.getName())
+          .size(size)
+          .offset(chunkOffset)
+          .chunkIndex(chunkIndex++)
+          .content(content)
+          .last(last)
+          .build());
+      chunkOffset += count;
+      count = 0;
+    }
+  }
 }
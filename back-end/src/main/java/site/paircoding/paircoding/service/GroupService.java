@@ -142,19 +142,20 @@ public class GroupService {
   //그룹 멤버 목록 조회
   public List<GroupUserResponse> getGroupUsers(Integer groupId) {
 
-    //그룹 멤버 목록 Role 조회
-    List<GroupUser> groupUsers = groupUserRepository.findGroupUserByGroupId(groupId)
-        .orElseThrow(() -> new NotFoundException("Group not found."));
+    //그룹 멤버 목록 Role 조회 (유저 fetch join)
+    List<GroupUser> groupUsers = groupUserRepository.findWithUserByGroupId(groupId);
+
+    //접속 상태는 MGET 한 번으로 조회, 키가 없으면 offline (조회 중에 저장하지 않음)
+    List<Object> statuses = redisUtil.mget(groupUsers.stream()
+        .map(groupUser -> STATUS_PREFIX.formatted(groupUser.getUser().getId()))
+        .toList());
 
     List<GroupUserResponse> list = new ArrayList<>();
 
-    for (GroupUser groupUser : groupUsers) {
+    for (int i = 0; i < groupUsers.size(); i++) {
+      GroupUser groupUser = groupUsers.get(i);
       User searchedUser = groupUser.getUser();
-      String status = (String) redisUtil.get(STATUS_PREFIX.formatted(searchedUser.getId()));
-      if (status == null) {
-        redisUtil.set(STATUS_PREFIX.formatted(searchedUser.getId()), "offline");
-        status = "offline";
-      }
+      String status = statuses.get(i) == null ? "offline" : (String) statuses.get(i);
       list.add(GroupUserResponse.builder()
           .id(searchedUser.getId())
           .name(searchedUser.getName())
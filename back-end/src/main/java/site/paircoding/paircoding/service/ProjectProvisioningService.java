@@ -0,0 +1,209 @@
+package site.paircoding.paircoding.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import site.paircoding.paircoding.entity.Project;
+import site.paircoding.paircoding.entity.dto.ProvisioningEventDto;
+import site.paircoding.paircoding.entity.enums.LabelKey;
+import site.paircoding.paircoding.entity.enums.ProvisioningStatus;
+import site.paircoding.paircoding.repository.ProjectRepository;
+import site.paircoding.paircoding.repository.ProjectUserRepository;
+import site.paircoding.paircoding.util.KubernetesUtil;
+import site.paircoding.paircoding.util.PodProvisioning;
+import site.paircoding.paircoding.util.RedisUtil;
+
+/**
+ * 프로젝트 리소스(PV/PVC, Deployment, Service, nginx 설정) 생성을 요청 스레드 밖에서 진행하는 서비스.
+ * <p>
+ * 프로젝트 행은 요청 트랜잭션에서 먼저 저장되고, 커밋 이후 이 서비스의 전용 스레드 풀에서 리소스를 만든다. 진행 상황은 프로젝트 id 기준으로
+ * /sub/groups/{groupId}/projects/{projectId}/provisioning 으로 전송하며, 실패하면 생성된 리소스와 프로젝트 행을 정리한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProjectProvisioningService {
+
+  private static final String PROVISIONING_DESTINATION = "/sub/groups/%d/projects/%d/provisioning";
+  private static final String CALL_STATUS_KEY = "callStatusProjectId:%s"; // Redis 저장 키 형식
+
+  @Value("${project.provisioning.threads:4}")
+  private int threads;
+
+  @Value("${project.provisioning.queue-capacity:50}")
+  private int queueCapacity;
+
+  @Value("${project.provisioning.ready-timeout-seconds:300}")
+  private long readyTimeoutSeconds;
+
+  @Value("${project.provisioning.route-timeout-seconds:60}")
+  private long routeTimeoutSeconds;
+
+  private final KubernetesUtil kubernetesUtil;
+  private final ProjectRouteService projectRouteService;
+  private final ProjectRepository projectRepository;
+  private final ProjectUserRepository projectUserRepository;
+  private final RedisUtil redisUtil;
+  private final SimpMessagingTemplate messagingTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private ThreadPoolExecutor executor;
+
+  @PostConstruct
+  public void start() {
+    AtomicInteger sequence = new AtomicInteger();
+    executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+      Thread thread = new Thread(runnable, "project-provisioning-" + sequence.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  @PreDestroy
+  public void stop() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * 프로젝트 리소스 생성을 대기열에 넣는다. 프로젝트 행과 NodePort가 이미 저장/예약된 상태여야 한다.
+   *
+   * @param project   저장된 프로젝트
+   * @param subdomain 프로젝트에 연결할 서브도메인
+   * @param warm      웜 풀에서 할당받은 Deployment 사용 여부 - 서비스만 새로 생성한다
+   */
+  public void provision(Project project, String subdomain, boolean warm) {
+    try {
+      executor.execute(() -> run(project, subdomain, warm));
+    } catch (RejectedExecutionException e) {
+      log.warn("Provisioning queue is full: projectId={}", project.getId());
+      releaseWarmPod(project.getContainerId(), warm);
+      fail(project, System.nanoTime(), "프로젝트 생성 요청이 많아 처리하지 못했습니다.", false);
+    }
+  }
+
+  private void run(Project project, String subdomain, boolean warm) {
+    long startedAt = System.nanoTime();
+    String deploymentName = project.getContainerId();
+
+    PodProvisioning provisioning;
+    try {
+      BiConsumer<String, Long> stepListener =
+          (step, elapsed) -> publish(project, step, ProvisioningStatus.IN_PROGRESS, elapsed, null);
+      provisioning = warm
+          ? kubernetesUtil.attachWarmPodAsync(project.getGroup().getId(), deploymentName,
+              project.getProjectImage(), project.getNodePort(), stepListener)
+          : kubernetesUtil.createPodAsync(project.getGroup().getId(), deploymentName,
+              project.getProjectImage(), project.getPerformance(), project.getNodePort(),
+              stepListener);
+    } catch (RuntimeException e) {
+      log.error("Provisioning failed to start: projectId={}", project.getId(), e);
+      releaseWarmPod(deploymentName, warm);
+      fail(project, startedAt, e.getMessage(), false);
+      return;
+    }
+
+    try {
+      // 파드 생성과 동시에 서브도메인 연결 (nginx 설정은 다른 프로젝트 변경과 묶여 reload된다)
+      long routeStartedAt = System.nanoTime();
+      projectRouteService.register(subdomain, project.getNodePort())
+          .orTimeout(routeTimeoutSeconds, TimeUnit.SECONDS)
+          .join();
+      publish(project, "nginx", ProvisioningStatus.IN_PROGRESS, elapsedSince(routeStartedAt), null);
+    } catch (RuntimeException e) {
+      log.error("Nginx config failed: projectId={}", project.getId(), e);
+      awaitQuietly(provisioning);
+      deletePodQuietly(deploymentName);
+      fail(project, startedAt, e.getMessage(), true);
+      return;
+    }
+
+    try {
+      provisioning.await();
+
+      long readyStartedAt = System.nanoTime();
+      kubernetesUtil.waitUntilReady(deploymentName, readyTimeoutSeconds);
+      publish(project, "ready", ProvisioningStatus.IN_PROGRESS, elapsedSince(readyStartedAt), null);
+    } catch (RuntimeException e) {
+      log.error("Provisioning failed: projectId={}", project.getId(), e);
+      // 리소스 생성 실패는 스스로 정리되지만, Ready 대기 실패는 여기서 정리한다
+      deletePodQuietly(deploymentName);
+      fail(project, startedAt, e.getMessage(), true);
+      return;
+    }
+
+    redisUtil.set(CALL_STATUS_KEY.formatted(project.getId()), "inactive");
+    log.info("Provisioning completed: projectId={}, timings={}", project.getId(),
+        provisioning.getTimings());
+    publish(project, null, ProvisioningStatus.COMPLETED, elapsedSince(startedAt), null);
+  }
+
+  private void fail(Project project, long startedAt, String message, boolean routeCreated) {
+    try {
+      if (routeCreated) {
+        projectRouteService.unregister(project);
+      }
+      kubernetesUtil.releaseNodePort(project.getNodePort());
+      transactionTemplate.executeWithoutResult(status -> {
+        projectUserRepository.deleteByProject(project);
+        projectRepository.deleteById(project.getId());
+      });
+    } catch (RuntimeException e) {
+      log.error("Provisioning cleanup failed: projectId={}", project.getId(), e);
+    }
+    publish(project, null, ProvisioningStatus.FAILED, elapsedSince(startedAt), message);
+  }
+
+  private void publish(Project project, String step, ProvisioningStatus status, long elapsedMillis,
+      String message) {
+    messagingTemplate.convertAndSend(
+        PROVISIONING_DESTINATION.formatted(project.getGroup().getId(), project.getId()),
+        ProvisioningEventDto.builder()
+            .projectId(project.getId())
+            .step(step)
+            .status(status)
+            .elapsedMillis(elapsedMillis)
+            .message(message)
+            .build());
+  }
+
+  private static void awaitQuietly(PodProvisioning provisioning) {
+    try {
+      provisioning.await();
+    } catch (RuntimeException ignored) {
+      // 리소스 생성 실패는 이미 롤백됨
+    }
+  }
+
+  /**
+   * 할당받은 웜 Deployment는 이미 풀에서 빠졌으므로, 생성이 시작되기 전에 실패하면 직접 삭제한다 (풀로 돌려놓지 않는다).
+   */
+  private void releaseWarmPod(String deploymentName, boolean warm) {
+    if (warm) {
+      deletePodQuietly(deploymentName);
+    }
+  }
+
+  private void deletePodQuietly(String deploymentName) {
+    try {
+      kubernetesUtil.deletePod(LabelKey.DEPLOYMENT_NAME, deploymentName);
+    } catch (RuntimeException e) {
+      log.error("Pod cleanup failed: deploymentName={}", deploymentName, e);
+    }
+  }
+
+  private static long elapsedSince(long startedAt) {
+    return (System.nanoTime() - startedAt) / 1_000_000;
+  }
+}
@@ -0,0 +1,93 @@
+package site.paircoding.paircoding.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import site.paircoding.paircoding.entity.Project;
+import site.paircoding.paircoding.repository.ProjectRepository;
+import site.paircoding.paircoding.util.NginxConfigUtil;
+import site.paircoding.paircoding.util.ProjectRouteTable;
+
+/**
+ * 프로젝트 서브도메인 라우팅을 관리하는 서비스.
+ * <p>
+ * 내장 프록시(proxy.enabled)를 사용하면 인스턴스 간에 공유되는 라우팅 테이블만 갱신하고, 아니면 nginx 설정을 변경한다. map 라우팅 모드에서는 기동 시
+ * Project 테이블 전체로 map 파일을 한 번에 다시 작성한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProjectRouteService {
+
+  private final ProjectRepository projectRepository;
+  private final NginxConfigUtil nginxConfigUtil;
+  private final ProjectRouteTable projectRouteTable;
+
+  /**
+   * 서브도메인을 NodePort로 연결한다.
+   *
+   * @return 라우팅이 적용되면 완료되는 future
+   */
+  public CompletableFuture<Void> register(String subdomain, int nodePort) {
+    if (projectRouteTable.isEnabled()) {
+      projectRouteTable.put(subdomain, nodePort);
+      return CompletableFuture.completedFuture(null);
+    }
+    return nginxConfigUtil.createNginxConfig(subdomain, nodePort);
+  }
+
+  /**
+   * 프로젝트의 서브도메인 연결을 제거한다. 실패는 로그로만 남긴다.
+   */
+  public CompletableFuture<Void> unregister(Project project) {
+    String subdomain = subdomainOf(project);
+    if (projectRouteTable.isEnabled()) {
+      projectRouteTable.remove(subdomain);
+      return CompletableFuture.completedFuture(null);
+    }
+    return nginxConfigUtil.deleteNginxConfig(subdomain);
+  }
+
+  /**
+   * 프로젝트의 서브도메인. 웜 풀에서 받은 프로젝트는 Deployment 이름(containerId)과 서브도메인이 다르므로 deploymentUrl에서 얻는다.
+   */
+  public String subdomainOf(Project project) {
+    String deploymentUrl = project.getDeploymentUrl();
+    if (deploymentUrl == null) {
+      return nginxConfigUtil.createSubdomain(project.getContainerId());
+    }
+    return deploymentUrl.substring(0, deploymentUrl.indexOf('.'));
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void renderRoutes() {
+    Map<String, Integer> routes = new LinkedHashMap<>();
+    for (Project project : projectRepository.findAll()) {
+      routes.put(subdomainOf(project), project.getNodePort());
+    }
+
+    if (projectRouteTable.isEnabled()) {
+      projectRouteTable.load(routes);
+      log.info("프록시 라우팅 테이블 로드: routes={}", projectRouteTable.size());
+      return;
+    }
+    if (!nginxConfigUtil.isMapRouting()) {
+      return;
+    }
+
+    long startedAt = System.nanoTime();
+    nginxConfigUtil.renderRouteMap(routes).whenComplete((ignored, e) -> {
+      if (e != null) {
+        log.error("nginx 라우팅 map 작성 실패: routes={}", routes.size(), e);
+      } else {
+        log.info("nginx 라우팅 map 작성: routes={}, elapsed={}ms", routes.size(),
+            (System.nanoTime() - startedAt) / 1_000_000);
+      }
+    });
+  }
+}
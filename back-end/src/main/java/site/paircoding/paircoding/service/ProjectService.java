@@ -1,10 +1,17 @@
 package site.paircoding.paircoding.service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import site.paircoding.paircoding.config.AppConfig;
 import site.paircoding.paircoding.entity.Group;
 import site.paircoding.paircoding.entity.GroupUser;
@@ -52,8 +59,15 @@ public class ProjectService {
   private final GroupUserRepository groupUserRepository;
   private final ProjectUserRepository projectUserRepository;
   private final RedisUtil redisUtil;
+  private final ProjectProvisioningService projectProvisioningService;
+  private final WarmPoolService warmPoolService;
+  private final ProjectRouteService projectRouteService;
   private static final String CALL_STATUS_KEY = "callStatusProjectId:%s"; // Redis 저장 키 형식
   private static final String PROJECT_USER_KEY = "project:%s:user:%s"; // Redis 저장 키 형식
+  private static final String PROJECT_ONLINE_KEY = "project:%s:online"; // 프로젝트 접속자 ZSET
+
+  @Value("${presence.ttl-seconds:90}")
+  private long presenceTtlSeconds;
 
   public List<ProjectLanguageDto> getLanguage() {
     return projectImageRepository.findDistinctLanguage();
@@ -81,6 +95,10 @@ public class ProjectService {
         .toList();
   }
 
+  /**
+   * 프로젝트를 저장하고 바로 반환한다. 파드/서비스/nginx 설정은 커밋 이후 백그라운드에서 생성되며, 반환된 프로젝트 id로
+   * /sub/groups/{groupId}/projects/{projectId}/provisioning 을 구독해 진행 상황을 받을 수 있다.
+   */
   @Transactional
   public Project createProject(Integer groupId, ProjectCreateRequest request) {
     // 그룹 확인
@@ -108,11 +126,16 @@ public class ProjectService {
     Performance performance = performanceRepository.findById(request.getPerformanceId())
         .orElseThrow(() -> new BadRequestException("Performance not found"));
 
-    // 고유한 파드명 생성
+    // 웜 풀에 준비된 파드가 있으면 할당, 없으면 고유한 파드명 생성
+    Optional<String> warmDeployment = warmPoolService.claim(projectImage, performance, groupId);
     String deploymentName;
-    do {
-      deploymentName = request.getName() + "-" + RandomUtil.generateRandomString();
-    } while (kubernetesUtil.isExists(deploymentName));
+    if (warmDeployment.isPresent()) {
+      deploymentName = warmDeployment.get();
+    } else {
+      do {
+        deploymentName = request.getName() + "-" + RandomUtil.generateRandomString();
+      } while (kubernetesUtil.isExists(deploymentName));
+    }
 
     // 프로젝트 생성
     Project project = Project.builder()
@@ -134,8 +157,9 @@ public class ProjectService {
             .build())
         .toList();
 
-    // 서브도메인 생성
-    String subdomain = nginxConfigUtil.createSubdomain(project.getContainerId());
+    // 서브도메인 생성 - 웜 파드는 Deployment 이름(pool-...) 대신 프로젝트 이름으로 만든다
+    String subdomain = warmDeployment.isPresent() ? createWarmSubdomain(request.getName())
+        : nginxConfigUtil.createSubdomain(project.getContainerId());
     project.setDeploymentUrl(subdomain + "." + appConfig.getDomain());
 
     // DeploymentUrl 지정 이후 저장
@@ -145,18 +169,40 @@ public class ProjectService {
     // 사용 가능한 nodePort 조회
     project.setNodePort(kubernetesUtil.getAvailableNodePort());
 
-    // 프로젝트 생성 확인 후 파드 생성 요청
-    kubernetesUtil.createPod(group.getId(), deploymentName, projectImage, performance,
-        project.getNodePort());
-
-    // 서브도메인 설정 - nginx config 파일 생성 및 reload
-    nginxConfigUtil.createNginxConfig(subdomain, project.getNodePort());
-
-    redisUtil.set(CALL_STATUS_KEY.formatted(project.getId()), "inactive");
+    // 커밋 이후 리소스 생성 시작 - 진행 상황은 provisioning 토픽으로 전송된다
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          projectProvisioningService.provision(project, subdomain, warmDeployment.isPresent());
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+          if (status == STATUS_ROLLED_BACK) {
+            kubernetesUtil.releaseNodePort(project.getNodePort());
+            // 할당받은 웜 파드는 풀로 돌려놓지 않고 삭제
+            warmDeployment.ifPresent(
+                name -> kubernetesUtil.deletePod(LabelKey.DEPLOYMENT_NAME, name));
+          }
+        }
+      });
+    } else {
+      projectProvisioningService.provision(project, subdomain, warmDeployment.isPresent());
+    }
 
     return project;
   }
 
+  private String createWarmSubdomain(String projectName) {
+    String subdomain;
+    do {
+      subdomain = nginxConfigUtil.createSubdomain(
+          projectName + "-" + RandomUtil.generateRandomString());
+    } while (projectRepository.existsByDeploymentUrl(subdomain + "." + appConfig.getDomain()));
+    return subdomain;
+  }
+
   public Project getProject(Integer groupId, Integer projectId) {
     return projectRepository.findByGroupIdAndProjectId(groupId, projectId)
         .orElseThrow(() -> new BadRequestException("Project not found"));
@@ -168,53 +214,12 @@ public class ProjectService {
 
     List<Project> projects;
     if (groupUser.getRole() == Role.MEMBER) {
-      List<ProjectUser> projectUsers = projectUserRepository.findByUser(user);
-      projects = projectUsers.stream()
-          .map(ProjectUser::getProject)
-          .filter(project -> project.getGroup().getId().equals(groupId))
-          .toList();
+      projects = projectRepository.findByGroupIdAndUserId(groupId, user.getId());
     } else {
       projects = projectRepository.findByGroupId(groupId);
     }
 
-    return projects.stream()
-        .map(project -> {
-          List<ProjectUser> projectUsers = projectUserRepository.findByProject(project);
-          List<ProjectUserDto> userDtos = projectUsers.stream()
-              .map(projectUser -> {
-                String userId = String.valueOf(projectUser.getUser().getId());
-                String projectId = String.valueOf(project.getId()); // 현재 프로젝트 ID 가져오기
-                String redisKey = PROJECT_USER_KEY.formatted(projectId, userId);
-
-                boolean status = redisUtil.hasKey(redisKey); // ✅ Redis에서 접속 여부 확인
-
-                return ProjectUserDto.builder()
-                    .id(projectUser.getUser().getId())
-                    .name(projectUser.getUser().getName())
-                    .image(projectUser.getUser().getImage())
-                    .email(projectUser.getUser().getEmail())
-                    .status(status) // ✅ Redis 상태 반영
-                    .build();
-              })
-              .toList();
-
-          // ✅ Redis에서 CALL_STATUS_KEY 값 조회
-          String callStatusKey = CALL_STATUS_KEY.formatted(project.getId());
-          String callStatus = (String) redisUtil.get(callStatusKey);
-
-          // ✅ 값이 null이면 "inactive"으로 설정
-          if (callStatus == null) {
-            redisUtil.set(callStatusKey, "inactive");
-            callStatus = "inactive";
-          }
-
-          return ProjectWithUsersResponse.builder()
-              .project(project)
-              .users(userDtos)
-              .callStatus(callStatus) // ✅ Redis 상태 반영
-              .build();
-        })
-        .toList();
+    return withUsers(projects);
   }
 
 
@@ -227,38 +232,57 @@ public class ProjectService {
       projectUserRepository.findProjectUserByProjectIdAndUser(projectId, user)
           .orElseThrow(() -> new BadRequestException("Project user not found"));
     }
-    List<ProjectUser> projectUsers = projectUserRepository.findByProject(project);
-    List<ProjectUserDto> userDtos = projectUsers.stream()
-        .map(projectUser -> {
-          String userId = String.valueOf(projectUser.getUser().getId());
-          String redisKey = PROJECT_USER_KEY.formatted(projectId, userId);
-
-          boolean status = redisUtil.hasKey(redisKey); // ✅ Redis에서 접속 여부 확인
-
-          return ProjectUserDto.builder()
-              .id(projectUser.getUser().getId())
-              .name(projectUser.getUser().getName())
-              .image(projectUser.getUser().getImage())
-              .email(projectUser.getUser().getEmail())
-              .status(status) // ✅ Redis 상태 반영
-              .build();
-        })
-        .toList();
-    // ✅ Redis에서 CALL_STATUS_KEY 값 조회
-    String callStatusKey = CALL_STATUS_KEY.formatted(projectId);
-    String callStatus = (String) redisUtil.get(callStatusKey);
-
-    // ✅ 값이 null이면 "inactive"으로 설정
-    if (callStatus == null) {
-      redisUtil.set(callStatusKey, "inactive");
-      callStatus = "inactive";
+    return withUsers(List.of(project)).get(0);
+  }
+
+  /**
+   * 프로젝트마다 참여 유저와 접속 여부, 통화 상태를 붙인다.
+   * <p>
+   * 모든 프로젝트의 유저를 fetch join 쿼리 한 번으로, 접속 여부와 통화 상태 키를 MGET 한 번으로 조회한다. 통화 상태 키가 없으면
+   * "inactive"로 응답한다(조회 중에 저장하지 않음).
+   */
+  private List<ProjectWithUsersResponse> withUsers(List<Project> projects) {
+    if (projects.isEmpty()) {
+      return List.of();
     }
 
-    return ProjectWithUsersResponse.builder()
-        .project(project)
-        .users(userDtos)
-        .callStatus(callStatus) // ✅ Redis 상태 반영
-        .build();
+    Map<Integer, List<ProjectUser>> projectUsers = projectUserRepository
+        .findWithUserByProjectIdIn(projects.stream().map(Project::getId).toList()).stream()
+        .collect(Collectors.groupingBy(
+            projectUser -> projectUser.getProjectUserId().getProjectId()));
+
+    // 프로젝트마다 [통화 상태, 유저별 접속 키...] 순서로 키를 나열한다
+    List<String> keys = new ArrayList<>();
+    for (Project project : projects) {
+      keys.add(CALL_STATUS_KEY.formatted(project.getId()));
+      projectUsers.getOrDefault(project.getId(), List.of()).forEach(projectUser ->
+          keys.add(PROJECT_USER_KEY.formatted(project.getId(), projectUser.getUser().getId())));
+    }
+    List<Object> values = redisUtil.mget(keys);
+
+    List<ProjectWithUsersResponse> responses = new ArrayList<>();
+    int index = 0;
+    for (Project project : projects) {
+      String callStatus = (String) values.get(index++);
+
+      List<ProjectUserDto> userDtos = new ArrayList<>();
+      for (ProjectUser projectUser : projectUsers.getOrDefault(project.getId(), List.of())) {
+        userDtos.add(ProjectUserDto.builder()
+            .id(projectUser.getUser().getId())
+            .name(projectUser.getUser().getName())
+            .image(projectUser.getUser().getImage())
+            .email(projectUser.getUser().getEmail())
+            .status(values.get(index++) != null) // 접속 중이면 키가 있다
+            .build());
+      }
+
+      responses.add(ProjectWithUsersResponse.builder()
+          .project(project)
+          .users(userDtos)
+          .callStatus(callStatus == null ? "inactive" : callStatus)
+          .build());
+    }
+    return responses;
   }
 
   @Transactional
@@ -275,8 +299,21 @@ public class ProjectService {
     // pod 삭제
     kubernetesUtil.deletePod(LabelKey.DEPLOYMENT_NAME, project.getContainerId());
 
-    // nginx config 삭제
-    nginxConfigUtil.deleteNginxConfig(project.getContainerId());
+    // 포트는 커밋 이후 반납 - 롤백되면 프로젝트가 계속 포트를 가진다
+    int nodePort = project.getNodePort();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          kubernetesUtil.releaseNodePort(nodePort);
+        }
+      });
+    } else {
+      kubernetesUtil.releaseNodePort(nodePort);
+    }
+
+    // 서브도메인 연결 삭제 - nginx reload는 모아서 실행되므로 기다리지 않는다
+    projectRouteService.unregister(project);
 
     redisUtil.delete(CALL_STATUS_KEY.formatted(projectId));
   }
@@ -322,14 +359,19 @@ public class ProjectService {
     projectRepository.findByGroupIdAndProjectId(groupId, projectId)
         .orElseThrow(() -> new NotFoundException("Project not found"));
 
-    String pattern = "project:" + projectId + ":user:*";
-    Set<String> keys = redisUtil.keys(pattern);
-    List<GroupUserResponse> groupUserResponses = keys.stream()
-        .map(key -> {
-          String[] split = key.split(":");
-          Integer userId = Integer.parseInt(split[3]);
-          GroupUser groupUser = groupUserRepository.findByGroupIdAndUserId(groupId, userId)
-              .orElseThrow(() -> new NotFoundException("Group user not found"));
+    // 최근 하트비트가 있는 접속자만 조회 후 그룹 유저를 한 번에 조회
+    long now = System.currentTimeMillis();
+    List<Integer> userIds = redisUtil.zrangeByScore(PROJECT_ONLINE_KEY.formatted(projectId),
+            now - presenceTtlSeconds * 1000, Double.POSITIVE_INFINITY).stream()
+        .map(member -> Integer.parseInt((String) member))
+        .toList();
+    if (userIds.isEmpty()) {
+      return List.of();
+    }
+
+    List<GroupUserResponse> groupUserResponses = groupUserRepository
+        .findWithUserByGroupIdAndUserIdIn(groupId, userIds).stream()
+        .map(groupUser -> {
           User user = groupUser.getUser();
           return GroupUserResponse.builder()
               .id(user.getId())
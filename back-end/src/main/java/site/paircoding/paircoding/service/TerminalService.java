@@ -1,14 +1,11 @@
 package site.paircoding.paircoding.service;
 
-import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.ExecListener;
 import io.fabric8.kubernetes.client.dsl.ExecWatch;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import lombok.RequiredArgsConstructor;
@@ -16,7 +13,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import site.paircoding.paircoding.entity.Project;
-import site.paircoding.paircoding.entity.enums.LabelKey;
+import site.paircoding.paircoding.util.PodRegistry;
+import site.paircoding.paircoding.util.TerminalOutputPump;
 
 @Service
 @RequiredArgsConstructor
@@ -29,6 +27,8 @@ public class TerminalService {
   private final KubernetesClient kubernetesClient;
   private final SimpMessagingTemplate messagingTemplate;
   private final ProjectService projectService;
+  private final TerminalOutputPump terminalOutputPump;
+  private final PodRegistry podRegistry;
 
   public void connectToPod(Integer groupId, Integer projectId, String terminalId,
       String destination)
@@ -37,25 +37,49 @@ public class TerminalService {
     Project project = projectService.getProject(groupId, projectId);
     String deploymentName = project.getContainerId();
 
-    // Deployment에서 Pod 목록 가져오기
-    List<Pod> pods = kubernetesClient.pods()
-        .inNamespace(namespace)
-        .withLabel(LabelKey.DEPLOYMENT_NAME.getKey(), deploymentName)
-        .list()
-        .getItems();
+    // 살아 있는 셸이 있으면 새 exec 없이 이전 출력을 다시 보내고 재사용
+    TerminalBridge existing = bridges.get(terminalId);
+    if (existing != null) {
+      if (existing.reattach(destination)) {
+        return;
+      }
+      // 다른 경로로 다시 연결했거나 이미 닫힌 셸 - 이전 exec 스트림을 닫는다
+      existing.close();
+    }
+
+    String podName = podRegistry.getReadyPodName(deploymentName);
 
-    if (pods.isEmpty()) {
-      throw new RuntimeException("해당 Deployment에서 실행 중인 Pod가 없습니다.");
+    // 출력은 공용 펌프가 전달 - 터미널마다 읽기 스레드를 두지 않는다
+    TerminalOutputPump.Channel channel = terminalOutputPump.open(terminalId, destination);
+
+    TerminalBridge bridge = new TerminalBridge(channel, destination);
+    try {
+      bridge.open(podName, terminalId);
+    } catch (RuntimeException e) {
+      channel.close();
+      throw e;
     }
 
-    String podName = pods.get(0).getMetadata().getName(); // 첫 번째 Pod 선택
+    // 동시에 들어온 다른 연결이 먼저 등록한 브리지도 닫는다
+    TerminalBridge replaced = bridges.put(terminalId, bridge);
+    if (replaced != null && replaced != existing) {
+      replaced.close();
+    }
+    // 등록 전에 셸이 닫혔으면 리스너가 지울 항목이 없었으므로 여기서 지운다
+    if (channel.isClosed()) {
+      bridges.remove(terminalId, bridge);
+    }
+  }
 
-    ExecWatch execWatch = kubernetesClient.pods()
+  private ExecWatch openShell(String podName, String terminalId, TerminalBridge bridge) {
+    String destination = bridge.destination;
+    TerminalOutputPump.Channel channel = bridge.channel;
+    return kubernetesClient.pods()
         .inNamespace(namespace)
         .withName(podName)
         .redirectingInput()
-        .redirectingOutput()
-        .redirectingError()
+        .writingOutput(channel.getOutput())
+        .writingError(channel.getError())
         .withTTY()
         .usingListener(new ExecListener() {
           @Override
@@ -68,21 +92,20 @@ public class TerminalService {
             messagingTemplate.convertAndSend(destination,
                 "Connection failed: " + t.getMessage());
             System.out.println("Connection failure");
-            bridges.remove(terminalId);
+            // 같은 터미널 ID로 새로 연결된 브리지는 지우지 않는다
+            bridges.remove(terminalId, bridge);
+            channel.close();
           }
 
           @Override
           public void onClose(int code, String reason) {
             System.out.println("Connection closed");
-            bridges.remove(terminalId);
+            bridges.remove(terminalId, bridge);
+            channel.close();
           }
         })
         .exec("sh", "-c",
             "cd /app && TERM=xterm-256color; export TERM; [ -x /bin/bash ] && /bin/bash || /bin/sh");
-
-    TerminalBridge bridge = new TerminalBridge(execWatch, terminalId, destination);
-    bridges.put(terminalId, bridge);
-    bridge.start();
   }
 
   public void handleInput(String terminalId, String input) {
@@ -102,37 +125,27 @@ public class TerminalService {
 
   private class TerminalBridge {
 
-    private final ExecWatch execWatch;
-    private final String terminalId;
-    private final OutputStream inputStream;
+    private final TerminalOutputPump.Channel channel;
     private final String destination;
+    private ExecWatch execWatch;
+    private OutputStream inputStream;
 
-    public TerminalBridge(ExecWatch execWatch, String terminalId, String destination) {
-      this.execWatch = execWatch;
-      this.terminalId = terminalId;
-      this.inputStream = execWatch.getInput();
+    public TerminalBridge(TerminalOutputPump.Channel channel, String destination) {
+      this.channel = channel;
       this.destination = destination;
     }
 
-    public void start() {
-      startAsyncReader(execWatch.getOutput(), "OUTPUT");
-      startAsyncReader(execWatch.getError(), "ERROR");
+    public synchronized void open(String podName, String terminalId) {
+      execWatch = openShell(podName, terminalId, this);
+      inputStream = execWatch.getInput();
     }
 
-    private void startAsyncReader(InputStream stream, String type) {
-      new Thread(() -> {
-        byte[] buffer = new byte[1024];
-        try {
-          int bytesRead;
-          while ((bytesRead = stream.read(buffer)) != -1) {
-            String content = new String(buffer, 0, bytesRead, StandardCharsets.UTF_8);
-            messagingTemplate.convertAndSend(destination, content);
-          }
-        } catch (IOException e) {
-          messagingTemplate.convertAndSend(destination,
-              "\n[" + type + " READ ERROR] " + e.getMessage());
-        }
-      }).start();
+    public boolean reattach(String destination) {
+      if (!this.destination.equals(destination) || channel.isClosed()) {
+        return false;
+      }
+      channel.replay();
+      return true;
     }
 
     public synchronized void sendInput(String input) {
@@ -145,6 +158,14 @@ public class TerminalService {
       }
     }
 
+    /**
+     * exec 스트림과 출력 채널을 닫는다.
+     */
+    public synchronized void close() {
+      execWatch.close();
+      channel.close();
+    }
+
     public synchronized void resize(int cols, int rows) {
       try {
         execWatch.resize(cols, rows);
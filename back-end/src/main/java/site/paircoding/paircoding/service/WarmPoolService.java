@@ -0,0 +1,185 @@
+package site.paircoding.paircoding.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import site.paircoding.paircoding.entity.Performance;
+import site.paircoding.paircoding.entity.ProjectImage;
+import site.paircoding.paircoding.repository.PerformanceRepository;
+import site.paircoding.paircoding.repository.ProjectImageRepository;
+import site.paircoding.paircoding.util.KubernetesUtil;
+import site.paircoding.paircoding.util.RandomUtil;
+import site.paircoding.paircoding.util.RedisUtil;
+
+/**
+ * 이미지/사양 조합별로 미리 실행해 둔 Deployment(웜 풀)를 관리하는 서비스.
+ * <p>
+ * 프로젝트 생성 시 풀에 준비된 Deployment가 있으면 이미지 pull과 컨테이너 기동을 기다리지 않고 바로 할당한다. 할당 후와 주기적으로
+ * 설정된 크기만큼 다시 채운다. 풀 크기는 kubernetes.warm-pool.sizes 에 "이미지태그/사양id=개수" 형식으로 쉼표로 구분해 지정하며,
+ * 지정하지 않은 조합은 풀을 사용하지 않는다. 보충은 풀마다 Redis 잠금을 얻은 인스턴스 하나만 실행한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WarmPoolService {
+
+  private static final String POOL_KEY = "%s_%d"; // 라벨 값 형식 - 이미지태그_사양id
+  private static final String POOL_DEPLOYMENT_PREFIX = "pool-";
+  private static final String REFILL_LOCK_KEY = "warmPoolRefill:%s";
+
+  @Value("${kubernetes.warm-pool.sizes:}")
+  private String sizesProperty;
+
+  // 보충 중 인스턴스가 죽어도 잠금이 남지 않도록 하는 유지 시간, 한 번의 보충보다 길어야 한다
+  @Value("${kubernetes.warm-pool.refill-lock-seconds:600}")
+  private long refillLockSeconds;
+
+  private final KubernetesUtil kubernetesUtil;
+  private final ProjectImageRepository projectImageRepository;
+  private final PerformanceRepository performanceRepository;
+  private final RedisUtil redisUtil;
+
+  private final Map<String, PoolSpec> pools = new ConcurrentHashMap<>();
+  private final Set<String> refilling = ConcurrentHashMap.newKeySet();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final String instanceId = UUID.randomUUID().toString();
+  private ExecutorService refillExecutor;
+
+  @PostConstruct
+  public void init() {
+    for (String entry : sizesProperty.split(",")) {
+      if (entry.isBlank()) {
+        continue;
+      }
+      // 이미지태그/사양id=개수
+      String[] keyAndSize = entry.trim().split("=");
+      String[] tagAndPerformance = keyAndSize[0].split("/");
+      PoolSpec spec = new PoolSpec(tagAndPerformance[0],
+          Integer.parseInt(tagAndPerformance[1]), Integer.parseInt(keyAndSize[1]));
+      pools.put(poolKey(spec.tag, spec.performanceId), spec);
+    }
+    refillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "warm-pool-refill");
+      thread.setDaemon(true);
+      return thread;
+    });
+    log.info("Warm pool configured: pools={}", pools.keySet());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    refillExecutor.shutdownNow();
+  }
+
+  /**
+   * 풀에서 준비된 Deployment를 그룹에 할당한다.
+   *
+   * @return 할당된 Deployment 이름, 풀이 없거나 비어 있으면 empty
+   */
+  public Optional<String> claim(ProjectImage projectImage, Performance performance,
+      int groupId) {
+    String key = poolKey(projectImage.getTag(), performance.getId());
+    if (!pools.containsKey(key)) {
+      return Optional.empty();
+    }
+
+    Optional<String> claimed = Optional.empty();
+    try {
+      claimed = kubernetesUtil.claimWarmDeployment(key, groupId);
+    } catch (RuntimeException e) {
+      log.warn("Warm pool claim failed: pool={}", key, e);
+    }
+
+    if (claimed.isPresent()) {
+      hits.incrementAndGet();
+    } else {
+      misses.incrementAndGet();
+    }
+    log.info("Warm pool {}: pool={}, deploymentName={}, hits={}, misses={}",
+        claimed.isPresent() ? "hit" : "miss", key, claimed.orElse(null), hits.get(),
+        misses.get());
+
+    refillExecutor.execute(() -> refill(key));
+    return claimed;
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  @Scheduled(fixedDelayString = "${kubernetes.warm-pool.refill-interval-millis:60000}")
+  public void refillAll() {
+    pools.keySet().forEach(key -> refillExecutor.execute(() -> refill(key)));
+  }
+
+  private void refill(String key) {
+    // 같은 풀을 동시에 채우면 설정보다 많이 생성된다 - 다른 인스턴스가 채우는 중이면 건너뛴다
+    if (!refilling.add(key)) {
+      return;
+    }
+    String lockKey = REFILL_LOCK_KEY.formatted(key);
+    if (!redisUtil.setIfAbsent(lockKey, instanceId, refillLockSeconds)) {
+      refilling.remove(key);
+      return;
+    }
+    try {
+      PoolSpec spec = pools.get(key);
+      int missing = spec.size - kubernetesUtil.countWarmDeployments(key);
+      if (missing <= 0) {
+        return;
+      }
+
+      ProjectImage projectImage = projectImageRepository.findById(spec.tag).orElse(null);
+      Performance performance = performanceRepository.findById(spec.performanceId).orElse(null);
+      if (projectImage == null || performance == null) {
+        log.warn("Warm pool skipped, unknown image or performance: pool={}", key);
+        return;
+      }
+
+      for (int i = 0; i < missing; i++) {
+        String deploymentName;
+        do {
+          deploymentName = POOL_DEPLOYMENT_PREFIX + RandomUtil.generateRandomString()
+              + RandomUtil.generateRandomString();
+        } while (kubernetesUtil.isExists(deploymentName));
+
+        kubernetesUtil.createWarmPodAsync(key, deploymentName, projectImage, performance)
+            .await();
+      }
+      log.info("Warm pool refilled: pool={}, created={}", key, missing);
+    } catch (RuntimeException e) {
+      log.error("Warm pool refill failed: pool={}", key, e);
+    } finally {
+      // 유지 시간이 지나 다른 인스턴스가 얻은 잠금은 지우지 않는다
+      if (instanceId.equals(redisUtil.get(lockKey))) {
+        redisUtil.delete(lockKey);
+      }
+      refilling.remove(key);
+    }
+  }
+
+  private static String poolKey(String tag, int performanceId) {
+    return POOL_KEY.formatted(tag, performanceId);
+  }
+
+  private record PoolSpec(String tag, int performanceId, int size) {
+
+  }
+}
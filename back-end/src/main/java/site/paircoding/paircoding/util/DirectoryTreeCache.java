@@ -0,0 +1,330 @@
+package site.paircoding.paircoding.util;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import site.paircoding.paircoding.entity.dto.DirectoryChildren;
+import site.paircoding.paircoding.entity.dto.DirectoryTreeDiffDto;
+import site.paircoding.paircoding.entity.enums.DirectoryAction;
+import site.paircoding.paircoding.util.PodCommandExecutor.StreamResult;
+
+/**
+ * 프로젝트별 디렉토리 목록 캐시.
+ * <p>
+ * 처음 조회한 디렉토리만 pod에서 읽어 보관하고, 같은 디렉토리를 다시 펼치면 메모리에서 응답한다. 캐시가 생기면 pod 안에 감시 명령을 하나
+ * 띄워(inotifywait, 없으면 find -newer 주기 검사) 내용이 바뀐 디렉토리 경로를 받고, 캐시된 디렉토리면 다시 읽어 추가/삭제된 항목만
+ * /sub/groups/{groupId}/projects/{projectId}/users/all/directory 로 보낸다.
+ * <p>
+ * 감시 명령이 끝나면(pod 삭제, 제한 시간 등) 변경을 알 수 없으므로 그 프로젝트의 캐시를 버리고, 다음 조회 때 다시 만든다. 한동안 조회가 없는
+ * 프로젝트도 캐시와 감시 명령을 정리한다.
+ * <p>
+ * node_modules 같은 무시 패턴 디렉토리 안은 감시하지 않으므로 그 안의 목록은 캐시하지 않는다. 변경된 목록은 여러 스레드에서 다시 읽되, 한
+ * 프로젝트의 갱신은 한 번에 하나만 실행한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DirectoryTreeCache {
+
+  private static final String DIRECTORY_DESTINATION = "/sub/groups/%d/projects/%d/users/all/directory";
+  private static final String ROOT = "/app";
+
+  @Value("${directory.tree.enabled:true}")
+  private boolean enabled;
+
+  @Value("${directory.tree.idle-seconds:600}")
+  private long idleSeconds;
+
+  @Value("${directory.tree.poll-interval-seconds:2}")
+  private int pollIntervalSeconds;
+
+  @Value("${directory.tree.debounce-millis:100}")
+  private long debounceMillis;
+
+  @Value("${directory.tree.watch-max-seconds:3600}")
+  private long watchMaxSeconds;
+
+  @Value("${directory.tree.refresh-threads:4}")
+  private int refreshThreads;
+
+  private final PodCommandExecutor podCommandExecutor;
+  private final SimpMessagingTemplate messagingTemplate;
+  private final IgnoredDirectories ignoredDirectories;
+  private final Map<Integer, ProjectTree> trees = new ConcurrentHashMap<>();
+  private ScheduledThreadPoolExecutor executor;
+
+  @PostConstruct
+  public void init() {
+    AtomicInteger sequence = new AtomicInteger();
+    executor = new ScheduledThreadPoolExecutor(refreshThreads, runnable -> {
+      Thread thread = new Thread(runnable, "directory-tree-" + sequence.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    trees.keySet().forEach(this::evict);
+    executor.shutdown();
+  }
+
+  /**
+   * 디렉토리 목록을 돌려준다. 캐시에 없으면 loader로 읽어 보관한다.
+   *
+   * @param path   /app 기준 디렉토리 경로 ("" 또는 "/src" 형식)
+   * @param loader 경로를 받아 pod에서 목록을 읽는 함수
+   */
+  public List<DirectoryChildren> list(int groupId, int projectId, String deploymentName,
+      String path, Function<String, List<DirectoryChildren>> loader) {
+    if (!enabled) {
+      return loader.apply(path);
+    }
+
+    String key = normalize(path);
+    ProjectTree tree = trees.get(projectId);
+    if (tree == null) {
+      ProjectTree created = new ProjectTree(groupId, projectId, deploymentName, loader);
+      tree = trees.putIfAbsent(projectId, created);
+      if (tree == null) {
+        tree = created;
+        watch(created);
+      }
+    }
+    tree.lastAccess = System.nanoTime();
+
+    List<DirectoryChildren> cached = tree.listings.get(key);
+    if (cached != null) {
+      return cached;
+    }
+
+    // 읽는 동안 변경 이벤트가 들어오면 오래된 목록일 수 있으므로 보관하지 않는다
+    long generation = tree.generation.get();
+    List<DirectoryChildren> children = List.copyOf(loader.apply(path));
+    if (tree.generation.get() == generation && trees.get(projectId) == tree
+        && !ignoredDirectories.covers(key)) {
+      tree.listings.put(key, children);
+    }
+    return children;
+  }
+
+  /**
+   * 디렉토리 목록과 그 안의 항목(name) 아래 캐시를 버린다. 서버가 직접 파일을 바꾼 뒤 감시 이벤트보다 먼저 들어오는 조회에 대비한다.
+   */
+  public void invalidate(int projectId, String directory, String name) {
+    ProjectTree tree = trees.get(projectId);
+    if (tree == null) {
+      return;
+    }
+    String parent = normalize(directory);
+    tree.generation.incrementAndGet();
+    tree.listings.remove(parent);
+    removeSubtree(tree, parent + "/" + name);
+  }
+
+  /**
+   * 프로젝트의 캐시와 감시 명령을 정리한다.
+   */
+  public void evict(int projectId) {
+    ProjectTree tree = trees.remove(projectId);
+    if (tree != null && tree.watcher != null) {
+      tree.watcher.cancel(true);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${directory.tree.evict-interval-millis:60000}")
+  public void evictIdle() {
+    long idleNanos = TimeUnit.SECONDS.toNanos(idleSeconds);
+    trees.values().stream()
+        .filter(tree -> System.nanoTime() - tree.lastAccess > idleNanos)
+        .map(tree -> tree.projectId)
+        .toList()
+        .forEach(this::evict);
+  }
+
+  private void watch(ProjectTree tree) {
+    // 감시 대상 디렉토리 경로를 한 줄에 하나씩 출력한다 (무시 패턴 디렉토리 안은 건너뛴다)
+    String exclude = ignoredDirectories.insideRegex();
+    String command = "if command -v inotifywait >/dev/null 2>&1; then"
+        + " exec inotifywait -mrq -e create,delete,moved_from,moved_to --format '%w'"
+        + (exclude == null ? "" : " --exclude '" + exclude.replace("'", "'\\''") + "'")
+        + " " + ROOT + ";"
+        + " fi;"
+        + " m=/tmp/.pading-tree-$$; touch $m;"
+        + " while sleep " + pollIntervalSeconds + "; do touch $m.next;"
+        + " find " + ROOT + ignoredDirectories.pruneClause("") + " -newer $m -type d -print;"
+        + " mv -f $m.next $m; done";
+
+    tree.watcher = podCommandExecutor.watch(tree.deploymentName, command, new WatchOutput(tree),
+        Duration.ofSeconds(watchMaxSeconds));
+    tree.watcher.whenComplete((result, e) -> {
+      // 감시가 끝난 뒤의 변경은 알 수 없다
+      if (trees.remove(tree.projectId, tree)) {
+        log.info("Directory watcher stopped: projectId={}, reason={}", tree.projectId,
+            e != null ? e.getMessage() : result.getError().trim());
+      }
+    });
+  }
+
+  private void changed(ProjectTree tree, String directory) {
+    tree.generation.incrementAndGet();
+    synchronized (tree.dirty) {
+      tree.dirty.add(normalize(directory.substring(ROOT.length())));
+      // 연속된 변경은 모아서 한 번에 처리하고, 갱신 중이면 끝난 뒤에 처리한다
+      if (!tree.refreshScheduled) {
+        tree.refreshScheduled = true;
+        executor.schedule(() -> refresh(tree), debounceMillis, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  private void refresh(ProjectTree tree) {
+    Set<String> directories;
+    synchronized (tree.dirty) {
+      directories = new HashSet<>(tree.dirty);
+      tree.dirty.clear();
+    }
+    try {
+      refresh(tree, directories);
+    } finally {
+      synchronized (tree.dirty) {
+        if (tree.dirty.isEmpty()) {
+          tree.refreshScheduled = false;
+        } else {
+          executor.schedule(() -> refresh(tree), debounceMillis, TimeUnit.MILLISECONDS);
+        }
+      }
+    }
+  }
+
+  private void refresh(ProjectTree tree, Set<String> directories) {
+    for (String directory : directories) {
+      List<DirectoryChildren> previous = tree.listings.get(directory);
+      if (previous == null) {
+        continue; // 아무도 펼치지 않은 디렉토리
+      }
+
+      List<DirectoryChildren> current;
+      try {
+        current = List.copyOf(tree.loader.apply(directory));
+      } catch (RuntimeException e) {
+        // 삭제된 디렉토리 - 상위 디렉토리의 변경으로 전달된다
+        removeSubtree(tree, directory);
+        continue;
+      }
+      tree.listings.put(directory, current);
+
+      List<DirectoryChildren> added = current.stream()
+          .filter(child -> !contains(previous, child)).toList();
+      List<DirectoryChildren> removed = previous.stream()
+          .filter(child -> !contains(current, child)).toList();
+      if (added.isEmpty() && removed.isEmpty()) {
+        continue;
+      }
+
+      // 삭제된 하위 디렉토리의 캐시도 버린다
+      removed.forEach(child -> removeSubtree(tree, directory + "/" + child.getName()));
+
+      messagingTemplate.convertAndSend(
+          DIRECTORY_DESTINATION.formatted(tree.groupId, tree.projectId),
+          DirectoryTreeDiffDto.builder()
+              .action(DirectoryAction.DIFF)
+              .path(directory)
+              .added(added)
+              .removed(removed)
+              .build());
+    }
+  }
+
+  private static void removeSubtree(ProjectTree tree, String path) {
+    tree.listings.keySet().removeIf(key -> key.equals(path) || key.startsWith(path + "/"));
+  }
+
+  private static boolean contains(List<DirectoryChildren> children, DirectoryChildren child) {
+    return children.stream().anyMatch(
+        other -> other.getType() == child.getType() && other.getName().equals(child.getName()));
+  }
+
+  private static String normalize(String path) {
+    String normalized = path == null ? "" : path;
+    while (normalized.endsWith("/")) {
+      normalized = normalized.substring(0, normalized.length() - 1);
+    }
+    return normalized;
+  }
+
+  private static class ProjectTree {
+
+    private final int groupId;
+    private final int projectId;
+    private final String deploymentName;
+    private final Function<String, List<DirectoryChildren>> loader;
+    private final Map<String, List<DirectoryChildren>> listings = new ConcurrentHashMap<>();
+    private final Set<String> dirty = new HashSet<>();
+    private boolean refreshScheduled; // dirty로 보호
+    private final AtomicLong generation = new AtomicLong();
+    private volatile long lastAccess = System.nanoTime();
+    private volatile CompletableFuture<StreamResult> watcher;
+
+    private ProjectTree(int groupId, int projectId, String deploymentName,
+        Function<String, List<DirectoryChildren>> loader) {
+      this.groupId = groupId;
+      this.projectId = projectId;
+      this.deploymentName = deploymentName;
+      this.loader = loader;
+    }
+  }
+
+  /**
+   * 감시 명령의 출력을 줄 단위로 나눠 변경된 디렉토리로 전달하는 스트림.
+   */
+  private class WatchOutput extends OutputStream {
+
+    private final ProjectTree tree;
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+    private WatchOutput(ProjectTree tree) {
+      this.tree = tree;
+    }
+
+    @Override
+    public synchronized void write(int b) {
+      if (b != '\n') {
+        line.write(b);
+        return;
+      }
+      String directory = line.toString(StandardCharsets.UTF_8);
+      line.reset();
+      if (directory.startsWith(ROOT)) {
+        changed(tree, directory);
+      }
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+      for (int i = off; i < off + len; i++) {
+        write(b[i]);
+      }
+    }
+  }
+}
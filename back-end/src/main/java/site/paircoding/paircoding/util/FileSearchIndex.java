@@ -0,0 +1,379 @@
+package site.paircoding.paircoding.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 프로젝트별 파일 경로 색인 (빠른 열기용).
+ * <p>
+ * 처음 검색할 때 pod에서 파일 경로를 한 번에 읽어 소문자 trigram -> 경로 id 목록으로 색인하고, 이후에는 서버를 거치는 생성/삭제/이름 변경으로
+ * 갱신한다. 검색은 질의의 trigram 목록을 교집합해 후보를 좁힌 뒤 점수를 매기며, 부분 문자열로 찾지 못하면 글자 순서만 맞는 경로(예:
+ * dsvc -> DirectoryService)를 찾는다. 한동안 검색하지 않은 프로젝트의 색인은 버리고 다음 검색 때 다시 만든다.
+ * <p>
+ * 같은 프로젝트의 첫 검색이 동시에 들어오면 한 요청만 색인을 만들고 나머지는 그 결과를 기다린다.
+ */
+@Slf4j
+@Component
+public class FileSearchIndex {
+
+  private static final int PREFIX_SCAN_LIMIT = 2000;
+
+  @Value("${directory.quick-open.idle-seconds:1800}")
+  private long idleSeconds;
+
+  // 만드는 중이거나 만들어진 색인
+  private final Map<Integer, CompletableFuture<ProjectIndex>> indexes = new ConcurrentHashMap<>();
+
+  /**
+   * 프로젝트 색인을 돌려준다. 없으면 loader로 전체 파일 경로를 읽어 만들고, 다른 요청이 만드는 중이면 기다린다.
+   *
+   * @param loader /app 기준 파일 경로 목록("/src/Main.java" 형식)을 읽는 함수
+   */
+  public ProjectIndex get(int projectId, Supplier<List<String>> loader) {
+    CompletableFuture<ProjectIndex> future = indexes.get(projectId);
+    if (future == null) {
+      CompletableFuture<ProjectIndex> created = new CompletableFuture<>();
+      future = indexes.putIfAbsent(projectId, created);
+      if (future == null) {
+        future = created;
+        build(projectId, created, loader);
+      }
+    }
+
+    ProjectIndex index;
+    try {
+      index = future.join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof RuntimeException cause ? cause : e;
+    }
+    index.lastAccess = System.nanoTime();
+    return index;
+  }
+
+  private void build(int projectId, CompletableFuture<ProjectIndex> future,
+      Supplier<List<String>> loader) {
+    long startedAt = System.nanoTime();
+    ProjectIndex index = new ProjectIndex();
+    try {
+      loader.get().forEach(index::add);
+    } catch (RuntimeException e) {
+      // 기다리던 요청도 실패시키고, 다음 검색에서 다시 만든다
+      indexes.remove(projectId, future);
+      future.completeExceptionally(e);
+      return;
+    }
+    future.complete(index);
+    log.info("File index built: projectId={}, paths={}, bytes={}, elapsed={}ms", projectId,
+        index.size(), index.estimatedBytes(), (System.nanoTime() - startedAt) / 1_000_000);
+  }
+
+  public void add(int projectId, String path) {
+    ProjectIndex index = built(projectId);
+    if (index != null) {
+      index.add(path);
+    }
+  }
+
+  /**
+   * 경로와 그 아래의 모든 파일을 색인에서 뺀다.
+   */
+  public void remove(int projectId, String path) {
+    ProjectIndex index = built(projectId);
+    if (index != null) {
+      index.removeTree(path);
+    }
+  }
+
+  /**
+   * 경로(파일 또는 디렉토리)의 이름 변경을 반영한다.
+   */
+  public void rename(int projectId, String oldPath, String newPath) {
+    ProjectIndex index = built(projectId);
+    if (index != null) {
+      index.renameTree(oldPath, newPath);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${directory.tree.evict-interval-millis:60000}")
+  public void evictIdle() {
+    long idleNanos = TimeUnit.SECONDS.toNanos(idleSeconds);
+    indexes.values().removeIf(future -> {
+      ProjectIndex index = future.isDone() && !future.isCompletedExceptionally()
+          ? future.join() : null;
+      return index != null && System.nanoTime() - index.lastAccess > idleNanos;
+    });
+  }
+
+  /**
+   * @return 변경을 반영할 색인, 없으면 null
+   */
+  private ProjectIndex built(int projectId) {
+    CompletableFuture<ProjectIndex> future = indexes.get(projectId);
+    if (future == null) {
+      return null;
+    }
+    if (!future.isDone()) {
+      // 만드는 중인 색인에는 이 변경이 빠질 수 있으므로 다음 검색에서 다시 만든다
+      indexes.remove(projectId, future);
+      return null;
+    }
+    return future.isCompletedExceptionally() ? null : future.join();
+  }
+
+  public static class ProjectIndex {
+
+    private final List<String> paths = new ArrayList<>(); // id -> 경로, 삭제되면 null
+    private final List<String> lowerPaths = new ArrayList<>(); // 검색마다 소문자로 바꾸지 않도록 보관
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final TreeMap<String, Postings> names = new TreeMap<>(); // 소문자 파일 이름 -> 경로 id
+    private int removed;
+    private volatile long lastAccess = System.nanoTime();
+
+    /**
+     * 점수가 높은 순으로 최대 limit개의 경로를 찾는다.
+     */
+    public synchronized List<String> search(String query, int limit) {
+      String lowerQuery = query.toLowerCase(Locale.ROOT);
+      PriorityQueue<Match> top = new PriorityQueue<>(Comparator.comparingInt(Match::score));
+
+      if (lowerQuery.length() >= 3) {
+        for (int id : candidates(lowerQuery)) {
+          offer(top, id, lowerQuery, limit);
+        }
+      }
+      // 짧은 질의는 이름이 질의로 시작하는 파일, 부분 문자열로 찾지 못한 질의는 이름이 질의의 첫 글자로 시작하는 파일만
+      // 이름순으로 최대 PREFIX_SCAN_LIMIT개까지 확인한다
+      if (top.isEmpty() && !lowerQuery.isEmpty()) {
+        String prefix = lowerQuery.length() < 3 ? lowerQuery : lowerQuery.substring(0, 1);
+        int scanned = 0;
+        for (Postings list : names.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+          for (int i = 0; i < list.size && scanned < PREFIX_SCAN_LIMIT; i++, scanned++) {
+            offer(top, list.ids[i], lowerQuery, limit);
+          }
+          if (scanned >= PREFIX_SCAN_LIMIT) {
+            break;
+          }
+        }
+      }
+
+      List<Match> matches = new ArrayList<>(top);
+      matches.sort(Comparator.comparingInt(Match::score).reversed()
+          .thenComparing(Match::path));
+      return matches.stream().map(Match::path).toList();
+    }
+
+    public synchronized int size() {
+      return ids.size();
+    }
+
+    /**
+     * 경로 문자열, 경로 id 맵, trigram/파일 이름 목록의 대략적인 힙 사용량.
+     */
+    public synchronized long estimatedBytes() {
+      long bytes = 0;
+      for (String path : ids.keySet()) {
+        // 경로/소문자 경로 String + byte[] + HashMap.Node + Integer + ArrayList 슬롯
+        bytes += 2 * (40 + path.length() + 8) + 32 + 16;
+      }
+      for (Postings list : postings.values()) {
+        // HashMap.Node + Long + Postings + int[]
+        bytes += 32 + 16 + 16 + 16 + 4L * list.ids.length;
+      }
+      for (Map.Entry<String, Postings> entry : names.entrySet()) {
+        // TreeMap.Entry + String + byte[] + Postings + int[]
+        bytes += 40 + 40 + entry.getKey().length() + 16 + 16 + 4L * entry.getValue().ids.length;
+      }
+      return bytes;
+    }
+
+    private synchronized void add(String path) {
+      if (ids.containsKey(path)) {
+        return;
+      }
+      int id = paths.size();
+      String lowerPath = path.toLowerCase(Locale.ROOT);
+      paths.add(path);
+      lowerPaths.add(lowerPath);
+      ids.put(path, id);
+      for (long trigram : trigrams(lowerPath)) {
+        postings.computeIfAbsent(trigram, key -> new Postings()).add(id);
+      }
+      names.computeIfAbsent(lowerPath.substring(lowerPath.lastIndexOf('/') + 1),
+          key -> new Postings()).add(id);
+    }
+
+    private synchronized void removeTree(String path) {
+      for (String removedPath : subtree(path)) {
+        int id = ids.remove(removedPath);
+        paths.set(id, null);
+        lowerPaths.set(id, null);
+        removed++;
+      }
+      // 삭제된 id가 많으면 trigram 목록을 새로 만든다
+      if (removed > 1024 && removed > paths.size() / 2) {
+        List<String> live = paths.stream().filter(p -> p != null).toList();
+        paths.clear();
+        lowerPaths.clear();
+        ids.clear();
+        postings.clear();
+        names.clear();
+        removed = 0;
+        live.forEach(this::add);
+      }
+    }
+
+    private synchronized void renameTree(String oldPath, String newPath) {
+      List<String> moved = subtree(oldPath);
+      removeTree(oldPath);
+      moved.forEach(path -> add(newPath + path.substring(oldPath.length())));
+    }
+
+    private List<String> subtree(String path) {
+      String prefix = path + "/";
+      return ids.keySet().stream()
+          .filter(p -> p.equals(path) || p.startsWith(prefix))
+          .toList();
+    }
+
+    private int[] candidates(String lowerQuery) {
+      List<Postings> lists = new ArrayList<>();
+      for (long trigram : trigrams(lowerQuery)) {
+        Postings list = postings.get(trigram);
+        if (list == null) {
+          return new int[0];
+        }
+        lists.add(list);
+      }
+      // 짧은 목록부터 교집합 (id는 추가된 순서라 정렬되어 있다)
+      lists.sort(Comparator.comparingInt(list -> list.size));
+      int[] result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+      for (int i = 1; i < lists.size() && result.length > 0; i++) {
+        result = intersect(result, lists.get(i));
+      }
+      return result;
+    }
+
+    private void offer(PriorityQueue<Match> top, int id, String lowerQuery, int limit) {
+      String path = paths.get(id);
+      if (path == null) {
+        return;
+      }
+      int score = score(lowerPaths.get(id), lowerQuery);
+      if (score == Integer.MIN_VALUE) {
+        return;
+      }
+      if (top.size() < limit) {
+        top.add(new Match(path, score));
+      } else if (top.peek().score() < score) {
+        top.poll();
+        top.add(new Match(path, score));
+      }
+    }
+  }
+
+  /**
+   * 파일 이름에서 일치 > 경로에서 일치 > 글자 순서만 일치 순으로 점수를 매기고, 같은 단계에서는 짧은 경로를 앞에 둔다.
+   *
+   * @return 일치하지 않으면 Integer.MIN_VALUE
+   */
+  private static int score(String lowerPath, String lowerQuery) {
+    int nameStart = lowerPath.lastIndexOf('/') + 1;
+    int score;
+    int index = lowerPath.indexOf(lowerQuery, nameStart);
+    if (index >= 0) {
+      score = 3000;
+      if (index == nameStart) {
+        score += 1000;
+      }
+      if (lowerPath.length() - nameStart == lowerQuery.length()) {
+        score += 1000;
+      }
+    } else if (lowerPath.contains(lowerQuery)) {
+      score = 2000;
+    } else {
+      // 글자 순서만 맞는 경우, 건너뛴 글자가 적을수록 높은 점수
+      int position = 0;
+      int gaps = 0;
+      for (int i = 0; i < lowerQuery.length(); i++) {
+        int found = lowerPath.indexOf(lowerQuery.charAt(i), position);
+        if (found < 0) {
+          return Integer.MIN_VALUE;
+        }
+        gaps += found - position;
+        position = found + 1;
+      }
+      score = 1000 - Math.min(gaps, 999);
+    }
+    return score - Math.min(lowerPath.length(), 999);
+  }
+
+  private static Set<Long> trigrams(String text) {
+    Set<Long> trigrams = new LinkedHashSet<>();
+    for (int i = 0; i + 3 <= text.length(); i++) {
+      trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16)
+          | text.charAt(i + 2));
+    }
+    return trigrams;
+  }
+
+  /**
+   * 짧은 목록의 id마다 긴 목록에서 이진 탐색한다. 긴 목록 전체를 훑지 않는다.
+   */
+  private static int[] intersect(int[] left, Postings right) {
+    int[] result = new int[left.length];
+    int count = 0;
+    int from = 0;
+    for (int id : left) {
+      int found = Arrays.binarySearch(right.ids, from, right.size, id);
+      if (found >= 0) {
+        result[count++] = id;
+        from = found + 1;
+      } else {
+        from = -found - 1;
+      }
+      if (from >= right.size) {
+        break;
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  /**
+   * 정렬된 경로 id 목록. boxing 없이 int 배열로 보관한다.
+   */
+  private static class Postings {
+
+    private int[] ids = new int[4];
+    private int size;
+
+    private void add(int id) {
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+      }
+      ids[size++] = id;
+    }
+  }
+
+  private record Match(String path, int score) {
+
+  }
+}
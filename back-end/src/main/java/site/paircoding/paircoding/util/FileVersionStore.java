@@ -0,0 +1,101 @@
+package site.paircoding.paircoding.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 프로젝트 파일의 마지막 저장 내용과 버전/해시를 보관하는 저장소. 패치 저장 시 기준 버전 확인과 패치 적용에 사용한다.
+ * <p>
+ * 최근에 사용한 파일 순으로 전체 내용 크기(cache-bytes, 문자 수 기준) 안에서만 보관하며, 밀려난 파일은 다음 패치 때 pod에서 다시 읽는다.
+ */
+@Component
+public class FileVersionStore {
+
+  @Value("${directory.patch.cache-bytes:67108864}")
+  private long cacheBytes;
+
+  private final LinkedHashMap<String, FileVersion> versions = new LinkedHashMap<>(16, 0.75f,
+      true);
+  private long totalBytes;
+
+  public synchronized FileVersion get(int projectId, String path) {
+    return versions.get(key(projectId, path));
+  }
+
+  /**
+   * 파일 내용을 새 버전으로 기록한다.
+   *
+   * @return 기록된 버전
+   */
+  public synchronized FileVersion put(int projectId, String path, String content) {
+    String key = key(projectId, path);
+    FileVersion previous = versions.remove(key);
+    if (previous != null) {
+      totalBytes -= previous.getContent().length();
+    }
+    FileVersion version = new FileVersion(content,
+        previous == null ? 1 : previous.getVersion() + 1);
+    versions.put(key, version);
+    totalBytes += content.length();
+
+    // 오래 사용하지 않은 파일부터 제거
+    Iterator<FileVersion> iterator = versions.values().iterator();
+    while (totalBytes > cacheBytes && iterator.hasNext()) {
+      FileVersion evicted = iterator.next();
+      if (evicted == version) {
+        break;
+      }
+      totalBytes -= evicted.getContent().length();
+      iterator.remove();
+    }
+    return version;
+  }
+
+  /**
+   * 경로와 그 하위 경로의 기록을 삭제한다. 파일/폴더 삭제와 이름 변경 시 호출한다.
+   */
+  public synchronized void invalidate(int projectId, String path) {
+    String prefix = key(projectId, path);
+    Iterator<Map.Entry<String, FileVersion>> iterator = versions.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<String, FileVersion> entry = iterator.next();
+      if (entry.getKey().equals(prefix) || entry.getKey().startsWith(prefix + "/")) {
+        totalBytes -= entry.getValue().getContent().length();
+        iterator.remove();
+      }
+    }
+  }
+
+  private static String key(int projectId, String path) {
+    return projectId + ":" + path;
+  }
+
+  @Getter
+  public static class FileVersion {
+
+    private final String content;
+    private final long version;
+    private final String hash;
+    private final long byteLength; // UTF-8 기준 파일 크기
+
+    private FileVersion(String content, long version) {
+      byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+      this.content = content;
+      this.version = version;
+      this.byteLength = bytes.length;
+      try {
+        this.hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package site.paircoding.paircoding.util;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 하위 항목을 읽거나 감시하지 않을 디렉토리 이름 패턴(node_modules, .git 등). 재귀 목록, 파일 검색, 디렉토리 감시가 같은 목록을 쓴다.
+ */
+@Component
+public class IgnoredDirectories {
+
+  // find -name 형식의 패턴
+  @Value("${directory.recursive.ignore:node_modules,.git,build,dist,target,.gradle,.idea,__pycache__}")
+  private List<String> patterns;
+
+  private volatile Pattern namePattern;
+
+  /**
+   * @return 디렉토리 이름이 무시 패턴 중 하나에 맞으면 true (find -name과 같은 glob 비교)
+   */
+  public boolean contains(String name) {
+    return !patterns.isEmpty() && namePattern().matcher(name).matches();
+  }
+
+  /**
+   * 무시 패턴에 맞는 디렉토리에서 action(없으면 빈 문자열)을 실행하고 안으로 들어가지 않는 find 조건. 이름이 같은 파일은 걸러내지 않는다.
+   */
+  public String pruneClause(String action) {
+    if (patterns.isEmpty()) {
+      return "";
+    }
+    return " \\( " + patterns.stream()
+        .map(pattern -> "-name " + quote(pattern))
+        .collect(Collectors.joining(" -o ")) + " \\) -type d "
+        + (action.isEmpty() ? "" : action + " ") + "-prune -o";
+  }
+
+  /**
+   * 무시 패턴 디렉토리 안의 경로에 맞는 POSIX 확장 정규식 (inotifywait --exclude 용). 디렉토리 자체의 생성/삭제는 걸러내지 않는다.
+   *
+   * @return 정규식, 패턴이 없으면 null
+   */
+  public String insideRegex() {
+    if (patterns.isEmpty()) {
+      return null;
+    }
+    return "(^|/)(" + patterns.stream()
+        .map(IgnoredDirectories::toRegex)
+        .collect(Collectors.joining("|")) + ")/.";
+  }
+
+  /**
+   * @param path "/src/node_modules/lib" 형식의 경로
+   * @return 경로의 디렉토리 이름 중 하나가 무시 패턴에 맞으면 true
+   */
+  public boolean covers(String path) {
+    for (String name : path.split("/")) {
+      if (contains(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Pattern namePattern() {
+    Pattern pattern = namePattern;
+    if (pattern == null) {
+      pattern = Pattern.compile(patterns.stream()
+          .map(IgnoredDirectories::toRegex)
+          .collect(Collectors.joining("|")));
+      namePattern = pattern;
+    }
+    return pattern;
+  }
+
+  private static String toRegex(String pattern) {
+    StringBuilder regex = new StringBuilder();
+    for (char c : pattern.toCharArray()) {
+      if (c == '*') {
+        regex.append("[^/]*");
+      } else if (c == '?') {
+        regex.append("[^/]");
+      } else if ("\\.[]{}()+^$|".indexOf(c) >= 0) {
+        regex.append('\\').append(c);
+      } else {
+        regex.append(c);
+      }
+    }
+    return regex.toString();
+  }
+
+  private static String quote(String value) {
+    return "'" + value.replace("'", "'\\''") + "'";
+  }
+}
@@ -1,33 +1,38 @@
 package site.paircoding.paircoding.util;
 
 import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.ContainerBuilder;
 import io.fabric8.kubernetes.api.model.IntOrString;
 import io.fabric8.kubernetes.api.model.PersistentVolume;
 import io.fabric8.kubernetes.api.model.PersistentVolumeBuilder;
 import io.fabric8.kubernetes.api.model.PersistentVolumeClaim;
 import io.fabric8.kubernetes.api.model.PersistentVolumeClaimBuilder;
-import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.Quantity;
 import io.fabric8.kubernetes.api.model.ResourceRequirements;
 import io.fabric8.kubernetes.api.model.ResourceRequirementsBuilder;
 import io.fabric8.kubernetes.api.model.Service;
 import io.fabric8.kubernetes.api.model.ServiceBuilder;
-import io.fabric8.kubernetes.api.model.ServiceList;
-import io.fabric8.kubernetes.api.model.ServicePort;
 import io.fabric8.kubernetes.api.model.apps.Deployment;
 import io.fabric8.kubernetes.api.model.apps.DeploymentBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClientException;
-import io.fabric8.kubernetes.client.dsl.ExecListener;
-import io.fabric8.kubernetes.client.dsl.ExecWatch;
-import java.io.ByteArrayOutputStream;
-import java.util.HashSet;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.CountDownLatch;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import site.paircoding.paircoding.entity.Performance;
@@ -35,6 +40,7 @@ import site.paircoding.paircoding.entity.ProjectImage;
 import site.paircoding.paircoding.entity.enums.LabelKey;
 import site.paircoding.paircoding.global.exception.WebsocketException;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class KubernetesUtil {
@@ -48,51 +54,46 @@ public class KubernetesUtil {
   @Value("${kubernetes.env-label}")
   private String ENV_LABEL;
 
-  @Value("${kubernetes.nodeport.min}")
-  private int nodePortMin;
+  @Value("${kubernetes.exec.timeout-seconds:30}")
+  private long commandTimeoutSeconds;
 
-  @Value("${kubernetes.nodeport.max}")
-  private int nodePortMax;
+  @Value("${kubernetes.provisioning.threads:8}")
+  private int provisioningThreads;
 
   private final KubernetesClient kubernetesClient;
+  private final PodCommandExecutor podCommandExecutor;
+  private final NodePortAllocator nodePortAllocator;
+  private final PodRegistry podRegistry;
+  private ThreadPoolExecutor provisioningExecutor;
+
+  @PostConstruct
+  public void init() {
+    AtomicInteger sequence = new AtomicInteger();
+    provisioningExecutor = new ThreadPoolExecutor(provisioningThreads, provisioningThreads, 60L,
+        TimeUnit.SECONDS, new LinkedBlockingQueue<>(100), runnable -> {
+      Thread thread = new Thread(runnable, "provisioning-" + sequence.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }, new ThreadPoolExecutor.CallerRunsPolicy());
+  }
 
-  /**
-   * 현재 사용 중인 NodePort 목록을 조회
-   */
-  private Set<Integer> getUsedNodePorts() {
-    Set<Integer> usedPorts = new HashSet<>();
-
-    try {
-      // 모든 네임스페이스에서 서비스 조회
-      ServiceList serviceList = kubernetesClient.services().inAnyNamespace().list();
-
-      for (Service service : serviceList.getItems()) {
-        if (service.getSpec() != null && "NodePort".equals(service.getSpec().getType())) {
-          for (ServicePort port : service.getSpec().getPorts()) {
-            if (port.getNodePort() != null) {
-              usedPorts.add(port.getNodePort());
-            }
-          }
-        }
-      }
-    } catch (KubernetesClientException e) {
-      e.printStackTrace();
-    }
-
-    return usedPorts;
+  @PreDestroy
+  public void shutdown() {
+    provisioningExecutor.shutdown();
   }
 
   /**
    * 사용 가능한 NodePort 반환
    */
   public int getAvailableNodePort() {
-    for (int nodePort = nodePortMin; nodePort < nodePortMax; nodePort++) {
-      if (!getUsedNodePorts().contains(nodePort)) {
-        return nodePort; // 사용되지 않은 포트 반환
-      }
-    }
+    return nodePortAllocator.reserve();
+  }
 
-    throw new RuntimeException("지정 범위 내 NodePort 전부 사용중");
+  /**
+   * 프로젝트가 사용하던 NodePort 반납
+   */
+  public void releaseNodePort(int nodePort) {
+    nodePortAllocator.release(nodePort);
   }
 
   public boolean isExists(String deploymentName) {
@@ -104,132 +105,298 @@ public class KubernetesUtil {
 
   public void createPod(int groupId, String deploymentName, ProjectImage projectImage,
       Performance performance, int nodePort) {
-    try {
-      // PersistentVolume (PV) 생성
-      PersistentVolume pv = new PersistentVolumeBuilder()
-          .withNewMetadata()
-          .withName(deploymentName + "-pv")
-          .addToLabels(LabelKey.ENV.getKey(), ENV_LABEL)
-          .addToLabels(LabelKey.GROUP_ID.getKey(), String.valueOf(groupId))
-          .addToLabels(LabelKey.DEPLOYMENT_NAME.getKey(), deploymentName)
-          .endMetadata()
-          .withNewSpec()
-          .withCapacity(Map.of("storage", new Quantity(performance.getStorage())))
-          .withAccessModes("ReadWriteOnce") // 단일 노드에서 읽기/쓰기 가능
-          .withPersistentVolumeReclaimPolicy("Delete") // 삭제 시 데이터 유지
-          .withStorageClassName(deploymentName) // StorageClass 지정
-          .withNewHostPath()
-          .withPath("/mnt/data/" + deploymentName) // 노드의 실제 저장 경로
-          .withType("DirectoryOrCreate")
-          .endHostPath()
-          .endSpec()
-          .build();
-
-      // PV 생성
-      kubernetesClient.persistentVolumes().create(pv);
-
-      // PersistentVolumeClaim (PVC) 생성
-      PersistentVolumeClaim pvc = new PersistentVolumeClaimBuilder()
-          .withNewMetadata()
-          .withName(deploymentName + "-pvc")
-          .withNamespace(namespace)
-          .addToLabels(LabelKey.ENV.getKey(), ENV_LABEL)
-          .addToLabels(LabelKey.GROUP_ID.getKey(), String.valueOf(groupId))
-          .addToLabels(LabelKey.DEPLOYMENT_NAME.getKey(), deploymentName)
-          .endMetadata()
-          .withNewSpec()
-          .withAccessModes("ReadWriteOnce") // 단일 노드에서 읽기/쓰기 가능
-          .withStorageClassName(deploymentName) // PV와 동일한 StorageClass
-          .withNewResources()
-          .addToRequests("storage", new Quantity(performance.getStorage())) // PVC 크기 설정
-          .endResources()
-          .endSpec()
-          .build();
-
-      // PVC 생성
-      kubernetesClient.persistentVolumeClaims().inNamespace(namespace).create(pvc);
-
-      // 리소스 제한 설정
-      ResourceRequirements resources = new ResourceRequirementsBuilder()
-          .addToLimits("cpu", new Quantity(performance.getCpu()))
-          .addToLimits("memory", new Quantity(performance.getMemory()))
-          .build();
-
-      // 컨테이너 정의
-      Container container = new ContainerBuilder()
-          .withName(deploymentName)
-          .withImage(imageRegistry + ":" + projectImage.getTag())
-          .withResources(resources)
-          .addNewPort()
-          .withContainerPort(projectImage.getPort()) // 컨테이너 내부 포트
-          .endPort()
-          .addNewVolumeMount()
-          .withName(deploymentName + "-volume")
-          .withMountPath("/data") // 컨테이너 내 마운트 경로
-          .endVolumeMount()
-          .build();
-
-      // Deployment 정의
-      Deployment deployment = new DeploymentBuilder()
-          .withNewMetadata()
-          .withName(deploymentName)
-          .withNamespace(namespace)
-          .addToLabels(LabelKey.ENV.getKey(), ENV_LABEL)
-          .addToLabels(LabelKey.GROUP_ID.getKey(), String.valueOf(groupId))
-          .addToLabels(LabelKey.DEPLOYMENT_NAME.getKey(), deploymentName)
-          .endMetadata()
-          .withNewSpec()
-          .withNewSelector()
-          .addToMatchLabels(LabelKey.DEPLOYMENT_NAME.getKey(), deploymentName) // Selector 설정
-          .endSelector()
-          .withNewTemplate()
-          .withNewMetadata()
-          .addToLabels(LabelKey.DEPLOYMENT_NAME.getKey(), deploymentName)
-          .endMetadata()
-          .withNewSpec()
-          .withContainers(container)
-          .addNewVolume()
-          .withName(deploymentName + "-volume")
-          .withNewPersistentVolumeClaim()
-          .withClaimName(deploymentName + "-pvc") // PVC 연결
-          .endPersistentVolumeClaim()
-          .endVolume()
-          .endSpec()
-          .endTemplate()
-          .endSpec()
-          .build();
-
-      // Deployment 생성
-      kubernetesClient.apps().deployments().inNamespace(namespace).create(deployment);
-
-      // NodePort 방식의 서비스 생성
-      Service service = new ServiceBuilder()
-          .withNewMetadata()
-          .withName(deploymentName + "-service")
-          .withNamespace(namespace)
-          .addToLabels(LabelKey.ENV.getKey(), ENV_LABEL)
-          .addToLabels(LabelKey.GROUP_ID.getKey(), String.valueOf(groupId))
-          .addToLabels(LabelKey.DEPLOYMENT_NAME.getKey(), deploymentName)
-          .endMetadata()
-          .withNewSpec()
-          .withType("NodePort")
-          .addNewPort()
-          .withProtocol("TCP")
-          .withPort(projectImage.getPort()) // 서비스가 제공하는 포트
-          .withTargetPort(new IntOrString(projectImage.getPort())) // 컨테이너 내부 포트
-          .withNodePort(nodePort) // NodePort 지정 (30000~32767 범위에서 지정 가능)
-          .endPort()
-          .addToSelector(LabelKey.DEPLOYMENT_NAME.getKey(), deploymentName) // 파드와 서비스 매칭
-          .endSpec()
-          .build();
-
-      // 서비스 생성
-      kubernetesClient.services().inNamespace(namespace).create(service);
+    createPodAsync(groupId, deploymentName, projectImage, performance, nodePort).await();
+  }
 
-    } catch (KubernetesClientException e) {
-      e.printStackTrace();
-      throw new RuntimeException("파드 생성 오류");
+  public PodProvisioning createPodAsync(int groupId, String deploymentName,
+      ProjectImage projectImage, Performance performance, int nodePort) {
+    return createPodAsync(groupId, deploymentName, projectImage, performance, nodePort,
+        (step, elapsed) -> {
+        });
+  }
+
+  /**
+   * 프로젝트 리소스를 병렬로 생성한다. PV -> PVC는 순서대로, Deployment와 Service는 동시에 생성하며, 하나라도 실패하면 모든 단계가
+   * 끝난 뒤 생성된 리소스를 삭제한다.
+   *
+   * @param stepListener 단계(pv, pvc, deployment, service)가 끝날 때마다 단계 이름과 소요 시간(ms)으로 호출된다
+   * @return 완료 대기 및 단계별 소요 시간 조회용 핸들
+   */
+  public PodProvisioning createPodAsync(int groupId, String deploymentName,
+      ProjectImage projectImage, Performance performance, int nodePort,
+      BiConsumer<String, Long> stepListener) {
+    Map<String, String> labels = Map.of(
+        LabelKey.ENV.getKey(), ENV_LABEL,
+        LabelKey.GROUP_ID.getKey(), String.valueOf(groupId),
+        LabelKey.DEPLOYMENT_NAME.getKey(), deploymentName);
+    Service service = buildService(labels, deploymentName, projectImage, nodePort);
+
+    PodProvisioning provisioning = new PodProvisioning(deploymentName, stepListener);
+    CompletableFuture<Void> workload = createWorkload(provisioning, labels, deploymentName,
+        projectImage, performance);
+
+    // 서비스 생성
+    CompletableFuture<Void> serviceStep = provisioning.step("service",
+        () -> kubernetesClient.services().inNamespace(namespace).create(service),
+        provisioningExecutor);
+
+    return complete(provisioning, CompletableFuture.allOf(workload, serviceStep));
+  }
+
+  /**
+   * 프로젝트에 할당되지 않은 웜 풀용 리소스(PV, PVC, Deployment)를 생성한다. 그룹 라벨 대신 풀 라벨을 달고, 서비스는 할당 시점에
+   * 생성한다.
+   *
+   * @param poolKey 이미지 태그와 사양으로 만든 풀 키
+   */
+  public PodProvisioning createWarmPodAsync(String poolKey, String deploymentName,
+      ProjectImage projectImage, Performance performance) {
+    Map<String, String> labels = Map.of(
+        LabelKey.ENV.getKey(), ENV_LABEL,
+        LabelKey.WARM_POOL.getKey(), poolKey,
+        LabelKey.DEPLOYMENT_NAME.getKey(), deploymentName);
+
+    PodProvisioning provisioning = new PodProvisioning(deploymentName, (step, elapsed) -> {
+    });
+    return complete(provisioning,
+        createWorkload(provisioning, labels, deploymentName, projectImage, performance));
+  }
+
+  /**
+   * 웜 풀에서 실행 중인 Deployment 하나를 그룹에 할당한다. 풀 라벨을 그룹 라벨로 바꾸는 수정은 resourceVersion 기반으로 적용되므로,
+   * 다른 인스턴스가 먼저 가져간 Deployment는 건너뛴다.
+   *
+   * @return 할당된 Deployment 이름, 준비된 Deployment가 없으면 empty
+   */
+  public Optional<String> claimWarmDeployment(String poolKey, int groupId) {
+    List<Deployment> candidates = kubernetesClient.apps().deployments()
+        .inNamespace(namespace)
+        .withLabel(LabelKey.WARM_POOL.getKey(), poolKey)
+        .list()
+        .getItems();
+
+    for (Deployment deployment : candidates) {
+      String deploymentName = deployment.getMetadata().getName();
+      if (!podRegistry.isReady(deploymentName)) {
+        continue;
+      }
+      deployment.getMetadata().getLabels().remove(LabelKey.WARM_POOL.getKey());
+      deployment.getMetadata().getLabels()
+          .put(LabelKey.GROUP_ID.getKey(), String.valueOf(groupId));
+      try {
+        kubernetesClient.apps().deployments().inNamespace(namespace).resource(deployment)
+            .update();
+        return Optional.of(deploymentName);
+      } catch (KubernetesClientException e) {
+        if (e.getCode() != 409) {
+          throw e;
+        }
+        // 다른 요청이 먼저 할당함
+      }
     }
+    return Optional.empty();
+  }
+
+  /**
+   * 웜 풀에 남아 있는 Deployment 수 (준비 중인 것 포함)
+   */
+  public int countWarmDeployments(String poolKey) {
+    return kubernetesClient.apps().deployments()
+        .inNamespace(namespace)
+        .withLabel(LabelKey.WARM_POOL.getKey(), poolKey)
+        .list()
+        .getItems()
+        .size();
+  }
+
+  /**
+   * 웜 풀에서 할당받은 Deployment를 프로젝트에 연결한다. PV/PVC의 풀 라벨을 그룹 라벨로 바꾸고 NodePort 서비스를 생성한다.
+   *
+   * @param stepListener 단계(volume, service)가 끝날 때마다 단계 이름과 소요 시간(ms)으로 호출된다
+   * @return 완료 대기 및 단계별 소요 시간 조회용 핸들
+   */
+  public PodProvisioning attachWarmPodAsync(int groupId, String deploymentName,
+      ProjectImage projectImage, int nodePort, BiConsumer<String, Long> stepListener) {
+    Map<String, String> labels = Map.of(
+        LabelKey.ENV.getKey(), ENV_LABEL,
+        LabelKey.GROUP_ID.getKey(), String.valueOf(groupId),
+        LabelKey.DEPLOYMENT_NAME.getKey(), deploymentName);
+    Service service = buildService(labels, deploymentName, projectImage, nodePort);
+    String groupLabel = String.valueOf(groupId);
+
+    PodProvisioning provisioning = new PodProvisioning(deploymentName, stepListener);
+
+    CompletableFuture<Void> volumeStep = provisioning.step("volume", () -> {
+      kubernetesClient.persistentVolumeClaims().inNamespace(namespace)
+          .withName(deploymentName + "-pvc")
+          .edit(pvc -> relabel(pvc, groupLabel));
+      kubernetesClient.persistentVolumes()
+          .withName(deploymentName + "-pv")
+          .edit(pv -> relabel(pv, groupLabel));
+    }, provisioningExecutor);
+
+    CompletableFuture<Void> serviceStep = provisioning.step("service",
+        () -> kubernetesClient.services().inNamespace(namespace).create(service),
+        provisioningExecutor);
+
+    return complete(provisioning, CompletableFuture.allOf(volumeStep, serviceStep));
+  }
+
+  private static <T extends HasMetadata> T relabel(T resource, String groupLabel) {
+    resource.getMetadata().getLabels().remove(LabelKey.WARM_POOL.getKey());
+    resource.getMetadata().getLabels().put(LabelKey.GROUP_ID.getKey(), groupLabel);
+    return resource;
+  }
+
+  /**
+   * PV -> PVC 생성과 Deployment 생성을 동시에 시작한다.
+   */
+  private CompletableFuture<Void> createWorkload(PodProvisioning provisioning,
+      Map<String, String> labels, String deploymentName, ProjectImage projectImage,
+      Performance performance) {
+    // PersistentVolume (PV) 생성
+    PersistentVolume pv = new PersistentVolumeBuilder()
+        .withNewMetadata()
+        .withName(deploymentName + "-pv")
+        .addToLabels(labels)
+        .endMetadata()
+        .withNewSpec()
+        .withCapacity(Map.of("storage", new Quantity(performance.getStorage())))
+        .withAccessModes("ReadWriteOnce") // 단일 노드에서 읽기/쓰기 가능
+        .withPersistentVolumeReclaimPolicy("Delete") // 삭제 시 데이터 유지
+        .withStorageClassName(deploymentName) // StorageClass 지정
+        .withNewHostPath()
+        .withPath("/mnt/data/" + deploymentName) // 노드의 실제 저장 경로
+        .withType("DirectoryOrCreate")
+        .endHostPath()
+        .endSpec()
+        .build();
+
+    // PersistentVolumeClaim (PVC) 생성
+    PersistentVolumeClaim pvc = new PersistentVolumeClaimBuilder()
+        .withNewMetadata()
+        .withName(deploymentName + "-pvc")
+        .withNamespace(namespace)
+        .addToLabels(labels)
+        .endMetadata()
+        .withNewSpec()
+        .withAccessModes("ReadWriteOnce") // 단일 노드에서 읽기/쓰기 가능
+        .withStorageClassName(deploymentName) // PV와 동일한 StorageClass
+        .withNewResources()
+        .addToRequests("storage", new Quantity(performance.getStorage())) // PVC 크기 설정
+        .endResources()
+        .endSpec()
+        .build();
+
+    // 리소스 제한 설정
+    ResourceRequirements resources = new ResourceRequirementsBuilder()
+        .addToLimits("cpu", new Quantity(performance.getCpu()))
+        .addToLimits("memory", new Quantity(performance.getMemory()))
+        .build();
+
+    // 컨테이너 정의
+    Container container = new ContainerBuilder()
+        .withName(deploymentName)
+        .withImage(imageRegistry + ":" + projectImage.getTag())
+        .withResources(resources)
+        .addNewPort()
+        .withContainerPort(projectImage.getPort()) // 컨테이너 내부 포트
+        .endPort()
+        .addNewVolumeMount()
+        .withName(deploymentName + "-volume")
+        .withMountPath("/data") // 컨테이너 내 마운트 경로
+        .endVolumeMount()
+        .build();
+
+    // Deployment 정의
+    Deployment deployment = new DeploymentBuilder()
+        .withNewMetadata()
+        .withName(deploymentName)
+        .withNamespace(namespace)
+        .addToLabels(labels)
+        .endMetadata()
+        .withNewSpec()
+        .withNewSelector()
+        .addToMatchLabels(LabelKey.DEPLOYMENT_NAME.getKey(), deploymentName) // Selector 설정
+        .endSelector()
+        .withNewTemplate()
+        .withNewMetadata()
+        .addToLabels(LabelKey.DEPLOYMENT_NAME.getKey(), deploymentName)
+        .endMetadata()
+        .withNewSpec()
+        .withContainers(container)
+        .addNewVolume()
+        .withName(deploymentName + "-volume")
+        .withNewPersistentVolumeClaim()
+        .withClaimName(deploymentName + "-pvc") // PVC 연결
+        .endPersistentVolumeClaim()
+        .endVolume()
+        .endSpec()
+        .endTemplate()
+        .endSpec()
+        .build();
+
+    // PV -> PVC 생성
+    CompletableFuture<Void> volume = provisioning.step("pv",
+            () -> kubernetesClient.persistentVolumes().create(pv), provisioningExecutor)
+        .thenCompose(ignored -> provisioning.step("pvc",
+            () -> kubernetesClient.persistentVolumeClaims().inNamespace(namespace).create(pvc),
+            provisioningExecutor));
+
+    // Deployment 생성
+    CompletableFuture<Void> deploymentStep = provisioning.step("deployment",
+        () -> kubernetesClient.apps().deployments().inNamespace(namespace).create(deployment),
+        provisioningExecutor);
+
+    return CompletableFuture.allOf(volume, deploymentStep);
+  }
+
+  // NodePort 방식의 서비스 생성
+  private Service buildService(Map<String, String> labels, String deploymentName,
+      ProjectImage projectImage, int nodePort) {
+    return new ServiceBuilder()
+        .withNewMetadata()
+        .withName(deploymentName + "-service")
+        .withNamespace(namespace)
+        .addToLabels(labels)
+        .endMetadata()
+        .withNewSpec()
+        .withType("NodePort")
+        .addNewPort()
+        .withProtocol("TCP")
+        .withPort(projectImage.getPort()) // 서비스가 제공하는 포트
+        .withTargetPort(new IntOrString(projectImage.getPort())) // 컨테이너 내부 포트
+        .withNodePort(nodePort) // NodePort 지정 (30000~32767 범위에서 지정 가능)
+        .endPort()
+        .addToSelector(LabelKey.DEPLOYMENT_NAME.getKey(), deploymentName) // 파드와 서비스 매칭
+        .endSpec()
+        .build();
+  }
+
+  /**
+   * 모든 단계가 끝나면 결과를 기록하고, 실패한 경우 생성된 리소스를 삭제한다.
+   */
+  private PodProvisioning complete(PodProvisioning provisioning, CompletableFuture<Void> steps) {
+    String deploymentName = provisioning.getDeploymentName();
+    // allOf는 모든 단계가 끝난 뒤 완료되므로, 정리 이후에 생성되는 리소스가 없다
+    provisioning.complete(steps.handle((ignored, e) -> {
+      if (e == null) {
+        log.info("Pod provisioned: deploymentName={}, timings={}", deploymentName,
+            provisioning.getTimings());
+        return null;
+      }
+      log.error("Pod provisioning failed: deploymentName={}, timings={}", deploymentName,
+          provisioning.getTimings(), e);
+      try {
+        deletePod(LabelKey.DEPLOYMENT_NAME, deploymentName);
+      } catch (RuntimeException rollbackError) {
+        log.error("Pod provisioning rollback failed: deploymentName={}", deploymentName,
+            rollbackError);
+      }
+      throw new RuntimeException("파드 생성 오류", e);
+    }));
+
+    return provisioning;
   }
 
   public void deletePod(LabelKey labelKey, String labelValue) {
@@ -260,73 +427,72 @@ public class KubernetesUtil {
   }
 
   public String executeCommand(String deploymentName, String command) {
-    CountDownLatch latch = new CountDownLatch(1); // 실행 완료를 기다릴 latch
-    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-    ByteArrayOutputStream errorStream = new ByteArrayOutputStream();
-
-    // Deployment에서 Pod 목록 가져오기
-    List<Pod> pods = kubernetesClient.pods()
-        .inNamespace(namespace)
-        .withLabel(LabelKey.DEPLOYMENT_NAME.getKey(), deploymentName)
-        .list()
-        .getItems();
-
-    if (pods.isEmpty()) {
-      throw new RuntimeException("해당 Deployment에서 실행 중인 Pod가 없습니다.");
-    }
-
-    String podName = pods.get(0).getMetadata().getName(); // 첫 번째 Pod 선택
-
-    try (ExecWatch watch = kubernetesClient.pods()
-        .inNamespace(namespace)
-        .withName(podName)
-        .writingOutput(outputStream)  // 정상 출력 저장
-        .writingError(errorStream)    // 오류 출력 저장
-        .usingListener(new ExecListener() {
-          @Override
-          public void onOpen() {
-          }
-
-          @Override
-          public void onFailure(Throwable t, Response response) {
-            latch.countDown(); // 실패 시 즉시 종료
-          }
-
-          @Override
-          public void onClose(int code, String reason) {
-            latch.countDown(); // 명령어 실행 종료 시 countDown 호출
-          }
-        })
-        .exec("sh", "-c", command)) {
-
-      latch.await(); // 실행 완료될 때까지 대기
-      String output = outputStream.toString().trim();
-      String error = errorStream.toString().trim();
-
-      if (!error.isEmpty()) {
-        if (error.contains("No such file or directory")) {
-          throw new WebsocketException("Path does not exist");
-        } else if (error.contains("Is a directory")) {
-          throw new WebsocketException("Invalid type");
-        } else if (error.contains("Permission denied")) {
-          throw new WebsocketException("Permission denied for command");
-        } else if (error.contains("cannot remove") || error.contains("failed to")) {
-          throw new WebsocketException("File operation failed");
-        } else {
-          throw new KubernetesClientException("Command failed: " + error);
-        }
+    try {
+      return executeCommandAsync(deploymentName, command).get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof WebsocketException websocketException) {
+        throw websocketException;
       }
-
-      return output;
-    } catch (WebsocketException e) {
-      throw e;
+      if (cause instanceof TimeoutException) {
+        throw new KubernetesClientException("Command timed out: " + deploymentName);
+      }
+      if (cause instanceof KubernetesClientException kubernetesClientException) {
+        throw kubernetesClientException;
+      }
+      e.printStackTrace();
+      throw new KubernetesClientException("Unexpected error executing command", cause);
     } catch (InterruptedException e) {
       e.printStackTrace();
       Thread.currentThread().interrupt();
       throw new KubernetesClientException("Command execution interrupted:", e);
-    } catch (Exception e) {
-      e.printStackTrace();
-      throw new KubernetesClientException("Unexpected error executing command", e);
+    }
+  }
+
+  /**
+   * 상주 셸에서 명령을 실행한다. 호출마다 pod 조회와 exec 연결을 만들지 않으며, kubernetes.exec.timeout-seconds 가 지나면
+   * TimeoutException으로 실패한다.
+   *
+   * @return 앞뒤 공백을 제거한 stdout, stderr 출력이 있으면 WebsocketException 또는 KubernetesClientException으로 실패
+   */
+  public CompletableFuture<String> executeCommandAsync(String deploymentName, String command) {
+    return podCommandExecutor.execute(deploymentName, command,
+            Duration.ofSeconds(commandTimeoutSeconds))
+        .thenApply(result -> {
+          String output = result.getOutput().trim();
+          String error = result.getError().trim();
+
+          if (!error.isEmpty()) {
+            if (error.contains("No such file or directory")) {
+              throw new WebsocketException("Path does not exist");
+            } else if (error.contains("Is a directory")) {
+              throw new WebsocketException("Invalid type");
+            } else if (error.contains("Permission denied")) {
+              throw new WebsocketException("Permission denied for command");
+            } else if (error.contains("cannot remove") || error.contains("failed to")) {
+              throw new WebsocketException("File operation failed");
+            } else {
+              throw new KubernetesClientException("Command failed: " + error);
+            }
+          }
+
+          return output;
+        });
+  }
+
+  /**
+   * Deployment의 파드가 Ready 상태가 될 때까지 기다린다.
+   *
+   * @throws RuntimeException 제한 시간 내에 Ready 상태가 되지 않은 경우
+   */
+  public void waitUntilReady(String deploymentName, long timeoutSeconds) {
+    try {
+      kubernetesClient.apps().deployments()
+          .inNamespace(namespace)
+          .withName(deploymentName)
+          .waitUntilReady(timeoutSeconds, TimeUnit.SECONDS);
+    } catch (KubernetesClientException e) {
+      throw new RuntimeException("Deployment가 준비되지 않았습니다: " + deploymentName, e);
     }
   }
 
@@ -1,46 +1,34 @@
 package site.paircoding.paircoding.util;
 
-import com.jcraft.jsch.ChannelExec;
-import com.jcraft.jsch.JSch;
-import com.jcraft.jsch.JSchException;
-import com.jcraft.jsch.Session;
-import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class NginxConfigUtil {
 
-  @Value("${ssh.nginx-server.host}")
-  private String SSH_HOST;
-
-  @Value("${ssh.nginx-server.port}")
-  private int SSH_PORT;
-
-  @Value("${ssh.nginx-server.user}")
-  private String SSH_USER;
-
-  @Value("${ssh.nginx-server.password}")
-  private String SSH_PASSWORD;
-
   @Value("${ssh.nginx-server.subdomain-prefix}")
   private String SUBDOMAIN_PREFIX;
 
+  // server: 프로젝트마다 server 블록 파일 생성, map: 하나의 map 파일과 와일드카드 server 블록 사용
+  @Value("${ssh.nginx-server.routing-mode:server}")
+  private String routingMode;
+
 
   private static final String NGINX_AVAILABLE_PATH = "/etc/nginx/sites-available/";
   private static final String NGINX_ENABLED_PATH = "/etc/nginx/sites-enabled/";
+  private static final String ROUTE_MAP_PATH = "/etc/nginx/pading-routes.map";
+  private static final String ROUTE_SERVER_FILE_NAME = "pading-routes.conf";
+  private static final String DOMAIN = "pair-coding.site";
 
-  private Session getSession() throws JSchException {
-    JSch jsch = new JSch();
-    Session session = jsch.getSession(SSH_USER, SSH_HOST, SSH_PORT);
-    session.setPassword(SSH_PASSWORD);
-    session.setConfig("StrictHostKeyChecking", "no");
-    session.connect();
+  private static final String HEREDOC_DELIMITER = "PADING_NGINX_CONF";
 
-    return session;
-  }
+  private final NginxReloadCoalescer nginxReloadCoalescer;
 
   private String generateNginxConfigContent(String subdomain, int nodePort) {
     return """
@@ -77,89 +65,141 @@ public class NginxConfigUtil {
         """.formatted(subdomain, subdomain, nodePort);
   }
 
-  private void executeCommand(Session session, String command) throws Exception {
-
-    ChannelExec channel = (ChannelExec) session.openChannel("exec");
-    channel.setCommand(command);
-    channel.setInputStream(null);
-    channel.setErrStream(System.err);
-
-    ByteArrayOutputStream responseStream = new ByteArrayOutputStream();
-    channel.setOutputStream(responseStream);
-
-    channel.connect();
-
-    while (!channel.isClosed()) {
-      Thread.sleep(100);
-    }
+  /**
+   * map 라우팅용 와일드카드 server 블록. 서브도메인별 NodePort는 map 파일에서 찾는다.
+   */
+  private String generateRouteServerContent() {
+    String hostPattern = "~^" + SUBDOMAIN_PREFIX.replace(".", "\\.") + ".+\\."
+        + DOMAIN.replace(".", "\\.") + "$";
+    return """
+        map $host $pading_upstream_port {
+            hostnames;
+            default 0;
+            include %s;
+        }
+        
+        server {
+            listen 80;
+            server_name %s;
+        
+            location / {
+                return 301 https://$host$request_uri;  # HTTP에서 HTTPS로 리다이렉트
+            }
+        }
+        
+        server {
+            listen 443 ssl;
+            server_name %s;
+        
+            ssl_certificate /etc/letsencrypt/live/pair-coding.site/fullchain.pem;
+            ssl_certificate_key /etc/letsencrypt/live/pair-coding.site/privkey.pem;
+        
+            include /etc/letsencrypt/options-ssl-nginx.conf;  # managed by Certbot
+            ssl_dhparam /etc/letsencrypt/ssl-dhparams.pem;    # managed by Certbot
+        
+            client_max_body_size 100M;
+        
+            if ($pading_upstream_port = 0) {
+                return 404;
+            }
+        
+            location / {
+                proxy_pass http://192.168.0.38:$pading_upstream_port;
+                proxy_set_header Host $host;
+                proxy_set_header X-Real-IP $remote_addr;
+                proxy_set_header X-Forwarded-For $proxy_add_x_forwarded_for;
+                proxy_set_header X-Forwarded-Proto $scheme;
+            }
+        }
+        
+        """.formatted(ROUTE_MAP_PATH, hostPattern, hostPattern);
+  }
 
-    channel.disconnect();
+  public boolean isMapRouting() {
+    return "map".equals(routingMode);
   }
 
   public String createSubdomain(String deploymentName) {
     return SUBDOMAIN_PREFIX + deploymentName;
   }
 
-  public void createNginxConfig(String subdomain, int nodePort) {
-    Session session = null;
+  /**
+   * 서브도메인 설정 파일과 심볼릭 링크를 만든다. 적용과 reload는 짧은 시간 동안 모인 다른 변경과 함께 한 번에 실행된다.
+   *
+   * @return 이 변경을 포함한 reload가 끝나면 완료되는 future
+   */
+  public CompletableFuture<Void> createNginxConfig(String subdomain, int nodePort) {
+    if (isMapRouting()) {
+      // map 파일에서 기존 항목을 지우고 한 줄 추가
+      String host = subdomain + "." + DOMAIN;
+      return nginxReloadCoalescer.submit(removeRouteCommand(host)
+          + " && echo '" + host + " " + nodePort + ";' >> " + ROUTE_MAP_PATH);
+    }
 
     String configFileName = subdomain + ".conf"; // Nginx 설정 파일명 변환
     String configFilePath = NGINX_AVAILABLE_PATH + configFileName;
     String configContent = generateNginxConfigContent(subdomain, nodePort);
 
-    try {
-      // SSH 연결
-      session = getSession();
+    // 설정 파일 생성 -> 심볼릭 링크 생성
+    String script = "cat > " + configFilePath + " <<'" + HEREDOC_DELIMITER + "'"
+        + " && ln -sf " + configFilePath + " " + NGINX_ENABLED_PATH + configFileName + "\n"
+        + configContent + "\n" + HEREDOC_DELIMITER;
 
-      // 설정 파일 생성
-      String createConfigCommand = "echo '" + configContent + "' > " + configFilePath;
-      executeCommand(session, createConfigCommand);
-
-      // 심볼릭 링크 생성
-      String linkCommand = "ln -s " + configFilePath + " " + NGINX_ENABLED_PATH + configFileName;
-      executeCommand(session, linkCommand);
-
-      // Nginx 재시작
-      String reloadNginxCommand = "sudo nginx -s reload";
-      executeCommand(session, reloadNginxCommand);
-
-    } catch (Exception e) {
-      e.printStackTrace();
-    } finally {
-      if (session != null) {
-        session.disconnect();
-      }
-    }
+    return nginxReloadCoalescer.submit(script);
   }
 
-  public void deleteNginxConfig(String subdomain) {
-    Session session = null;
+  /**
+   * 서브도메인 설정 파일과 심볼릭 링크를 삭제한다. 실패는 로그로만 남긴다.
+   *
+   * @return 이 변경을 포함한 reload가 끝나면 완료되는 future
+   */
+  public CompletableFuture<Void> deleteNginxConfig(String subdomain) {
+    if (isMapRouting()) {
+      String host = subdomain + "." + DOMAIN;
+      return nginxReloadCoalescer.submit(removeRouteCommand(host)).whenComplete((ignored, e) -> {
+        if (e != null) {
+          log.error("nginx 라우팅 삭제 실패: subdomain={}", subdomain, e);
+        }
+      });
+    }
 
-    String configFileName = SUBDOMAIN_PREFIX + subdomain + ".conf"; // Nginx 설정 파일명 변환
+    String configFileName = subdomain + ".conf"; // Nginx 설정 파일명 변환
     String configFilePath = NGINX_AVAILABLE_PATH + configFileName;
 
-    try {
-      // SSH 연결
-      session = getSession();
-
-      // 설정 파일 삭제
-      String createConfigCommand = "rm " + configFilePath;
-      executeCommand(session, createConfigCommand);
+    // 설정 파일 삭제 -> 심볼릭 링크 삭제
+    String script = "rm -f " + configFilePath + " " + NGINX_ENABLED_PATH + configFileName;
 
-      // 심볼릭 링크 삭제
-      String linkCommand = "rm " + NGINX_ENABLED_PATH + configFileName;
-      executeCommand(session, linkCommand);
+    return nginxReloadCoalescer.submit(script).whenComplete((ignored, e) -> {
+      if (e != null) {
+        log.error("nginx 설정 삭제 실패: subdomain={}", subdomain, e);
+      }
+    });
+  }
 
-      // Nginx 재시작
-      String reloadNginxCommand = "sudo nginx -s reload";
-      executeCommand(session, reloadNginxCommand);
+  /**
+   * map 라우팅용 server 블록과 전체 map 파일을 한 번에 다시 작성한다. map 파일은 임시 파일에 쓴 뒤 교체한다.
+   *
+   * @param routes 서브도메인 -> NodePort
+   * @return 적용과 reload가 끝나면 완료되는 future
+   */
+  public CompletableFuture<Void> renderRouteMap(Map<String, Integer> routes) {
+    StringBuilder mapContent = new StringBuilder(routes.size() * 48);
+    routes.forEach((subdomain, nodePort) -> mapContent.append(subdomain).append('.')
+        .append(DOMAIN).append(' ').append(nodePort).append(";\n"));
+
+    String configFilePath = NGINX_AVAILABLE_PATH + ROUTE_SERVER_FILE_NAME;
+    String script = "cat > " + ROUTE_MAP_PATH + ".tmp <<'" + HEREDOC_DELIMITER + "'"
+        + " && mv -f " + ROUTE_MAP_PATH + ".tmp " + ROUTE_MAP_PATH + "\n"
+        + mapContent + HEREDOC_DELIMITER + "\n"
+        + "cat > " + configFilePath + " <<'" + HEREDOC_DELIMITER + "'"
+        + " && ln -sf " + configFilePath + " " + NGINX_ENABLED_PATH + ROUTE_SERVER_FILE_NAME
+        + "\n" + generateRouteServerContent() + "\n" + HEREDOC_DELIMITER;
+
+    return nginxReloadCoalescer.submit(script);
+  }
 
-    } catch (Exception e) {
-      e.printStackTrace();
-    } finally {
-      if (session != null) {
-        session.disconnect();
-      }
-    }
+  private static String removeRouteCommand(String host) {
+    return "touch " + ROUTE_MAP_PATH + " && sed -i '/^" + host.replace(".", "\\.") + " /d' "
+        + ROUTE_MAP_PATH;
   }
 }
@@ -0,0 +1,171 @@
+package site.paircoding.paircoding.util;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import site.paircoding.paircoding.util.SshSessionPool.ExecResult;
+
+/**
+ * nginx 설정 변경을 모아 한 번의 원격 명령과 한 번의 reload로 적용하는 컴포넌트.
+ * <p>
+ * 첫 변경이 들어온 뒤 debounce 시간 동안 들어온 변경을 하나의 스크립트로 묶어 실행하고 마지막에 reload를 한 번만 한다. 그룹 삭제처럼 여러
+ * 프로젝트가 한꺼번에 바뀌어도 worker 재시작은 한 번이다. 각 변경의 future는 그 변경을 포함한 reload가 끝나면 완료된다.
+ * <p>
+ * reload 전에 nginx -t로 설정을 검사한다. 검사에 실패하면 묶음 전체를 되돌린 뒤 변경을 하나씩 다시 적용하며 검사해, 검사를 통과하지 못한
+ * 변경만 되돌리고 실패시킨다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NginxReloadCoalescer {
+
+  private static final String FAILED_MARKER = "__PADING_CHANGE_FAILED_%d__";
+  private static final String ISOLATE_MARKER = "__PADING_CHANGE_ISOLATE__";
+
+  @Value("${ssh.nginx-server.reload-debounce-millis:500}")
+  private long debounceMillis;
+
+  // 설정 변경이 건드리는 경로 - 검사 실패 시 이 경로들을 변경 전 상태로 되돌린다
+  @Value("${ssh.nginx-server.config-paths:/etc/nginx/sites-available,/etc/nginx/sites-enabled,/etc/nginx/pading-routes.map}")
+  private List<String> configPaths;
+
+  private final SshSessionPool sshSessionPool;
+  private final Object lock = new Object();
+  private List<Change> pending = new ArrayList<>();
+  private ScheduledThreadPoolExecutor executor;
+
+  @PostConstruct
+  public void init() {
+    executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread thread = new Thread(runnable, "nginx-reload");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  /**
+   * 설정 변경 명령을 다음 reload에 포함시킨다.
+   *
+   * @param script nginx 서버에서 실행할 셸 명령 (reload 제외)
+   * @return 변경과 이를 포함한 reload가 끝나면 완료되는 future
+   */
+  public CompletableFuture<Void> submit(String script) {
+    Change change = new Change(script);
+    synchronized (lock) {
+      pending.add(change);
+      // 창의 첫 변경만 적용 작업을 예약한다
+      if (pending.size() == 1) {
+        executor.schedule(this::apply, debounceMillis, TimeUnit.MILLISECONDS);
+      }
+    }
+    return change.future;
+  }
+
+  private void apply() {
+    List<Change> changes;
+    synchronized (lock) {
+      changes = pending;
+      pending = new ArrayList<>();
+    }
+    if (changes.isEmpty()) {
+      return;
+    }
+
+    String script = buildScript(changes);
+
+    long startedAt = System.nanoTime();
+    ExecResult result;
+    try {
+      result = sshSessionPool.execute("sh", script.getBytes(StandardCharsets.UTF_8));
+    } catch (Exception e) {
+      log.error("nginx 설정 적용 실패: changes={}", changes.size(), e);
+      changes.forEach(change -> change.future.completeExceptionally(
+          new RuntimeException("nginx 서버 명령 실행 실패", e)));
+      return;
+    }
+
+    // 하나씩 다시 적용했다면 그 결과만 본다
+    String output = result.getOutput();
+    boolean isolated = output.contains(ISOLATE_MARKER);
+    if (isolated) {
+      output = output.substring(output.lastIndexOf(ISOLATE_MARKER));
+    }
+    log.info("nginx reloaded: changes={}, isolated={}, exit={}, elapsed={}ms", changes.size(),
+        isolated, result.getExitStatus(), (System.nanoTime() - startedAt) / 1_000_000);
+    for (int i = 0; i < changes.size(); i++) {
+      CompletableFuture<Void> future = changes.get(i).future;
+      if (!result.isSuccess()) {
+        future.completeExceptionally(new RuntimeException(
+            "nginx reload 실패: exit=" + result.getExitStatus() + ", " + result.getError()));
+      } else if (output.contains(FAILED_MARKER.formatted(i))) {
+        future.completeExceptionally(
+            new RuntimeException("nginx 설정 변경 실패: " + result.getError()));
+      } else {
+        future.complete(null);
+      }
+    }
+  }
+
+  /**
+   * 변경을 모두 적용하고 nginx -t로 검사한 뒤 reload하는 스크립트. 검사에 실패하면 변경 전 상태로 되돌리고 변경을 하나씩 적용하며
+   * 검사해, 실패한 변경만 되돌리고 표시를 남긴다.
+   */
+  private String buildScript(List<Change> changes) {
+    String paths = String.join(" ", configPaths);
+    StringBuilder script = new StringBuilder()
+        .append("b=$(mktemp -d) || exit 1\n")
+        .append("trap 'rm -rf \"$b\"' EXIT\n")
+        .append("save() { rm -rf \"$b/s\" && mkdir \"$b/s\" && for p in ").append(paths)
+        .append("; do if [ -e \"$p\" ]; then cp -a \"$p\" \"$b/s/\" || return 1; fi; done; }\n")
+        // 디렉토리는 내용만 바꾼다 (상위 디렉토리 쓰기 권한 없이 되돌리도록)
+        .append("restore() { for p in ").append(paths)
+        .append("; do s=\"$b/s/${p##*/}\"; if [ -d \"$p\" ]; then")
+        .append(" rm -rf \"$p\"/* && { [ ! -d \"$s\" ]")
+        .append(" || cp -a \"$s/.\" \"$p/\"; }; elif [ -e \"$s\" ]; then cat \"$s\" > \"$p\";")
+        .append(" else rm -f \"$p\"; fi; done; }\n")
+        .append("save || exit 1\n");
+
+    // 변경 하나가 실패해도 나머지는 적용하고, 실패한 변경은 표시만 남긴다
+    for (int i = 0; i < changes.size(); i++) {
+      script.append("{ ").append(changes.get(i).script).append("\n} || echo ")
+          .append(FAILED_MARKER.formatted(i)).append('\n');
+    }
+
+    script.append("if ! sudo nginx -t -q; then\n")
+        .append("restore\n")
+        .append("echo ").append(ISOLATE_MARKER).append('\n');
+    for (int i = 0; i < changes.size(); i++) {
+      script.append("save || exit 1\n")
+          .append("{ ").append(changes.get(i).script)
+          .append("\n} && sudo nginx -t -q || { restore; echo ")
+          .append(FAILED_MARKER.formatted(i)).append("; }\n");
+    }
+    script.append("fi\n")
+        .append("sudo nginx -s reload\n");
+    return script.toString();
+  }
+
+  private static class Change {
+
+    private final String script;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    private Change(String script) {
+      this.script = script;
+    }
+  }
+}
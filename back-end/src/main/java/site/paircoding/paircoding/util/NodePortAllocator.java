@@ -0,0 +1,160 @@
+package site.paircoding.paircoding.util;
+
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServicePort;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * [nodeport.min, nodeport.max) 범위의 NodePort 사용 현황을 BitSet으로 관리하는 할당기.
+ * <p>
+ * 클러스터의 서비스 목록은 informer로 한 번 읽고 이후 watch 이벤트로 갱신하므로, 할당마다 서비스 LIST를 보내지 않는다. 할당된 포트는
+ * 서비스가 생성되어 informer에 반영될 때까지 예약 상태로 두고, 여러 백엔드 인스턴스가 같은 포트를 잡지 않도록 Redis에도 예약한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NodePortAllocator {
+
+  private static final String RESERVATION_KEY = "nodePort:%d";
+
+  @Value("${kubernetes.nodeport.min}")
+  private int nodePortMin;
+
+  @Value("${kubernetes.nodeport.max}")
+  private int nodePortMax;
+
+  @Value("${kubernetes.nodeport.reservation-seconds:600}")
+  private long reservationSeconds;
+
+  private final KubernetesClient kubernetesClient;
+  private final RedisUtil redisUtil;
+
+  // 클러스터에 생성된 서비스가 사용 중인 포트
+  private final BitSet used = new BitSet();
+  // 할당했지만 아직 서비스로 확인되지 않은 포트
+  private final BitSet reserved = new BitSet();
+  // 서비스 uid별 사용 포트 - 수정/삭제 시 이전 포트를 해제하기 위함
+  private final Map<String, int[]> servicePorts = new ConcurrentHashMap<>();
+  private SharedIndexInformer<Service> informer;
+
+  @PostConstruct
+  public void start() {
+    informer = kubernetesClient.services().inAnyNamespace().runnableInformer(0);
+    informer.addEventHandler(new ResourceEventHandler<>() {
+      @Override
+      public void onAdd(Service service) {
+        track(service);
+      }
+
+      @Override
+      public void onUpdate(Service oldService, Service newService) {
+        track(newService);
+      }
+
+      @Override
+      public void onDelete(Service service, boolean deletedFinalStateUnknown) {
+        untrack(service);
+      }
+    });
+
+    // 기동을 막지 않도록 비동기로 시작
+    informer.start().whenComplete((ignored, e) -> {
+      if (e != null) {
+        log.error("Service informer failed to start", e);
+      }
+    });
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (informer != null) {
+      informer.stop();
+    }
+  }
+
+  /**
+   * 사용 가능한 가장 낮은 NodePort를 예약한다.
+   *
+   * @return 예약된 NodePort
+   */
+  public synchronized int reserve() {
+    if (informer == null || !informer.hasSynced()) {
+      // 초기 동기화 전에는 한 번만 조회해서 채운다
+      kubernetesClient.services().inAnyNamespace().list().getItems().forEach(this::track);
+    }
+
+    int range = nodePortMax - nodePortMin;
+    BitSet taken = (BitSet) used.clone();
+    taken.or(reserved);
+
+    for (int index = taken.nextClearBit(0); index < range; index = taken.nextClearBit(index + 1)) {
+      int nodePort = nodePortMin + index;
+      // 다른 인스턴스가 이미 예약한 포트면 다음 포트
+      if (redisUtil.setIfAbsent(RESERVATION_KEY.formatted(nodePort), "reserved",
+          reservationSeconds)) {
+        reserved.set(index);
+        return nodePort;
+      }
+      taken.set(index);
+    }
+
+    throw new RuntimeException("지정 범위 내 NodePort 전부 사용중");
+  }
+
+  /**
+   * 프로젝트 삭제 또는 생성 실패 시 포트를 반납한다.
+   *
+   * @param nodePort 반납할 NodePort
+   */
+  public synchronized void release(int nodePort) {
+    int index = nodePort - nodePortMin;
+    if (index < 0 || index >= nodePortMax - nodePortMin) {
+      return;
+    }
+    reserved.clear(index);
+    used.clear(index);
+    redisUtil.delete(RESERVATION_KEY.formatted(nodePort));
+  }
+
+  private synchronized void track(Service service) {
+    clear(servicePorts.remove(service.getMetadata().getUid()));
+
+    if (service.getSpec() == null || !"NodePort".equals(service.getSpec().getType())) {
+      return;
+    }
+    int[] ports = service.getSpec().getPorts().stream()
+        .map(ServicePort::getNodePort)
+        .filter(port -> port != null && port >= nodePortMin && port < nodePortMax)
+        .mapToInt(Integer::intValue)
+        .toArray();
+    for (int port : ports) {
+      used.set(port - nodePortMin);
+      reserved.clear(port - nodePortMin);
+    }
+    servicePorts.put(service.getMetadata().getUid(), ports);
+  }
+
+  private synchronized void untrack(Service service) {
+    clear(servicePorts.remove(service.getMetadata().getUid()));
+  }
+
+  private void clear(int[] ports) {
+    if (ports == null) {
+      return;
+    }
+    for (int port : ports) {
+      used.clear(port - nodePortMin);
+    }
+  }
+}
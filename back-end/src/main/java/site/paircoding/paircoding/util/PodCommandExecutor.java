@@ -0,0 +1,349 @@
+package site.paircoding.paircoding.util;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.ExecListener;
+import io.fabric8.kubernetes.client.dsl.ExecWatch;
+import io.fabric8.kubernetes.client.dsl.PodResource;
+import io.fabric8.kubernetes.client.dsl.TtyExecOutputErrorable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import site.paircoding.paircoding.util.PodShellPool.CommandResult;
+
+/**
+ * pod 명령 실행 API. 모든 호출은 CompletableFuture로 결과를 돌려주며 제한 시간, 취소, 동시 실행 수 제한(전체/pod별)을 적용한다.
+ * <p>
+ * 짧은 명령은 상주 셸({@link PodShellPool})에서 실행하고, 출력이 큰 명령은 별도 exec로 실행해 출력을 받는 대로 전달한다. 동시 실행 수를
+ * 넘는 요청은 스레드를 붙잡지 않고 대기열에서 자리가 날 때까지 기다리며(제한 시간과 acquire-timeout 중 짧은 쪽까지), 자리가 나면
+ * 디스패치 스레드에서 시작한다. 기다린 시간은 제한 시간에서 뺀다. pod가 모두 삭제된 Deployment의 pod별 제한은 정리한다. 계속 실행되는 감시 명령은 짧은 명령의 자리를 차지하지 않도록 따로 센다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PodCommandExecutor {
+
+  @Value("${kubernetes.namespace}")
+  private String namespace;
+
+  @Value("${kubernetes.exec.max-concurrent:64}")
+  private int maxConcurrent;
+
+  @Value("${kubernetes.exec.max-concurrent-per-pod:8}")
+  private int maxConcurrentPerPod;
+
+  @Value("${kubernetes.exec.acquire-timeout-millis:10000}")
+  private long acquireTimeoutMillis;
+
+  @Value("${kubernetes.exec.max-watchers:256}")
+  private int maxWatchers;
+
+  private final KubernetesClient kubernetesClient;
+  private final PodRegistry podRegistry;
+  private final PodShellPool podShellPool;
+  private final Map<String, AsyncPermits> podPermits = new ConcurrentHashMap<>();
+  private AsyncPermits globalPermits;
+  private Semaphore watcherPermits;
+  private ThreadPoolExecutor dispatcher;
+
+  @PostConstruct
+  public void init() {
+    globalPermits = new AsyncPermits(maxConcurrent);
+    watcherPermits = new Semaphore(maxWatchers);
+    // 실행 중인 명령은 acquire에서 받은 권한을 반납하므로 바로 지워도 된다
+    podRegistry.addRemovalListener(podPermits::remove);
+    // 기다리던 명령은 권한을 반납한 스레드(exec 콜백 등) 대신 여기서 시작한다
+    dispatcher = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60L, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), runnable -> {
+      Thread thread = new Thread(runnable, "pod-exec-dispatch");
+      thread.setDaemon(true);
+      return thread;
+    });
+    dispatcher.allowCoreThreadTimeOut(true);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    dispatcher.shutdownNow();
+  }
+
+  /**
+   * 상주 셸에서 명령을 실행한다. 제한 시간이 지나면 응답하지 않는 셸을 닫아 뒤에 대기 중인 명령도 실패시킨다. 반환된 future를 취소하면 결과를
+   * 기다리지 않는다.
+   *
+   * @param timeout 제한 시간
+   * @return 명령의 stdout/stderr
+   */
+  public CompletableFuture<CommandResult> execute(String deploymentName, String command,
+      Duration timeout) {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    return withPermits(deploymentName, deadline, release -> {
+      CompletableFuture<CommandResult> future = podShellPool.execute(deploymentName, command);
+      future.orTimeout(remainingNanos(deadline), TimeUnit.NANOSECONDS)
+          .whenComplete((result, e) -> {
+            release.run();
+            if (e instanceof TimeoutException) {
+              log.warn("Command timed out, closing exec channel: deploymentName={}",
+                  deploymentName);
+              podShellPool.close(deploymentName);
+            }
+          });
+      return future;
+    });
+  }
+
+  /**
+   * 별도 exec로 명령을 실행하고 stdout을 받는 대로 output에 쓴다. 제한 시간이 지나거나 반환된 future를 취소하면 exec 연결을 닫는다.
+   *
+   * @param input   명령의 stdin으로 보낼 내용 (명령을 시작한 스레드에서 보낸 뒤 닫는다), 없으면 null
+   * @param output  stdout을 받을 스트림 (exec 스레드에서 호출된다)
+   * @param timeout 제한 시간
+   * @return 종료 코드와 stderr
+   */
+  public CompletableFuture<StreamResult> stream(String deploymentName, String command,
+      InputStream input, OutputStream output, Duration timeout) {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    return withPermits(deploymentName, deadline,
+        release -> exec(deploymentName, command, input, output, deadline, release));
+  }
+
+  /**
+   * 파일 감시처럼 pod가 살아 있는 동안 계속 실행되는 명령을 별도 exec로 실행한다. 명령 실행 수 제한 대신 감시 명령 수 제한(max-watchers)을
+   * 적용하며, 자리가 없으면 기다리지 않고 실패한다.
+   *
+   * @param output  stdout을 받을 스트림 (exec 스레드에서 호출된다)
+   * @param timeout 제한 시간
+   * @return 종료 코드와 stderr
+   */
+  public CompletableFuture<StreamResult> watch(String deploymentName, String command,
+      OutputStream output, Duration timeout) {
+    if (!watcherPermits.tryAcquire()) {
+      return CompletableFuture.failedFuture(
+          new KubernetesClientException("Too many watchers: " + deploymentName));
+    }
+    return exec(deploymentName, command, null, output, System.nanoTime() + timeout.toNanos(),
+        watcherPermits::release);
+  }
+
+  private CompletableFuture<StreamResult> exec(String deploymentName, String command,
+      InputStream input, OutputStream output, long deadline, Runnable release) {
+    CompletableFuture<StreamResult> future = new CompletableFuture<>();
+    ByteArrayOutputStream error = new ByteArrayOutputStream();
+    ExecWatch execWatch;
+    try {
+      String podName = podRegistry.getReadyPodName(deploymentName);
+      PodResource pod = kubernetesClient.pods().inNamespace(namespace).withName(podName);
+      TtyExecOutputErrorable exec = input == null ? pod : pod.redirectingInput();
+      execWatch = exec
+          .writingOutput(output)
+          .writingError(error)
+          .usingListener(new ExecListener() {
+            @Override
+            public void onFailure(Throwable t, Response failureResponse) {
+              future.completeExceptionally(
+                  new KubernetesClientException("Exec failed: " + t.getMessage(), t));
+            }
+
+            @Override
+            public void onClose(int code, String reason) {
+              // 정상 종료는 exitCode()로 받는다
+            }
+          })
+          .exec("sh", "-c", command);
+    } catch (RuntimeException e) {
+      release.run();
+      return CompletableFuture.failedFuture(e);
+    }
+
+    execWatch.exitCode().whenComplete((exitCode, e) -> {
+      if (e != null) {
+        future.completeExceptionally(e);
+      } else {
+        future.complete(new StreamResult(exitCode, error.toString(StandardCharsets.UTF_8)));
+      }
+    });
+    future.orTimeout(remainingNanos(deadline), TimeUnit.NANOSECONDS)
+        .whenComplete((result, e) -> {
+          release.run();
+          // 제한 시간 초과/취소 시 연결을 닫아 pod의 명령도 종료되게 한다
+          execWatch.close();
+        });
+
+    if (input != null) {
+      // stdin을 다 보내면 닫는다. 연결이 닫혀 쓰기가 실패하면 명령도 실패한다
+      try (OutputStream stdin = execWatch.getInput()) {
+        input.transferTo(stdin);
+      } catch (IOException e) {
+        future.completeExceptionally(
+            new KubernetesClientException("Exec input write failed: " + deploymentName, e));
+      }
+    }
+    return future;
+  }
+
+  /**
+   * pod별 권한, 전체 권한 순으로 얻은 뒤 명령을 시작한다. 한 pod에 몰린 요청이 전체 권한을 쥔 채 기다리지 않도록 pod별 권한을 먼저 얻는다.
+   * 바로 얻으면 호출 스레드에서 시작하고, 기다려야 하면 스레드를 붙잡지 않고 권한이 나는 대로 디스패치 스레드에서 시작한다.
+   *
+   * @param deadline 명령의 마감 시각 (System.nanoTime 기준)
+   * @param start    권한 반납 함수를 받아 명령을 시작하고, 명령이 끝나면 반납해야 한다
+   * @return 명령의 결과, 기다려도 권한을 얻지 못하면 실패
+   */
+  private <T> CompletableFuture<T> withPermits(String deploymentName, long deadline,
+      Function<Runnable, CompletableFuture<T>> start) {
+    long waitUntil = Math.min(deadline,
+        System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis));
+    AsyncPermits permits = podPermits.computeIfAbsent(deploymentName,
+        name -> new AsyncPermits(maxConcurrentPerPod));
+    Runnable release = () -> {
+      permits.release();
+      globalPermits.release();
+    };
+
+    CompletableFuture<Void> acquired = permits.acquire(remainingNanos(waitUntil))
+        .thenCompose(ignored -> globalPermits.acquire(remainingNanos(waitUntil))
+            .whenComplete((ignoredResult, e) -> {
+              if (e != null) {
+                permits.release();
+              }
+            }));
+    if (acquired.isDone() && !acquired.isCompletedExceptionally()) {
+      return start.apply(release);
+    }
+
+    CompletableFuture<T> result = new CompletableFuture<>();
+    acquired.whenCompleteAsync((ignored, e) -> {
+      if (e != null) {
+        result.completeExceptionally(tooManyCommands(deploymentName));
+        return;
+      }
+      // 기다리는 동안 취소됐으면 받은 권한을 바로 넘긴다
+      if (result.isDone()) {
+        release.run();
+        return;
+      }
+      CompletableFuture<T> command;
+      try {
+        command = start.apply(release);
+      } catch (RuntimeException startError) {
+        result.completeExceptionally(startError);
+        return;
+      }
+      command.whenComplete((value, error) -> {
+        if (error != null) {
+          result.completeExceptionally(error);
+        } else {
+          result.complete(value);
+        }
+      });
+      // 반환된 future를 취소하면 명령도 취소한다
+      result.whenComplete((value, error) -> {
+        if (result.isCancelled()) {
+          command.cancel(true);
+        }
+      });
+    }, dispatcher);
+    return result;
+  }
+
+  private static long remainingNanos(long deadline) {
+    return Math.max(deadline - System.nanoTime(), 0);
+  }
+
+  private static KubernetesClientException tooManyCommands(String deploymentName) {
+    return new KubernetesClientException("Too many concurrent commands: " + deploymentName);
+  }
+
+  /**
+   * 기다리는 동안 스레드를 붙잡지 않는 권한 수 제한. 반납된 권한은 먼저 기다린 요청부터 넘긴다.
+   */
+  static class AsyncPermits {
+
+    private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private int available;
+
+    AsyncPermits(int permits) {
+      this.available = permits;
+    }
+
+    /**
+     * @param timeoutNanos 기다릴 최대 시간
+     * @return 권한을 얻으면 완료되는 future, 시간 안에 얻지 못하면 TimeoutException으로 실패
+     */
+    CompletableFuture<Void> acquire(long timeoutNanos) {
+      CompletableFuture<Void> waiter = new CompletableFuture<>();
+      synchronized (this) {
+        if (available > 0) {
+          available--;
+          waiter.complete(null);
+          return waiter;
+        }
+        waiters.addLast(waiter);
+      }
+      waiter.orTimeout(timeoutNanos, TimeUnit.NANOSECONDS).whenComplete((ignored, e) -> {
+        if (e != null) {
+          remove(waiter);
+        }
+      });
+      return waiter;
+    }
+
+    void release() {
+      while (true) {
+        CompletableFuture<Void> next;
+        synchronized (this) {
+          next = waiters.pollFirst();
+          if (next == null) {
+            available++;
+            return;
+          }
+        }
+        // 그 사이 제한 시간이 지난 요청이면 다음 요청에 넘긴다
+        if (next.complete(null)) {
+          return;
+        }
+      }
+    }
+
+    synchronized int availablePermits() {
+      return available;
+    }
+
+    private synchronized void remove(CompletableFuture<Void> waiter) {
+      waiters.remove(waiter);
+    }
+  }
+
+  @Getter
+  public static class StreamResult {
+
+    private final int exitCode;
+    private final String error;
+
+    public StreamResult(Integer exitCode, String error) {
+      this.exitCode = exitCode == null ? -1 : exitCode;
+      this.error = error;
+    }
+  }
+}
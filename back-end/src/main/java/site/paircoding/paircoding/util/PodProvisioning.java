@@ -0,0 +1,75 @@
+package site.paircoding.paircoding.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import lombok.Getter;
+
+/**
+ * 프로젝트 리소스(PV, PVC, Deployment, Service) 생성 작업의 진행 핸들. 완료를 기다리거나 단계별 소요 시간을 조회할 수 있다.
+ */
+public class PodProvisioning {
+
+  @Getter
+  private final String deploymentName;
+  private final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+  private final long startedAt = System.nanoTime();
+  private final BiConsumer<String, Long> stepListener;
+  private CompletableFuture<Void> completion;
+
+  PodProvisioning(String deploymentName, BiConsumer<String, Long> stepListener) {
+    this.deploymentName = deploymentName;
+    this.stepListener = stepListener;
+  }
+
+  /**
+   * 단계를 비동기로 실행하고 소요 시간(ms)을 기록한 뒤 리스너에 알린다.
+   */
+  CompletableFuture<Void> step(String name, Runnable action, Executor executor) {
+    return CompletableFuture.runAsync(() -> {
+      long start = System.nanoTime();
+      action.run();
+      long elapsed = (System.nanoTime() - start) / 1_000_000;
+      timings.put(name, elapsed);
+      stepListener.accept(name, elapsed);
+    }, executor);
+  }
+
+  void complete(CompletableFuture<Void> completion) {
+    this.completion = completion.whenComplete(
+        (ignored, e) -> timings.put("total", (System.nanoTime() - startedAt) / 1_000_000));
+  }
+
+  public CompletableFuture<Void> getCompletion() {
+    return completion;
+  }
+
+  /**
+   * 단계 이름별 소요 시간(ms). 완료된 단계만 포함되며, 전체 완료 후 total이 추가된다.
+   */
+  public Map<String, Long> getTimings() {
+    synchronized (timings) {
+      return new LinkedHashMap<>(timings);
+    }
+  }
+
+  /**
+   * 모든 리소스 생성이 끝날 때까지 기다린다.
+   *
+   * @throws RuntimeException 생성에 실패한 경우 (생성된 리소스는 이미 정리된 상태)
+   */
+  public void await() {
+    try {
+      completion.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
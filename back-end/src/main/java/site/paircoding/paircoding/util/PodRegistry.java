@@ -0,0 +1,137 @@
+package site.paircoding.paircoding.util;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import site.paircoding.paircoding.entity.enums.LabelKey;
+
+/**
+ * 프로젝트 pod를 informer로 캐시해 두고 Deployment 이름으로 실행 중인 pod를 찾는 레지스트리.
+ * <p>
+ * 초기 LIST 이후에는 watch 이벤트로 갱신되므로, 파일 클릭이나 터미널 연결마다 API 서버에 pod LIST를 보내지 않는다. 초기 동기화 전에는
+ * 기존처럼 직접 조회한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PodRegistry {
+
+  private static final String DEPLOYMENT_INDEX = "deploymentName";
+
+  @Value("${kubernetes.namespace}")
+  private String namespace;
+
+  private final KubernetesClient kubernetesClient;
+  private final List<Consumer<String>> removalListeners = new CopyOnWriteArrayList<>();
+  private SharedIndexInformer<Pod> informer;
+
+  @PostConstruct
+  public void start() {
+    informer = kubernetesClient.pods()
+        .inNamespace(namespace)
+        .withLabel(LabelKey.DEPLOYMENT_NAME.getKey())
+        .runnableInformer(0);
+    // 인덱스는 start 전에 등록해야 초기 LIST부터 색인된다
+    informer.addIndexers(Map.of(DEPLOYMENT_INDEX, pod -> List.of(
+        pod.getMetadata().getLabels().get(LabelKey.DEPLOYMENT_NAME.getKey()))));
+    informer.addEventHandler(new ResourceEventHandler<>() {
+      @Override
+      public void onAdd(Pod pod) {
+      }
+
+      @Override
+      public void onUpdate(Pod oldPod, Pod newPod) {
+      }
+
+      @Override
+      public void onDelete(Pod pod, boolean deletedFinalStateUnknown) {
+        String deploymentName =
+            pod.getMetadata().getLabels().get(LabelKey.DEPLOYMENT_NAME.getKey());
+        if (informer.getIndexer().byIndex(DEPLOYMENT_INDEX, deploymentName).isEmpty()) {
+          removalListeners.forEach(listener -> listener.accept(deploymentName));
+        }
+      }
+    });
+
+    // 기동을 막지 않도록 비동기로 시작
+    informer.start().whenComplete((ignored, e) -> {
+      if (e != null) {
+        log.error("Pod informer failed to start", e);
+      } else {
+        log.info("Pod informer synced: pods={}", informer.getStore().list().size());
+      }
+    });
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (informer != null) {
+      informer.stop();
+    }
+  }
+
+  /**
+   * Deployment의 마지막 pod가 삭제되면 Deployment 이름으로 호출될 리스너를 등록한다. informer 스레드에서 호출된다.
+   */
+  public void addRemovalListener(Consumer<String> listener) {
+    removalListeners.add(listener);
+  }
+
+  /**
+   * Deployment의 Ready 상태 pod 이름을 반환한다.
+   *
+   * @param deploymentName Deployment 이름 (프로젝트 containerId)
+   * @return pod 이름
+   * @throws RuntimeException Ready 상태인 pod가 없는 경우 (replica 0 포함)
+   */
+  public String getReadyPodName(String deploymentName) {
+    return findReadyPodName(deploymentName)
+        .orElseThrow(() -> new RuntimeException("해당 Deployment에서 실행 중인 Pod가 없습니다."));
+  }
+
+  public boolean isReady(String deploymentName) {
+    return findReadyPodName(deploymentName).isPresent();
+  }
+
+  public Optional<String> findReadyPodName(String deploymentName) {
+    return getPods(deploymentName).stream()
+        .filter(PodRegistry::isReady)
+        .map(pod -> pod.getMetadata().getName())
+        .findFirst();
+  }
+
+  private List<Pod> getPods(String deploymentName) {
+    if (informer != null && informer.hasSynced()) {
+      return informer.getIndexer().byIndex(DEPLOYMENT_INDEX, deploymentName);
+    }
+
+    // Deployment에서 Pod 목록 가져오기
+    return kubernetesClient.pods()
+        .inNamespace(namespace)
+        .withLabel(LabelKey.DEPLOYMENT_NAME.getKey(), deploymentName)
+        .list()
+        .getItems();
+  }
+
+  private static boolean isReady(Pod pod) {
+    if (pod.getMetadata().getDeletionTimestamp() != null || pod.getStatus() == null
+        || pod.getStatus().getConditions() == null) {
+      return false;
+    }
+    return pod.getStatus().getConditions().stream()
+        .anyMatch(condition -> "Ready".equals(condition.getType())
+            && "True".equals(condition.getStatus()));
+  }
+}
@@ -0,0 +1,317 @@
+package site.paircoding.paircoding.util;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.ExecListener;
+import io.fabric8.kubernetes.client.dsl.ExecWatch;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deployment별로 상주 셸(exec 스트림 하나)을 열어두고 명령을 전달하는 풀.
+ * <p>
+ * 명령마다 pod 조회와 exec 웹소켓 생성을 반복하지 않고, 열린 셸의 stdin으로 명령을 보내 stdout/stderr에 찍히는 종료 마커로 결과를
+ * 구분한다. 응답은 보낸 순서대로 오므로 여러 명령을 기다리지 않고 연달아 보낼 수 있다. 일정 시간 사용하지 않은 셸은 닫는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PodShellPool {
+
+  private static final String MARKER_FORMAT = "__PADING_END_%s__";
+
+  @Value("${kubernetes.namespace}")
+  private String namespace;
+
+  @Value("${kubernetes.exec-pool.idle-timeout-seconds:300}")
+  private long idleTimeoutSeconds;
+
+  private final KubernetesClient kubernetesClient;
+  private final PodRegistry podRegistry;
+  private final Map<String, PodShell> shells = new ConcurrentHashMap<>();
+
+  /**
+   * Deployment의 상주 셸에서 명령을 실행한다. 셸이 없으면 새로 연다.
+   *
+   * @param deploymentName Deployment 이름 (프로젝트 containerId)
+   * @param command        sh -c 로 실행할 명령
+   * @return 명령의 stdout/stderr
+   */
+  public CompletableFuture<CommandResult> execute(String deploymentName, String command) {
+    CompletableFuture<CommandResult> result =
+        shells.computeIfAbsent(deploymentName, PodShell::new).execute(command);
+    if (result == null) {
+      // 꺼낸 셸이 명령을 보내기 전에 닫혔으면(유휴 정리 등) 새 셸에서 한 번 더 시도한다
+      result = shells.computeIfAbsent(deploymentName, PodShell::new).execute(command);
+    }
+    return result != null ? result : CompletableFuture.failedFuture(
+        new KubernetesClientException("Exec channel closed: " + deploymentName));
+  }
+
+  /**
+   * Deployment의 상주 셸을 닫는다. 대기 중인 명령은 모두 실패하고, 다음 명령은 새 셸에서 실행된다.
+   */
+  public void close(String deploymentName) {
+    PodShell shell = shells.get(deploymentName);
+    if (shell != null) {
+      shell.close();
+    }
+  }
+
+  /**
+   * 사용하지 않은 지 idle-timeout이 지난 셸을 닫는다.
+   */
+  @Scheduled(fixedDelayString = "${kubernetes.exec-pool.evict-interval-millis:60000}")
+  public void evictIdle() {
+    long threshold = System.currentTimeMillis() - idleTimeoutSeconds * 1000;
+    shells.values().stream()
+        .filter(shell -> shell.isIdleSince(threshold))
+        .forEach(PodShell::close);
+  }
+
+  @PreDestroy
+  public void closeAll() {
+    shells.values().forEach(PodShell::close);
+  }
+
+  private ExecWatch open(PodShell shell) {
+    String deploymentName = shell.deploymentName;
+
+    String podName = podRegistry.getReadyPodName(deploymentName);
+
+    ExecWatch execWatch = kubernetesClient.pods()
+        .inNamespace(namespace)
+        .withName(podName)
+        .redirectingInput()
+        .writingOutput(shell.stdout)
+        .writingError(shell.stderr)
+        .usingListener(new ExecListener() {
+          @Override
+          public void onFailure(Throwable t, Response failureResponse) {
+            shell.fail(new KubernetesClientException("Exec channel failed: " + t.getMessage(), t));
+          }
+
+          @Override
+          public void onClose(int code, String reason) {
+            shell.fail(new KubernetesClientException("Exec channel closed: " + reason));
+          }
+        })
+        .exec("sh");
+    log.info("Exec channel opened: deploymentName={}, pod={}", deploymentName, podName);
+    return execWatch;
+  }
+
+  @Getter
+  public static class CommandResult {
+
+    private final String output;
+    private final String error;
+
+    public CommandResult(String output, String error) {
+      this.output = output;
+      this.error = error;
+    }
+  }
+
+  private class PodShell {
+
+    private final String deploymentName;
+    private final MarkerStream stdout = new MarkerStream(false);
+    private final MarkerStream stderr = new MarkerStream(true);
+    private final Object writeLock = new Object();
+    private ExecWatch execWatch;
+    private boolean closed;
+    private volatile long lastUsed = System.currentTimeMillis();
+
+    private PodShell(String deploymentName) {
+      this.deploymentName = deploymentName;
+    }
+
+    /**
+     * @return 결과 future, 명령을 보내기 전에 셸이 이미 닫혀 있었으면 null
+     */
+    private CompletableFuture<CommandResult> execute(String command) {
+      lastUsed = System.currentTimeMillis();
+      Pending pending;
+      synchronized (writeLock) {
+        if (closed) {
+          return null;
+        }
+        if (execWatch == null) {
+          try {
+            execWatch = open(this);
+          } catch (RuntimeException e) {
+            fail(e);
+            return CompletableFuture.failedFuture(e);
+          }
+        }
+        // 출력이 마커를 흉내 내지 못하도록 명령마다 임의의 값으로 마커를 만든다
+        pending = new Pending(MARKER_FORMAT.formatted(
+            UUID.randomUUID().toString().replace("-", "")));
+        stdout.enqueue(pending);
+        stderr.enqueue(pending);
+
+        // 명령은 자식 sh에서 실행 - 문법 오류나 exit가 상주 셸을 종료시키지 않도록 한다
+        String script = "sh -c '" + command.replace("'", "'\\''") + "' </dev/null; "
+            + "printf '\\n%s\\n' " + pending.marker + "; "
+            + "printf '\\n%s\\n' " + pending.marker + " >&2\n";
+        try {
+          OutputStream input = execWatch.getInput();
+          input.write(script.getBytes(StandardCharsets.UTF_8));
+          input.flush();
+        } catch (IOException e) {
+          close();
+          return CompletableFuture.failedFuture(
+              new KubernetesClientException("Exec channel write failed: " + deploymentName, e));
+        }
+      }
+      return pending.future;
+    }
+
+    private boolean isIdleSince(long threshold) {
+      return lastUsed < threshold && stdout.isEmpty();
+    }
+
+    private void close() {
+      fail(new KubernetesClientException("Exec channel closed: " + deploymentName));
+      ExecWatch watch;
+      synchronized (writeLock) {
+        watch = execWatch;
+      }
+      if (watch != null) {
+        watch.close();
+      }
+    }
+
+    private void fail(Throwable cause) {
+      synchronized (writeLock) {
+        if (closed) {
+          return;
+        }
+        closed = true;
+        // 닫힌 셸을 잠금 안에서 빼서, 이후 꺼내는 쪽은 새 셸을 받는다
+        shells.remove(deploymentName, this);
+      }
+      stdout.failAll(cause);
+      stderr.failAll(cause);
+      log.info("Exec channel released: deploymentName={}", deploymentName);
+    }
+  }
+
+  static class Pending {
+
+    private final String marker;
+    private final byte[] markerLine;
+    final CompletableFuture<CommandResult> future = new CompletableFuture<>();
+    private String output;
+    private String error;
+
+    Pending(String marker) {
+      this.marker = marker;
+      this.markerLine = ("\n" + marker + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private synchronized void complete(boolean isError, String value) {
+      if (isError) {
+        error = value;
+      } else {
+        output = value;
+      }
+      if (output != null && error != null) {
+        future.complete(new CommandResult(output, error));
+      }
+    }
+  }
+
+  /**
+   * 셸 출력에서 현재 대기 중인 명령의 종료 마커를 찾아 결과를 잘라내는 스트림.
+   */
+  static class MarkerStream extends OutputStream {
+
+    private final boolean error;
+    private final Deque<Pending> queue = new ArrayDeque<>();
+    private byte[] buffer = new byte[4096];
+    private int count;
+    private int searchFrom;
+
+    MarkerStream(boolean error) {
+      this.error = error;
+    }
+
+    synchronized void enqueue(Pending pending) {
+      queue.addLast(pending);
+    }
+
+    private synchronized boolean isEmpty() {
+      return queue.isEmpty();
+    }
+
+    @Override
+    public void write(int b) {
+      write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+      if (count + len > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, count + len));
+      }
+      System.arraycopy(b, off, buffer, count, len);
+      count += len;
+
+      while (!queue.isEmpty()) {
+        byte[] marker = queue.peekFirst().markerLine;
+        int index = indexOf(marker, searchFrom);
+        if (index < 0) {
+          // 마커가 청크 경계에 걸칠 수 있으므로 마커 길이만큼 겹쳐서 다시 찾는다
+          searchFrom = Math.max(0, count - marker.length + 1);
+          return;
+        }
+        Pending pending = queue.pollFirst();
+        pending.complete(error, new String(buffer, 0, index, StandardCharsets.UTF_8));
+        int consumed = index + marker.length;
+        count -= consumed;
+        System.arraycopy(buffer, consumed, buffer, 0, count);
+        searchFrom = 0;
+      }
+      // 대기 중인 명령이 없을 때의 출력은 버린다
+      count = 0;
+      searchFrom = 0;
+    }
+
+    synchronized void failAll(Throwable cause) {
+      queue.forEach(pending -> pending.future.completeExceptionally(cause));
+      queue.clear();
+      count = 0;
+      searchFrom = 0;
+    }
+
+    private int indexOf(byte[] target, int from) {
+      outer:
+      for (int i = from; i <= count - target.length; i++) {
+        for (int j = 0; j < target.length; j++) {
+          if (buffer[i + j] != target[j]) {
+            continue outer;
+          }
+        }
+        return i;
+      }
+      return -1;
+    }
+  }
+}
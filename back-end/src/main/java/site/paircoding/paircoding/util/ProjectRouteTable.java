@@ -0,0 +1,106 @@
+package site.paircoding.paircoding.util;
+
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 내장 리버스 프록시가 사용하는 서브도메인 -> NodePort 라우팅 테이블.
+ * <p>
+ * 여러 백엔드 인스턴스가 같은 라우팅을 보도록 Redis 해시를 기준으로 삼는다. 변경한 인스턴스는 해시를 고친 뒤 채널로 서브도메인을 알리고, 알림을
+ * 받은 인스턴스는 해시에서 그 항목을 다시 읽어 메모리 테이블에 반영한다. 놓친 알림에 대비해 주기적으로 해시 전체를 다시 읽는다. 조회는 메모리에서만
+ * 한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProjectRouteTable {
+
+  private static final String ROUTES_KEY = "proxyRoutes"; // 서브도메인 -> NodePort 해시
+  private static final String ROUTES_CHANNEL = "proxyRoutes"; // 변경된 서브도메인 알림
+
+  @Getter
+  @Value("${proxy.enabled:false}")
+  private boolean enabled;
+
+  private final RedisUtil redisUtil;
+  private final RedisMessageListenerContainer listenerContainer;
+  private final Map<String, Integer> routes = new ConcurrentHashMap<>();
+
+  @PostConstruct
+  public void subscribe() {
+    if (enabled) {
+      listenerContainer.addMessageListener(
+          (message, pattern) -> refresh(new String(message.getBody(), StandardCharsets.UTF_8)),
+          new ChannelTopic(ROUTES_CHANNEL));
+    }
+  }
+
+  public void put(String subdomain, int nodePort) {
+    redisUtil.hset(ROUTES_KEY, subdomain, String.valueOf(nodePort));
+    routes.put(subdomain, nodePort);
+    redisUtil.publish(ROUTES_CHANNEL, subdomain);
+  }
+
+  public void remove(String subdomain) {
+    redisUtil.hdel(ROUTES_KEY, subdomain);
+    routes.remove(subdomain);
+    redisUtil.publish(ROUTES_CHANNEL, subdomain);
+  }
+
+  /**
+   * 기동 시 프로젝트 테이블의 라우팅을 공유 해시에 채우고, 해시 전체를 메모리 테이블로 읽는다.
+   *
+   * @param projectRoutes 서브도메인 -> NodePort
+   */
+  public void load(Map<String, Integer> projectRoutes) {
+    Map<String, String> values = new HashMap<>();
+    projectRoutes.forEach((subdomain, nodePort) -> values.put(subdomain, String.valueOf(nodePort)));
+    redisUtil.hsetAll(ROUTES_KEY, values);
+    sync();
+  }
+
+  /**
+   * 공유 해시 전체를 다시 읽어 메모리 테이블을 맞춘다.
+   */
+  @Scheduled(fixedDelayString = "${proxy.route-sync-interval-millis:30000}")
+  public void sync() {
+    if (!enabled) {
+      return;
+    }
+    Map<String, Integer> shared = new HashMap<>();
+    redisUtil.hgetAll(ROUTES_KEY).forEach((subdomain, nodePort) ->
+        shared.put((String) subdomain, Integer.valueOf((String) nodePort)));
+    routes.keySet().retainAll(shared.keySet());
+    routes.putAll(shared);
+  }
+
+  /**
+   * @param subdomain 호스트의 첫 번째 라벨
+   * @return NodePort, 등록되지 않은 서브도메인이면 null
+   */
+  public Integer find(String subdomain) {
+    return routes.get(subdomain);
+  }
+
+  public int size() {
+    return routes.size();
+  }
+
+  private void refresh(String subdomain) {
+    Object nodePort = redisUtil.hget(ROUTES_KEY, subdomain);
+    if (nodePort == null) {
+      routes.remove(subdomain);
+    } else {
+      routes.put(subdomain, Integer.valueOf((String) nodePort));
+    }
+  }
+}
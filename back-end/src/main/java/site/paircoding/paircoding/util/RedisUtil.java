@@ -1,9 +1,15 @@
 package site.paircoding.paircoding.util;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -52,10 +58,93 @@ public class RedisUtil {
     redisTemplate.opsForValue().set(key, value, timeout, TimeUnit.SECONDS);
   }
 
+  /**
+   * 키가 없을 때만 만료 시간과 함께 저장합니다.
+   *
+   * @param key     값이 저장될 키
+   * @param value   저장할 값
+   * @param timeout 만료 시간(초 단위)
+   * @return 저장했으면 true, 이미 키가 있으면 false
+   */
+  public boolean setIfAbsent(String key, Object value, long timeout) {
+    return Boolean.TRUE.equals(
+        redisTemplate.opsForValue().setIfAbsent(key, value, timeout, TimeUnit.SECONDS));
+  }
+
   public long getExpire(String key) {
     return redisTemplate.getExpire(key, TimeUnit.SECONDS);
   }
 
+  /**
+   * 여러 키의 값을 한 번의 MGET으로 가져옵니다.
+   *
+   * @param keys 값을 가져올 키 목록
+   * @return 키 순서대로의 값, 없는 키는 null
+   */
+  public List<Object> mget(List<String> keys) {
+    if (keys.isEmpty()) {
+      return List.of();
+    }
+    List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+    return values == null ? Collections.nCopies(keys.size(), null) : values;
+  }
+
+  /**
+   * 점수가 min 이상 max 이하인 멤버를 가져옵니다.
+   */
+  public Set<Object> zrangeByScore(String key, double min, double max) {
+    Set<Object> members = redisTemplate.opsForZSet().rangeByScore(key, min, max);
+    return members == null ? Set.of() : members;
+  }
+
+  public void hset(String key, String field, String value) {
+    redisTemplate.opsForHash().put(key, field, value);
+  }
+
+  /**
+   * 해시에 여러 필드를 한 번의 HSET으로 저장합니다.
+   */
+  public void hsetAll(String key, Map<String, String> values) {
+    if (!values.isEmpty()) {
+      redisTemplate.opsForHash().putAll(key, values);
+    }
+  }
+
+  public Object hget(String key, String field) {
+    return redisTemplate.opsForHash().get(key, field);
+  }
+
+  public Map<Object, Object> hgetAll(String key) {
+    return redisTemplate.opsForHash().entries(key);
+  }
+
+  public void hdel(String key, String field) {
+    redisTemplate.opsForHash().delete(key, field);
+  }
+
+  /**
+   * 채널을 구독 중인 모든 인스턴스에 메시지를 보냅니다.
+   */
+  public void publish(String channel, String message) {
+    redisTemplate.convertAndSend(channel, message);
+  }
+
+  /**
+   * 여러 명령을 파이프라인으로 한 번에 보냅니다. 콜백 안의 명령 결과는 사용할 수 없습니다.
+   *
+   * @param commands RedisOperations로 실행할 명령들
+   */
+  public void pipelined(Consumer<RedisOperations<String, Object>> commands) {
+    redisTemplate.executePipelined(new SessionCallback<Object>() {
+      @Override
+      @SuppressWarnings("unchecked")
+      public <K, V> Object execute(RedisOperations<K, V> operations) {
+        commands.accept((RedisOperations<String, Object>) operations);
+        return null;
+      }
+    });
+  }
+
   public boolean hasKey(String key) {
     return Boolean.TRUE.equals(redisTemplate.hasKey(key));
   }
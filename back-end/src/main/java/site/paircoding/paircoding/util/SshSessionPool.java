@@ -0,0 +1,232 @@
+package site.paircoding.paircoding.util;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * nginx 서버에 대한 SSH 세션 풀.
+ * <p>
+ * 명령마다 세션을 새로 열어 키 교환을 반복하지 않도록 연결된 세션을 재사용한다. 쉬고 있는 세션에는 주기적으로 keepalive를 보내고, 응답이
+ * 없거나 끊어진 세션은 버린다. 명령 완료는 출력 스트림의 EOF와 종료 코드로 판단하고, command-timeout 안에 끝나지 않은 명령은 채널을
+ * 끊는다.
+ */
+@Slf4j
+@Component
+public class SshSessionPool {
+
+  @Value("${ssh.nginx-server.host}")
+  private String SSH_HOST;
+
+  @Value("${ssh.nginx-server.port}")
+  private int SSH_PORT;
+
+  @Value("${ssh.nginx-server.user}")
+  private String SSH_USER;
+
+  @Value("${ssh.nginx-server.password}")
+  private String SSH_PASSWORD;
+
+  @Value("${ssh.nginx-server.pool-size:2}")
+  private int poolSize;
+
+  @Value("${ssh.nginx-server.keepalive-interval-millis:30000}")
+  private int keepaliveIntervalMillis;
+
+  @Value("${ssh.nginx-server.command-timeout-millis:30000}")
+  private long commandTimeoutMillis;
+
+  private final JSch jsch = new JSch();
+  private BlockingQueue<Session> idle;
+  private ScheduledThreadPoolExecutor timer;
+
+  @PostConstruct
+  public void init() {
+    idle = new ArrayBlockingQueue<>(poolSize);
+    timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread thread = new Thread(runnable, "ssh-command-timeout");
+      thread.setDaemon(true);
+      return thread;
+    });
+    timer.setRemoveOnCancelPolicy(true);
+  }
+
+  @PreDestroy
+  public void closeAll() {
+    timer.shutdownNow();
+    List<Session> sessions = new ArrayList<>();
+    idle.drainTo(sessions);
+    sessions.forEach(Session::disconnect);
+  }
+
+  /**
+   * 원격 명령을 실행하고 종료될 때까지 기다린다. 끊어진 세션을 빌린 경우 새 세션으로 한 번 다시 시도한다.
+   *
+   * @param command 실행할 명령
+   * @param input   명령의 stdin으로 보낼 내용, 없으면 null
+   * @return 종료 코드와 출력
+   * @throws IOException command-timeout 안에 명령이 끝나지 않은 경우 포함
+   */
+  public ExecResult execute(String command, byte[] input) throws JSchException, IOException {
+    try {
+      return execute(borrow(), command, input);
+    } catch (JSchException e) {
+      // 서버가 유휴 연결을 끊은 경우 - 채널이 열리지 않았으므로 명령은 실행되지 않았다
+      log.info("SSH session is down, reconnecting: {}", e.getMessage());
+      return execute(connect(), command, input);
+    }
+  }
+
+  private ExecResult execute(Session session, String command, byte[] input)
+      throws JSchException, IOException {
+    ChannelExec channel = null;
+    boolean healthy = false;
+    try {
+      channel = (ChannelExec) session.openChannel("exec");
+      ExecResult result = run(channel, command, input);
+      healthy = true;
+      return result;
+    } finally {
+      if (channel != null) {
+        channel.disconnect();
+      }
+      giveBack(session, healthy);
+    }
+  }
+
+  private ExecResult run(ChannelExec channel, String command, byte[] input)
+      throws JSchException, IOException {
+    ByteArrayOutputStream error = new ByteArrayOutputStream();
+    channel.setCommand(command);
+    // 입력을 다 보내면 JSch가 EOF를 보낸다
+    channel.setInputStream(input == null ? null : new ByteArrayInputStream(input));
+    channel.setErrStream(error, true);
+    InputStream stdout = channel.getInputStream();
+    long deadline = System.currentTimeMillis() + commandTimeoutMillis;
+    channel.connect((int) commandTimeoutMillis);
+
+    // 출력이 끝나지 않으면 채널을 끊어 읽기를 EOF로 끝낸다
+    AtomicBoolean timedOut = new AtomicBoolean();
+    ScheduledFuture<?> timeout = timer.schedule(() -> {
+      timedOut.set(true);
+      channel.disconnect();
+    }, Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+    byte[] output;
+    try {
+      output = stdout.readAllBytes();
+    } catch (IOException e) {
+      if (!timedOut.get()) {
+        throw e;
+      }
+      output = null;
+    } finally {
+      timeout.cancel(false);
+    }
+    if (timedOut.get()) {
+      throw new IOException("SSH command timed out after " + commandTimeoutMillis + "ms");
+    }
+
+    // exit-status는 보통 EOF보다 먼저 도착하지만, 늦는 경우 채널이 닫힐 때까지 잠시 기다린다
+    while (channel.getExitStatus() == -1 && !channel.isClosed()
+        && System.currentTimeMillis() < deadline) {
+      try {
+        Thread.sleep(5);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("SSH command interrupted", e);
+      }
+    }
+
+    return new ExecResult(channel.getExitStatus(),
+        new String(output, StandardCharsets.UTF_8),
+        error.toString(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * 쉬고 있는 세션에 keepalive를 보내고 응답하지 않는 세션을 정리한다.
+   */
+  @Scheduled(fixedDelayString = "${ssh.nginx-server.keepalive-interval-millis:30000}")
+  public void keepalive() {
+    List<Session> sessions = new ArrayList<>();
+    idle.drainTo(sessions);
+    for (Session session : sessions) {
+      boolean healthy = session.isConnected();
+      if (healthy) {
+        try {
+          session.sendKeepAliveMsg();
+        } catch (Exception e) {
+          healthy = false;
+        }
+      }
+      giveBack(session, healthy);
+    }
+  }
+
+  private Session borrow() throws JSchException {
+    Session session;
+    while ((session = idle.poll()) != null) {
+      if (session.isConnected()) {
+        return session;
+      }
+      session.disconnect();
+    }
+    return connect();
+  }
+
+  private void giveBack(Session session, boolean healthy) {
+    if (!healthy || !session.isConnected() || !idle.offer(session)) {
+      session.disconnect();
+    }
+  }
+
+  private Session connect() throws JSchException {
+    Session session = jsch.getSession(SSH_USER, SSH_HOST, SSH_PORT);
+    session.setPassword(SSH_PASSWORD);
+    session.setConfig("StrictHostKeyChecking", "no");
+    // 서버 응답이 없으면 세션을 끊는다
+    session.setServerAliveInterval(keepaliveIntervalMillis);
+    session.setServerAliveCountMax(3);
+    session.connect((int) commandTimeoutMillis);
+    log.info("SSH session opened: host={}", SSH_HOST);
+    return session;
+  }
+
+  @Getter
+  public static class ExecResult {
+
+    private final int exitStatus;
+    private final String output;
+    private final String error;
+
+    public ExecResult(int exitStatus, String output, String error) {
+      this.exitStatus = exitStatus;
+      this.output = output;
+      this.error = error;
+    }
+
+    public boolean isSuccess() {
+      return exitStatus == 0;
+    }
+  }
+}
@@ -0,0 +1,315 @@
+package site.paircoding.paircoding.util;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 모든 터미널의 출력(stdout/stderr)을 고정 크기 스레드 풀 하나로 STOMP에 전달하는 펌프.
+ * <p>
+ * fabric8 exec에 {@link Channel#getOutput()}을 writingOutput으로 넘기면 웹소켓 수신 스레드가 바이트를 밀어 넣고,
+ * 공용 풀이 터미널별 버퍼를 비우며 전송한다. 터미널 수와 무관하게 스레드 수가 일정하다.
+ * <p>
+ * 출력은 바로 보내지 않고 모아서 보낸다. 버퍼가 flush-bytes 이상 차거나, 첫 바이트가 들어온 뒤 flush-delay-millis가 지나면
+ * 그때까지 쌓인 출력을 최대 flush-bytes 크기의 프레임으로 전송한다.
+ * <p>
+ * 전송한 출력의 마지막 scrollback-bytes는 채널에 보관했다가, 같은 터미널로 재접속하면 {@link Channel#replay()}로 다시 보낸다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TerminalOutputPump {
+
+  @Value("${terminal.pump.threads:4}")
+  private int threads;
+
+  @Value("${terminal.pump.max-pending-bytes:262144}")
+  private int maxPendingBytes;
+
+  @Value("${terminal.pump.flush-bytes:32768}")
+  private int flushBytes;
+
+  @Value("${terminal.pump.flush-delay-millis:8}")
+  private long flushDelayMillis;
+
+  @Value("${terminal.scrollback-bytes:65536}")
+  private int scrollbackBytes;
+
+  private final SimpMessagingTemplate messagingTemplate;
+  private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+  private ScheduledThreadPoolExecutor executor;
+
+  @PostConstruct
+  public void init() {
+    AtomicInteger sequence = new AtomicInteger();
+    ThreadFactory threadFactory = runnable -> {
+      Thread thread = new Thread(runnable, "terminal-pump-" + sequence.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+    executor = new ScheduledThreadPoolExecutor(threads, threadFactory);
+    executor.setRemoveOnCancelPolicy(true);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    channels.keySet().forEach(this::close);
+    executor.shutdown();
+  }
+
+  /**
+   * 터미널 출력 채널을 등록한다.
+   *
+   * @param terminalId  터미널 ID
+   * @param destination 출력이 전송될 STOMP 경로
+   * @return exec 출력 스트림으로 사용할 채널
+   */
+  public Channel open(String terminalId, String destination) {
+    Channel channel = new Channel(terminalId, destination);
+    Channel previous = channels.put(terminalId, channel);
+    if (previous != null) {
+      previous.close();
+    }
+    return channel;
+  }
+
+  /**
+   * 터미널 ID로 등록된 채널을 해제한다.
+   *
+   * @param terminalId 터미널 ID
+   */
+  public void close(String terminalId) {
+    Channel channel = channels.get(terminalId);
+    if (channel != null) {
+      channel.close();
+    }
+  }
+
+  public int getOpenChannelCount() {
+    return channels.size();
+  }
+
+  public class Channel {
+
+    private final String terminalId;
+    private final String destination;
+    private final Object lock = new Object();
+    private final Utf8StreamDecoder decoder = new Utf8StreamDecoder();
+    private final TerminalScrollback scrollback = new TerminalScrollback(scrollbackBytes);
+    private final OutputStream output = new SinkStream();
+    private final OutputStream error = new SinkStream();
+
+    private byte[] pending = new byte[4096];
+    private int count;
+    private boolean scheduled;
+    private boolean closed;
+    private boolean replayRequested;
+    private ScheduledFuture<?> delayedFlush;
+
+    // 전송 통계 - 쓰기 횟수 대비 프레임 수로 병합 효과를 확인한다
+    private final AtomicLong writeCount = new AtomicLong();
+    private final AtomicLong frameCount = new AtomicLong();
+    private final AtomicLong byteCount = new AtomicLong();
+
+    private Channel(String terminalId, String destination) {
+      this.terminalId = terminalId;
+      this.destination = destination;
+    }
+
+    public OutputStream getOutput() {
+      return output;
+    }
+
+    public OutputStream getError() {
+      return error;
+    }
+
+    public long getWriteCount() {
+      return writeCount.get();
+    }
+
+    public long getFrameCount() {
+      return frameCount.get();
+    }
+
+    public long getByteCount() {
+      return byteCount.get();
+    }
+
+    public boolean isClosed() {
+      synchronized (lock) {
+        return closed;
+      }
+    }
+
+    /**
+     * 보관 중인 출력을 다시 전송한다. drain 순서 안에서 처리되므로 이후 출력보다 먼저 도착한다.
+     */
+    public void replay() {
+      synchronized (lock) {
+        if (closed) {
+          return;
+        }
+        replayRequested = true;
+        schedule();
+      }
+    }
+
+    /**
+     * 버퍼에 출력을 적재한다. 버퍼가 가득 차면 비워질 때까지 호출 스레드를 대기시켜, fabric8이 다음 웹소켓 프레임을 요청하지 않도록 한다.
+     */
+    private void append(byte[] bytes, int offset, int length) throws IOException {
+      synchronized (lock) {
+        while (!closed && count >= maxPendingBytes) {
+          try {
+            lock.wait();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("terminal output interrupted: " + terminalId);
+          }
+        }
+        if (closed) {
+          return;
+        }
+        if (count + length > pending.length) {
+          pending = Arrays.copyOf(pending, Math.max(pending.length * 2, count + length));
+        }
+        System.arraycopy(bytes, offset, pending, count, length);
+        count += length;
+        writeCount.incrementAndGet();
+        schedule();
+      }
+    }
+
+    // lock을 잡은 상태에서 호출
+    private void schedule() {
+      boolean full = closed || replayRequested || count >= flushBytes;
+      if (!scheduled) {
+        scheduled = true;
+        if (full) {
+          executor.execute(this::drain);
+        } else {
+          delayedFlush = executor.schedule(this::drain, flushDelayMillis, TimeUnit.MILLISECONDS);
+        }
+      } else if (full && delayedFlush != null && delayedFlush.cancel(false)) {
+        // 지연 전송 대기 중에 임계치를 넘으면 바로 전송
+        delayedFlush = null;
+        executor.execute(this::drain);
+      }
+    }
+
+    /**
+     * 쌓인 출력을 flush-bytes 단위 프레임으로 전송한다. scheduled 플래그는 drain이 끝날 때만 해제되므로 한 터미널의 drain은 동시에
+     * 하나만 실행되어 출력 순서가 보장된다. 전송 중 새로 들어온 출력이 임계치에 못 미치면 다음 지연 전송으로 넘긴다.
+     */
+    private void drain() {
+      boolean first = true;
+      while (true) {
+        String frame;
+        int length;
+        byte[] history = null;
+        synchronized (lock) {
+          delayedFlush = null;
+          if (replayRequested) {
+            replayRequested = false;
+            history = scrollback.snapshot();
+          }
+        }
+        if (history != null) {
+          Utf8StreamDecoder replayDecoder = new Utf8StreamDecoder(history.length);
+          frame = replayDecoder.decode(history, 0, history.length) + replayDecoder.flush();
+          if (!frame.isEmpty()) {
+            sendFrame(frame);
+          }
+          continue;
+        }
+        synchronized (lock) {
+          if (replayRequested) {
+            continue;
+          }
+          if (count == 0 || (!first && !closed && count < flushBytes)) {
+            scheduled = false;
+            if (count > 0) {
+              schedule();
+            }
+            return;
+          }
+          // 프레임 경계에서 잘린 멀티바이트 문자는 디코더가 다음 프레임으로 넘긴다
+          length = Math.min(count, flushBytes);
+          scrollback.append(pending, 0, length);
+          frame = decoder.decode(pending, 0, length);
+          count -= length;
+          System.arraycopy(pending, length, pending, 0, count);
+          if (closed && count == 0) {
+            frame += decoder.flush();
+          }
+          lock.notifyAll();
+        }
+        first = false;
+        byteCount.addAndGet(length);
+        if (!frame.isEmpty()) {
+          sendFrame(frame);
+        }
+      }
+    }
+
+    private void sendFrame(String frame) {
+      try {
+        messagingTemplate.convertAndSend(destination, frame);
+        frameCount.incrementAndGet();
+      } catch (Exception e) {
+        log.error("Terminal output send failed: terminalId={}", terminalId, e);
+      }
+    }
+
+    /**
+     * 남은 출력을 전송하고 채널을 해제한다. ExecListener의 onClose/onFailure에서 호출된다.
+     */
+    public void close() {
+      channels.remove(terminalId, this);
+      synchronized (lock) {
+        if (closed) {
+          return;
+        }
+        closed = true;
+        lock.notifyAll();
+        if (count > 0) {
+          schedule();
+        }
+      }
+      log.info("Terminal output closed: terminalId={}, writes={}, frames={}, bytes={}",
+          terminalId, writeCount.get(), frameCount.get(), byteCount.get());
+    }
+
+    private class SinkStream extends OutputStream {
+
+      @Override
+      public void write(int b) throws IOException {
+        append(new byte[]{(byte) b}, 0, 1);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        if (len > 0) {
+          append(b, off, len);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package site.paircoding.paircoding.util;
+
+/**
+ * 터미널 출력의 마지막 capacity 바이트를 보관하는 고정 크기 링 버퍼. 재접속 시 이전 출력을 다시 보내는 데 사용한다.
+ */
+public class TerminalScrollback {
+
+  private final byte[] ring;
+  private int start;
+  private int size;
+
+  public TerminalScrollback(int capacity) {
+    this.ring = new byte[Math.max(capacity, 0)];
+  }
+
+  public synchronized void append(byte[] bytes, int offset, int length) {
+    if (ring.length == 0 || length <= 0) {
+      return;
+    }
+    // 용량보다 긴 입력은 뒷부분만 남는다
+    if (length >= ring.length) {
+      System.arraycopy(bytes, offset + length - ring.length, ring, 0, ring.length);
+      start = 0;
+      size = ring.length;
+      return;
+    }
+
+    int end = (start + size) % ring.length;
+    int first = Math.min(length, ring.length - end);
+    System.arraycopy(bytes, offset, ring, end, first);
+    System.arraycopy(bytes, offset + first, ring, 0, length - first);
+
+    int overflow = size + length - ring.length;
+    if (overflow > 0) {
+      start = (start + overflow) % ring.length;
+      size = ring.length;
+    } else {
+      size += length;
+    }
+  }
+
+  /**
+   * 보관 중인 출력을 오래된 순서로 복사한다. 앞부분이 잘려 시작된 UTF-8 문자의 나머지 바이트는 제외한다.
+   *
+   * @return 보관 중인 출력
+   */
+  public synchronized byte[] snapshot() {
+    int skip = 0;
+    while (skip < size && skip < 3 && (ring[(start + skip) % ring.length] & 0xC0) == 0x80) {
+      skip++;
+    }
+
+    byte[] copy = new byte[size - skip];
+    int from = (start + skip) % Math.max(ring.length, 1);
+    int first = Math.min(copy.length, ring.length - from);
+    System.arraycopy(ring, from, copy, 0, first);
+    System.arraycopy(ring, 0, copy, first, copy.length - first);
+    return copy;
+  }
+}
@@ -0,0 +1,85 @@
+package site.paircoding.paircoding.util;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 청크 단위로 들어오는 바이트를 UTF-8 문자열로 변환하는 디코더.
+ * <p>
+ * 청크 경계에 걸친 멀티바이트 문자(한글 등)는 다음 청크와 합쳐 디코딩하고, 입력/출력 버퍼는 재사용한다. 스레드 안전하지 않으므로 스트림
+ * 하나당 하나씩 사용한다.
+ */
+public class Utf8StreamDecoder {
+
+  private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+  // 쓰기 모드 유지 - 이전 청크에서 남은 불완전한 바이트가 앞쪽에 남아 있다
+  private ByteBuffer in;
+  private CharBuffer out;
+
+  public Utf8StreamDecoder() {
+    this(4096);
+  }
+
+  public Utf8StreamDecoder(int initialCapacity) {
+    this.in = ByteBuffer.allocate(initialCapacity);
+    this.out = CharBuffer.allocate(initialCapacity);
+  }
+
+  /**
+   * 바이트 청크를 디코딩한다. 끝에 잘린 문자는 보관했다가 다음 호출에서 이어 붙인다.
+   *
+   * @param bytes  입력 바이트
+   * @param offset 시작 위치
+   * @param length 길이
+   * @return 완성된 문자까지의 문자열
+   */
+  public String decode(byte[] bytes, int offset, int length) {
+    if (in.remaining() < length) {
+      in = grow(in, in.position() + length);
+    }
+    in.put(bytes, offset, length);
+    in.flip();
+
+    // UTF-8은 바이트 수보다 문자 수가 많을 수 없다
+    if (out.capacity() < in.remaining()) {
+      out = CharBuffer.allocate(Math.max(out.capacity() * 2, in.remaining()));
+    }
+    out.clear();
+    decoder.decode(in, out, false);
+    in.compact();
+    out.flip();
+    return out.toString();
+  }
+
+  /**
+   * 스트림 종료 시 남은 바이트를 디코딩한다. 불완전한 문자는 대체 문자로 바뀐다.
+   *
+   * @return 남아 있던 문자열, 없으면 빈 문자열
+   */
+  public String flush() {
+    in.flip();
+    if (out.capacity() < in.remaining() + 1) {
+      out = CharBuffer.allocate(in.remaining() + 1);
+    }
+    out.clear();
+    decoder.decode(in, out, true);
+    decoder.flush(out);
+    decoder.reset();
+    in.clear();
+    out.flip();
+    return out.toString();
+  }
+
+  private static ByteBuffer grow(ByteBuffer buffer, int minCapacity) {
+    ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, minCapacity));
+    buffer.flip();
+    grown.put(buffer);
+    return grown;
+  }
+}
@@ -0,0 +1,226 @@
+package site.paircoding.paircoding.config.proxy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.catalina.Context;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.descriptor.web.FilterDef;
+import org.apache.tomcat.util.descriptor.web.FilterMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import site.paircoding.paircoding.config.AppConfig;
+import site.paircoding.paircoding.util.ProjectRouteTable;
+
+/**
+ * 요청 스레드가 하나뿐인 내장 톰캣과 로컬 업스트림 사이에서 실제로 요청을 전달해 본다.
+ */
+class ProjectProxyFilterForwardingTest {
+
+  private static final String PROJECT_HOST = "deploy-abc.pair-coding.site";
+  private static final int LARGE_BODY_BYTES = 4 * 1024 * 1024;
+
+  @TempDir
+  Path baseDir;
+
+  private final CountDownLatch slowArrived = new CountDownLatch(3);
+  private final CountDownLatch slowRelease = new CountDownLatch(1);
+  private final ExecutorService clients = Executors.newCachedThreadPool();
+  private final ExecutorService upstreamThreads = Executors.newCachedThreadPool();
+  private HttpServer upstream;
+  private Tomcat tomcat;
+  private int port;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    upstream.setExecutor(upstreamThreads);
+    upstream.createContext("/echo", exchange -> {
+      String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+      respond(exchange, (exchange.getRequestMethod() + " " + body
+          + " host=" + exchange.getRequestHeaders().getFirst("Host")
+          + " forwarded=" + exchange.getRequestHeaders().getFirst("X-Forwarded-Host"))
+          .getBytes(StandardCharsets.UTF_8));
+    });
+    upstream.createContext("/large", exchange -> {
+      byte[] body = new byte[LARGE_BODY_BYTES];
+      Arrays.fill(body, (byte) 'x');
+      respond(exchange, body);
+    });
+    upstream.createContext("/slow", exchange -> {
+      slowArrived.countDown();
+      try {
+        slowRelease.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      respond(exchange, "slow".getBytes(StandardCharsets.UTF_8));
+    });
+    upstream.start();
+
+    ProjectRouteTable routeTable = mock(ProjectRouteTable.class);
+    when(routeTable.isEnabled()).thenReturn(true);
+    when(routeTable.find(anyString())).thenReturn(null);
+    when(routeTable.find("deploy-abc")).thenReturn(upstream.getAddress().getPort());
+    when(routeTable.find("deploy-down")).thenReturn(closedPort());
+    AppConfig appConfig = mock(AppConfig.class);
+    when(appConfig.getDomain()).thenReturn("pair-coding.site");
+    ProjectProxyFilter filter = new ProjectProxyFilter(routeTable, appConfig);
+    ReflectionTestUtils.setField(filter, "upstreamHost", "127.0.0.1");
+    ReflectionTestUtils.setField(filter, "connectTimeoutMillis", 3000L);
+    ReflectionTestUtils.setField(filter, "responseTimeoutSeconds", 10L);
+    filter.init();
+
+    tomcat = new Tomcat();
+    tomcat.setBaseDir(baseDir.toString());
+    tomcat.setPort(0);
+    Connector connector = tomcat.getConnector();
+    connector.setProperty("maxThreads", "1");
+    connector.setProperty("minSpareThreads", "1");
+    Context context = tomcat.addContext("", baseDir.toString());
+    Wrapper wrapper = Tomcat.addServlet(context, "local", new HttpServlet() {
+      @Override
+      protected void doGet(HttpServletRequest request, HttpServletResponse response)
+          throws IOException {
+        response.getWriter().write("local");
+      }
+    });
+    wrapper.setAsyncSupported(true);
+    context.addServletMappingDecoded("/*", "local");
+    FilterDef filterDef = new FilterDef();
+    filterDef.setFilterName("proxy");
+    filterDef.setFilter(filter);
+    filterDef.setAsyncSupported("true");
+    context.addFilterDef(filterDef);
+    FilterMap filterMap = new FilterMap();
+    filterMap.setFilterName("proxy");
+    filterMap.addURLPattern("/*");
+    context.addFilterMap(filterMap);
+    tomcat.start();
+    port = connector.getLocalPort();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    slowRelease.countDown();
+    clients.shutdownNow();
+    tomcat.stop();
+    tomcat.destroy();
+    upstream.stop(0);
+    upstreamThreads.shutdownNow();
+  }
+
+  @Test
+  void forwardsRequestBodyAndReplacesHostWithForwardedHost() throws Exception {
+    String response = text(call(PROJECT_HOST, "POST", "/echo", "hello"));
+
+    assertThat(response).startsWith("HTTP/1.1 200");
+    assertThat(response).endsWith("POST hello host=127.0.0.1:" + upstream.getAddress().getPort()
+        + " forwarded=" + PROJECT_HOST);
+  }
+
+  @Test
+  void streamsLargeResponseBody() throws Exception {
+    byte[] response = call(PROJECT_HOST, "GET", "/large", null);
+
+    assertThat(text(response)).startsWith("HTTP/1.1 200");
+    assertThat(body(response)).hasSize(LARGE_BODY_BYTES);
+  }
+
+  @Test
+  void returnsBadGatewayWhenUpstreamIsDown() throws Exception {
+    String response = text(call("deploy-down.pair-coding.site", "GET", "/", null));
+
+    assertThat(response).startsWith("HTTP/1.1 502");
+  }
+
+  @Test
+  void servesOtherRequestsWhileWaitingForUpstream() throws Exception {
+    List<CompletableFuture<byte[]>> pending = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      pending.add(CompletableFuture.supplyAsync(() -> {
+        try {
+          return call(PROJECT_HOST, "GET", "/slow", null);
+        } catch (IOException e) {
+          throw new IllegalStateException(e);
+        }
+      }, clients));
+    }
+
+    assertThat(slowArrived.await(10, TimeUnit.SECONDS)).isTrue();
+
+    // 요청 스레드는 하나뿐이지만 업스트림을 기다리는 요청이 붙잡고 있지 않다
+    assertThat(text(call("localhost", "GET", "/", null))).endsWith("local");
+    assertThat(pending).noneMatch(CompletableFuture::isDone);
+
+    slowRelease.countDown();
+    for (CompletableFuture<byte[]> response : pending) {
+      assertThat(text(response.get(10, TimeUnit.SECONDS))).startsWith("HTTP/1.1 200")
+          .endsWith("slow");
+    }
+  }
+
+  private byte[] call(String host, String method, String path, String body) throws IOException {
+    try (Socket socket = new Socket("127.0.0.1", port)) {
+      socket.setSoTimeout(10_000);
+      byte[] content = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+      String head = method + " " + path + " HTTP/1.1\r\nHost: " + host + "\r\n"
+          + (body == null ? "" : "Content-Length: " + content.length + "\r\n")
+          + "Connection: close\r\n\r\n";
+      OutputStream output = socket.getOutputStream();
+      output.write(head.getBytes(StandardCharsets.US_ASCII));
+      output.write(content);
+      output.flush();
+      return socket.getInputStream().readAllBytes();
+    }
+  }
+
+  private static byte[] body(byte[] response) {
+    int start = text(response).indexOf("\r\n\r\n") + 4;
+    return Arrays.copyOfRange(response, start, response.length);
+  }
+
+  private static String text(byte[] response) {
+    return new String(response, StandardCharsets.ISO_8859_1);
+  }
+
+  private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream output = exchange.getResponseBody()) {
+      output.write(body);
+    }
+  }
+
+  private static int closedPort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package site.paircoding.paircoding.config.proxy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import site.paircoding.paircoding.config.AppConfig;
+import site.paircoding.paircoding.util.ProjectRouteTable;
+
+class ProjectProxyFilterTest {
+
+  private ProjectProxyFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    ProjectRouteTable routeTable = mock(ProjectRouteTable.class);
+    when(routeTable.isEnabled()).thenReturn(true);
+    when(routeTable.find(anyString())).thenReturn(null);
+    when(routeTable.find("deploy-abc")).thenReturn(30001);
+    AppConfig appConfig = mock(AppConfig.class);
+    when(appConfig.getDomain()).thenReturn("pair-coding.site");
+    filter = new ProjectProxyFilter(routeTable, appConfig);
+  }
+
+  @Test
+  void proxiesProjectSubdomain() {
+    assertThat(filter.shouldNotFilter(request("deploy-abc.pair-coding.site"))).isFalse();
+    assertThat(filter.shouldNotFilter(request("Deploy-ABC.Pair-Coding.Site"))).isFalse();
+  }
+
+  @Test
+  void ignoresHostOutsideProjectDomain() {
+    assertThat(filter.shouldNotFilter(request("deploy-abc.evil.example"))).isTrue();
+    assertThat(filter.shouldNotFilter(request("deploy-abc.pair-coding.site.evil.example")))
+        .isTrue();
+    assertThat(filter.shouldNotFilter(request("deploy-abcpair-coding.site"))).isTrue();
+  }
+
+  @Test
+  void ignoresNestedOrUnknownSubdomain() {
+    assertThat(filter.shouldNotFilter(request("x.deploy-abc.pair-coding.site"))).isTrue();
+    assertThat(filter.shouldNotFilter(request("deploy-unknown.pair-coding.site"))).isTrue();
+    assertThat(filter.shouldNotFilter(request("pair-coding.site"))).isTrue();
+  }
+
+  private static MockHttpServletRequest request(String host) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.setServerName(host);
+    return request;
+  }
+}
@@ -0,0 +1,125 @@
+package site.paircoding.paircoding.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import site.paircoding.paircoding.entity.Project;
+import site.paircoding.paircoding.entity.dto.DirectoryContentDto;
+import site.paircoding.paircoding.util.DirectoryTreeCache;
+import site.paircoding.paircoding.util.FileSearchIndex;
+import site.paircoding.paircoding.util.FileVersionStore;
+import site.paircoding.paircoding.util.IgnoredDirectories;
+import site.paircoding.paircoding.util.FileVersionStore.FileVersion;
+import site.paircoding.paircoding.util.KubernetesUtil;
+import site.paircoding.paircoding.util.PodCommandExecutor;
+import site.paircoding.paircoding.util.PodCommandExecutor.StreamResult;
+
+class DirectoryServiceContentTest {
+
+  private static final String DESTINATION = "/sub/groups/1/projects/2/users/3/directory";
+
+  private KubernetesUtil kubernetesUtil;
+  private PodCommandExecutor podCommandExecutor;
+  private SimpMessagingTemplate messagingTemplate;
+  private FileVersionStore fileVersionStore;
+  private DirectoryService directoryService;
+
+  @BeforeEach
+  void setUp() {
+    kubernetesUtil = mock(KubernetesUtil.class);
+    podCommandExecutor = mock(PodCommandExecutor.class);
+    messagingTemplate = mock(SimpMessagingTemplate.class);
+    ProjectService projectService = mock(ProjectService.class);
+    Project project = mock(Project.class);
+    when(project.getContainerId()).thenReturn("project-a");
+    when(projectService.getProject(1, 2)).thenReturn(project);
+
+    fileVersionStore = new FileVersionStore();
+    ReflectionTestUtils.setField(fileVersionStore, "cacheBytes", 1024L);
+    directoryService = new DirectoryService(kubernetesUtil, mock(DirectoryTreeCache.class),
+        fileVersionStore, mock(FileSearchIndex.class), podCommandExecutor,
+        messagingTemplate, projectService, mock(IgnoredDirectories.class));
+    ReflectionTestUtils.setField(directoryService, "contentChunkBytes", 65536);
+    ReflectionTestUtils.setField(directoryService, "contentTimeoutSeconds", 60L);
+  }
+
+  @Test
+  void smallFileKeepsLeadingAndTrailingWhitespace() throws Exception {
+    givenFile("\n  indented\n\n\n");
+
+    DirectoryContentDto sent = read();
+
+    assertThat(sent.getContent()).isEqualTo("\n  indented\n\n\n");
+    verify(kubernetesUtil, never()).executeCommand(anyString(), startsWith("cat "));
+  }
+
+  @Test
+  void smallFileSeedsVersionStoreAndReturnsHash() throws Exception {
+    givenFile("hello\n");
+
+    DirectoryContentDto sent = read();
+
+    FileVersion stored = fileVersionStore.get(2, "/app/src/a.txt");
+    assertThat(stored.getContent()).isEqualTo("hello\n");
+    assertThat(sent.getHash()).isEqualTo(stored.getHash())
+        .isEqualTo("5891b5b522d5df086d0ff0b110fbd9d21bb4fc7163af34d08286a2e846f6be03");
+    assertThat(sent.getVersion()).isEqualTo(1L);
+  }
+
+  @Test
+  void rereadKeepsVersionUntilContentChanges() throws Exception {
+    givenFile("hello\n");
+    read();
+    assertThat(read().getVersion()).isEqualTo(1L);
+
+    givenFile("changed in terminal\n");
+    DirectoryContentDto sent = read();
+
+    assertThat(sent.getVersion()).isEqualTo(2L);
+    assertThat(fileVersionStore.get(2, "/app/src/a.txt").getContent())
+        .isEqualTo("changed in terminal\n");
+  }
+
+  private void givenFile(String content) {
+    byte[] file = content.getBytes(StandardCharsets.UTF_8);
+    when(kubernetesUtil.executeCommand(eq("project-a"), startsWith("stat -c %s")))
+        .thenReturn(file.length + "\n0");
+    when(podCommandExecutor.stream(eq("project-a"), eq("cat '/app/src/a.txt'"), any(),
+        any(), any())).thenAnswer(invocation -> {
+          invocation.getArgument(3, OutputStream.class).write(file);
+          return CompletableFuture.completedFuture(new StreamResult(0, ""));
+        });
+  }
+
+  private DirectoryContentDto read() throws Exception {
+    DirectoryContentDto request = request();
+    directoryService.content(1, 2, 3, request);
+    ArgumentCaptor<DirectoryContentDto> sent = ArgumentCaptor.forClass(DirectoryContentDto.class);
+    verify(messagingTemplate, atLeastOnce()).convertAndSend(eq(DESTINATION), sent.capture());
+    assertThat(sent.getValue()).isSameAs(request);
+    return request;
+  }
+
+  private static DirectoryContentDto request() throws Exception {
+    return new ObjectMapper().readValue(
+        "{\"action\":\"CONTENT\",\"type\":\"FILE\",\"path\":\"/src\",\"name\":\"a.txt\"}",
+        DirectoryContentDto.class);
+  }
+}
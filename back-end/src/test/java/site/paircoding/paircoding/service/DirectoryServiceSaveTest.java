@@ -0,0 +1,183 @@
+package site.paircoding.paircoding.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import site.paircoding.paircoding.entity.Project;
+import site.paircoding.paircoding.entity.dto.DirectoryPatchDto;
+import site.paircoding.paircoding.entity.dto.DirectorySaveDto;
+import site.paircoding.paircoding.global.exception.WebsocketException;
+import site.paircoding.paircoding.util.DirectoryTreeCache;
+import site.paircoding.paircoding.util.FileSearchIndex;
+import site.paircoding.paircoding.util.FileVersionStore;
+import site.paircoding.paircoding.util.IgnoredDirectories;
+import site.paircoding.paircoding.util.KubernetesUtil;
+import site.paircoding.paircoding.util.PodCommandExecutor;
+import site.paircoding.paircoding.util.PodCommandExecutor.StreamResult;
+
+/**
+ * 저장/패치 명령을 pod 대신 로컬 sh로 실행해 임시 디렉토리의 파일에 적용한다. /app은 임시 디렉토리로 바꿔 실행한다.
+ */
+class DirectoryServiceSaveTest {
+
+  @TempDir
+  Path root;
+
+  private DirectoryService directoryService;
+
+  @BeforeEach
+  void setUp() {
+    PodCommandExecutor podCommandExecutor = mock(PodCommandExecutor.class);
+    when(podCommandExecutor.stream(eq("project-a"), anyString(), any(), any(), any()))
+        .thenAnswer(invocation -> CompletableFuture.completedFuture(runLocally(
+            invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3))));
+    ProjectService projectService = mock(ProjectService.class);
+    Project project = mock(Project.class);
+    when(project.getContainerId()).thenReturn("project-a");
+    when(projectService.getProject(1, 2)).thenReturn(project);
+
+    FileVersionStore fileVersionStore = new FileVersionStore();
+    ReflectionTestUtils.setField(fileVersionStore, "cacheBytes", 1024L);
+    directoryService = new DirectoryService(mock(KubernetesUtil.class),
+        mock(DirectoryTreeCache.class), fileVersionStore, mock(FileSearchIndex.class),
+        podCommandExecutor, mock(SimpMessagingTemplate.class), projectService,
+        mock(IgnoredDirectories.class));
+    ReflectionTestUtils.setField(directoryService, "contentTimeoutSeconds", 10L);
+  }
+
+  @Test
+  void saveWritesExactBytesAndKeepsPermissions() throws Exception {
+    Path file = Files.writeString(root.resolve("run.sh"), "old");
+    Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rwxr-x---"));
+
+    DirectorySaveDto saved = directoryService.save(1, 2, save("run.sh", "#!/bin/sh\n\n"));
+
+    assertThat(Files.readString(file)).isEqualTo("#!/bin/sh\n\n");
+    assertThat(saved.getBytesWritten()).isEqualTo(11);
+    assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(file)))
+        .isEqualTo("rwxr-x---");
+    assertThat(root.resolve("run.sh.pading-save")).doesNotExist();
+  }
+
+  @Test
+  void saveKeepsOwner() throws Exception {
+    assumeThat(exec("id -u").trim()).isEqualTo("0");
+    Path file = Files.writeString(root.resolve("a.txt"), "old");
+    exec("chown 1234:2345 '" + file + "'");
+
+    directoryService.save(1, 2, save("a.txt", "new"));
+
+    assertThat(exec("stat -c %u:%g '" + file + "'").trim()).isEqualTo("1234:2345");
+  }
+
+  @Test
+  void saveThroughSymlinkUpdatesTargetAndKeepsLink() throws Exception {
+    Path target = Files.writeString(root.resolve("real.txt"), "old");
+    Path link = Files.createSymbolicLink(root.resolve("link.txt"), target.getFileName());
+
+    directoryService.save(1, 2, save("link.txt", "new"));
+
+    assertThat(Files.isSymbolicLink(link)).isTrue();
+    assertThat(Files.readString(target)).isEqualTo("new");
+  }
+
+  @Test
+  void saveKeepsHardLinks() throws Exception {
+    Path file = Files.writeString(root.resolve("a.txt"), "old");
+    Path other = Files.createLink(root.resolve("b.txt"), file);
+
+    directoryService.save(1, 2, save("a.txt", "new"));
+
+    assertThat(Files.readString(other)).isEqualTo("new");
+    assertThat(Files.isSameFile(file, other)).isTrue();
+  }
+
+  @Test
+  void saveCreatesMissingFile() throws Exception {
+    directoryService.save(1, 2, save("new.txt", "created"));
+
+    assertThat(Files.readString(root.resolve("new.txt"))).isEqualTo("created");
+  }
+
+  @Test
+  void patchRewritesTailAndKeepsPermissions() throws Exception {
+    Path file = Files.writeString(root.resolve("a.txt"), "hello world\n");
+    Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-------"));
+    String baseHash = directoryService.save(1, 2, save("a.txt", "hello world\n")).getHash();
+
+    DirectoryPatchDto patched =
+        directoryService.patch(1, 2, patch("a.txt", baseHash, 6, 5, "pading"));
+
+    assertThat(Files.readString(file)).isEqualTo("hello pading\n");
+    assertThat(patched.getVersion()).isEqualTo(2L);
+    assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(file)))
+        .isEqualTo("rw-------");
+  }
+
+  @Test
+  void patchRejectsFileChangedOutsideEditor() throws Exception {
+    Path file = root.resolve("a.txt");
+    String baseHash = directoryService.save(1, 2, save("a.txt", "hello\n")).getHash();
+    Files.writeString(file, "hello from terminal\n");
+
+    assertThatThrownBy(() -> directoryService.patch(1, 2, patch("a.txt", baseHash, 0, 5, "bye")))
+        .isInstanceOf(WebsocketException.class)
+        .hasMessage("Stale patch");
+    assertThat(Files.readString(file)).isEqualTo("hello from terminal\n");
+  }
+
+  private StreamResult runLocally(String command, InputStream input, OutputStream output)
+      throws Exception {
+    Process process = new ProcessBuilder("sh", "-c", command.replace("'/app/", "'" + root + "/"))
+        .start();
+    try (OutputStream stdin = process.getOutputStream()) {
+      if (input != null) {
+        input.transferTo(stdin);
+      }
+    }
+    process.getInputStream().transferTo(output);
+    String error = new String(process.getErrorStream().readAllBytes(), StandardCharsets.UTF_8);
+    return new StreamResult(process.waitFor(), error);
+  }
+
+  private static String exec(String command) throws Exception {
+    Process process = new ProcessBuilder("sh", "-c", command).redirectErrorStream(true).start();
+    String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+    process.waitFor();
+    return output;
+  }
+
+  private static DirectorySaveDto save(String name, String content) throws Exception {
+    return new ObjectMapper().readValue("""
+        {"action":"SAVE","type":"FILE","path":"","name":"%s","content":%s}
+        """.formatted(name, new ObjectMapper().writeValueAsString(content)),
+        DirectorySaveDto.class);
+  }
+
+  private static DirectoryPatchDto patch(String name, String baseHash, int offset,
+      int deleteCount, String insert) throws Exception {
+    return new ObjectMapper().readValue("""
+        {"action":"PATCH","type":"FILE","path":"","name":"%s","baseHash":"%s",
+         "operations":[{"offset":%d,"deleteCount":%d,"insert":"%s"}]}
+        """.formatted(name, baseHash, offset, deleteCount, insert), DirectoryPatchDto.class);
+  }
+}
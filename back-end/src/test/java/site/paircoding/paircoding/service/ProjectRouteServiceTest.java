@@ -0,0 +1,75 @@
+package site.paircoding.paircoding.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import site.paircoding.paircoding.entity.Project;
+import site.paircoding.paircoding.repository.ProjectRepository;
+import site.paircoding.paircoding.util.NginxConfigUtil;
+import site.paircoding.paircoding.util.ProjectRouteTable;
+
+/**
+ * 웜 풀에서 받은 프로젝트도 Deployment 이름(pool-...)이 아닌 프로젝트의 서브도메인으로 라우팅하는지 확인한다.
+ */
+class ProjectRouteServiceTest {
+
+  private ProjectRepository projectRepository;
+  private NginxConfigUtil nginxConfigUtil;
+  private ProjectRouteTable projectRouteTable;
+  private ProjectRouteService projectRouteService;
+
+  @BeforeEach
+  void setUp() {
+    projectRepository = mock(ProjectRepository.class);
+    nginxConfigUtil = new NginxConfigUtil(null);
+    ReflectionTestUtils.setField(nginxConfigUtil, "SUBDOMAIN_PREFIX", "deploy-");
+    projectRouteTable = mock(ProjectRouteTable.class);
+    when(projectRouteTable.isEnabled()).thenReturn(true);
+    projectRouteService = new ProjectRouteService(projectRepository, nginxConfigUtil,
+        projectRouteTable);
+  }
+
+  @Test
+  void usesDeploymentUrlInsteadOfWarmDeploymentName() {
+    Project project = project("pool-abcdef", "deploy-myapp-x1y2z3.pair-coding.site");
+
+    assertThat(projectRouteService.subdomainOf(project)).isEqualTo("deploy-myapp-x1y2z3");
+
+    projectRouteService.unregister(project);
+    verify(projectRouteTable).remove("deploy-myapp-x1y2z3");
+  }
+
+  @Test
+  void fallsBackToContainerIdWithoutDeploymentUrl() {
+    assertThat(projectRouteService.subdomainOf(project("myapp-abc", null)))
+        .isEqualTo("deploy-myapp-abc");
+  }
+
+  @Test
+  void loadsRoutesByProjectSubdomain() {
+    Project warm = project("pool-abcdef", "deploy-myapp-x1y2z3.pair-coding.site");
+    when(warm.getNodePort()).thenReturn(30001);
+    Project cold = project("other-abc", "deploy-other-abc.pair-coding.site");
+    when(cold.getNodePort()).thenReturn(30002);
+    when(projectRepository.findAll()).thenReturn(List.of(warm, cold));
+
+    projectRouteService.renderRoutes();
+
+    verify(projectRouteTable).load(
+        Map.of("deploy-myapp-x1y2z3", 30001, "deploy-other-abc", 30002));
+  }
+
+  private static Project project(String containerId, String deploymentUrl) {
+    Project project = mock(Project.class);
+    when(project.getContainerId()).thenReturn(containerId);
+    when(project.getDeploymentUrl()).thenReturn(deploymentUrl);
+    return project;
+  }
+}
@@ -0,0 +1,91 @@
+package site.paircoding.paircoding.service;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import site.paircoding.paircoding.config.AppConfig;
+import site.paircoding.paircoding.entity.Project;
+import site.paircoding.paircoding.repository.GroupRepository;
+import site.paircoding.paircoding.repository.GroupUserRepository;
+import site.paircoding.paircoding.repository.PerformanceRepository;
+import site.paircoding.paircoding.repository.ProjectImageRepository;
+import site.paircoding.paircoding.repository.ProjectRepository;
+import site.paircoding.paircoding.repository.ProjectUserRepository;
+import site.paircoding.paircoding.repository.UserRepository;
+import site.paircoding.paircoding.util.KubernetesUtil;
+import site.paircoding.paircoding.util.NginxConfigUtil;
+import site.paircoding.paircoding.util.RedisUtil;
+
+/**
+ * 프로젝트 삭제가 커밋된 뒤에만 NodePort를 반납하는지 확인한다. 트랜잭션 동기화는 직접 열고 커밋/롤백 콜백을 호출한다.
+ */
+class ProjectServiceDeleteProjectTest {
+
+  private static final int NODE_PORT = 30123;
+
+  private KubernetesUtil kubernetesUtil;
+  private ProjectService projectService;
+
+  @BeforeEach
+  void setUp() {
+    kubernetesUtil = mock(KubernetesUtil.class);
+    ProjectRepository projectRepository = mock(ProjectRepository.class);
+    projectService = new ProjectService(mock(AppConfig.class), mock(UserRepository.class),
+        mock(GroupRepository.class), mock(ProjectImageRepository.class),
+        mock(PerformanceRepository.class), kubernetesUtil, mock(NginxConfigUtil.class),
+        projectRepository, mock(GroupUserRepository.class), mock(ProjectUserRepository.class),
+        mock(RedisUtil.class), mock(ProjectProvisioningService.class),
+        mock(WarmPoolService.class), mock(ProjectRouteService.class));
+
+    Project project = mock(Project.class);
+    when(project.getContainerId()).thenReturn("project-a");
+    when(project.getNodePort()).thenReturn(NODE_PORT);
+    when(projectRepository.findByGroupIdAndProjectId(1, 10)).thenReturn(Optional.of(project));
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void releasesNodePortAfterCommit() {
+    TransactionSynchronizationManager.initSynchronization();
+
+    projectService.deleteProject(1, 10);
+    verify(kubernetesUtil, never()).releaseNodePort(anyInt());
+
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(TransactionSynchronization::afterCommit);
+    verify(kubernetesUtil).releaseNodePort(NODE_PORT);
+  }
+
+  @Test
+  void keepsNodePortWhenDeleteRollsBack() {
+    TransactionSynchronizationManager.initSynchronization();
+
+    projectService.deleteProject(1, 10);
+    TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+        synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+    verify(kubernetesUtil, never()).releaseNodePort(anyInt());
+  }
+
+  @Test
+  void releasesNodePortImmediatelyWithoutTransaction() {
+    projectService.deleteProject(1, 10);
+
+    verify(kubernetesUtil).releaseNodePort(NODE_PORT);
+  }
+}
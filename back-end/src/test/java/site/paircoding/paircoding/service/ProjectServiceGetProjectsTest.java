@@ -0,0 +1,150 @@
+package site.paircoding.paircoding.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import site.paircoding.paircoding.config.AppConfig;
+import site.paircoding.paircoding.entity.GroupUser;
+import site.paircoding.paircoding.entity.Project;
+import site.paircoding.paircoding.entity.ProjectUser;
+import site.paircoding.paircoding.entity.ProjectUserId;
+import site.paircoding.paircoding.entity.User;
+import site.paircoding.paircoding.entity.dto.ProjectUserDto;
+import site.paircoding.paircoding.entity.dto.ProjectWithUsersResponse;
+import site.paircoding.paircoding.entity.enums.Role;
+import site.paircoding.paircoding.repository.GroupRepository;
+import site.paircoding.paircoding.repository.GroupUserRepository;
+import site.paircoding.paircoding.repository.PerformanceRepository;
+import site.paircoding.paircoding.repository.ProjectImageRepository;
+import site.paircoding.paircoding.repository.ProjectRepository;
+import site.paircoding.paircoding.repository.ProjectUserRepository;
+import site.paircoding.paircoding.repository.UserRepository;
+import site.paircoding.paircoding.util.KubernetesUtil;
+import site.paircoding.paircoding.util.NginxConfigUtil;
+import site.paircoding.paircoding.util.RedisUtil;
+
+/**
+ * 프로젝트 목록 조회가 프로젝트/유저 수와 관계없이 저장소 조회와 Redis 호출을 한 번씩만 하는지 확인한다.
+ */
+class ProjectServiceGetProjectsTest {
+
+  private static final int GROUP_ID = 1;
+  private static final int PROJECTS = 20;
+  private static final int USERS_PER_PROJECT = 5;
+
+  private ProjectRepository projectRepository;
+  private GroupUserRepository groupUserRepository;
+  private ProjectUserRepository projectUserRepository;
+  private RedisUtil redisUtil;
+  private ProjectService projectService;
+  private final User caller = User.builder().id(1).name("caller").build();
+
+  @BeforeEach
+  void setUp() {
+    projectRepository = mock(ProjectRepository.class);
+    groupUserRepository = mock(GroupUserRepository.class);
+    projectUserRepository = mock(ProjectUserRepository.class);
+    redisUtil = mock(RedisUtil.class);
+    projectService = new ProjectService(mock(AppConfig.class), mock(UserRepository.class),
+        mock(GroupRepository.class), mock(ProjectImageRepository.class),
+        mock(PerformanceRepository.class), mock(KubernetesUtil.class),
+        mock(NginxConfigUtil.class), projectRepository, groupUserRepository,
+        projectUserRepository, redisUtil, mock(ProjectProvisioningService.class),
+        mock(WarmPoolService.class), mock(ProjectRouteService.class));
+
+    List<Project> projects = new ArrayList<>();
+    List<ProjectUser> projectUsers = new ArrayList<>();
+    for (int projectId = 1; projectId <= PROJECTS; projectId++) {
+      Project project = mock(Project.class);
+      when(project.getId()).thenReturn(projectId);
+      projects.add(project);
+      for (int userId = 1; userId <= USERS_PER_PROJECT; userId++) {
+        ProjectUser projectUser = mock(ProjectUser.class);
+        when(projectUser.getProjectUserId()).thenReturn(new ProjectUserId(userId, projectId));
+        when(projectUser.getUser()).thenReturn(
+            User.builder().id(userId).name("user" + userId).email(userId + "@pading").build());
+        projectUsers.add(projectUser);
+      }
+    }
+    when(projectRepository.findByGroupId(GROUP_ID)).thenReturn(projects);
+    when(projectRepository.findByGroupIdAndUserId(GROUP_ID, caller.getId())).thenReturn(projects);
+    when(projectUserRepository.findWithUserByProjectIdIn(anyList())).thenReturn(projectUsers);
+
+    // 프로젝트마다 [통화 상태, 유저별 접속 키...] - 첫 프로젝트만 통화 중, 유저 1만 접속 중
+    Object[] values = new Object[PROJECTS * (1 + USERS_PER_PROJECT)];
+    values[0] = "active";
+    for (int i = 0; i < PROJECTS; i++) {
+      values[i * (1 + USERS_PER_PROJECT) + 1] = "1";
+    }
+    when(redisUtil.mget(anyList())).thenReturn(Arrays.asList(values));
+  }
+
+  @Test
+  void managerListsProjectsWithOneQueryAndOneRedisCall() {
+    givenRole(Role.MANAGER);
+
+    List<ProjectWithUsersResponse> responses = projectService.getProjects(caller, GROUP_ID);
+
+    assertThat(responses).hasSize(PROJECTS);
+    verify(projectRepository, times(1)).findByGroupId(GROUP_ID);
+    verify(projectUserRepository, times(1)).findWithUserByProjectIdIn(anyList());
+    verifyNoMoreInteractions(projectRepository, projectUserRepository);
+    verifyOneMget();
+  }
+
+  @Test
+  void memberListsOwnProjectsWithOneQueryAndOneRedisCall() {
+    givenRole(Role.MEMBER);
+
+    List<ProjectWithUsersResponse> responses = projectService.getProjects(caller, GROUP_ID);
+
+    assertThat(responses).hasSize(PROJECTS);
+    verify(projectRepository, times(1)).findByGroupIdAndUserId(GROUP_ID, caller.getId());
+    verify(projectUserRepository, times(1)).findWithUserByProjectIdIn(anyList());
+    verifyNoMoreInteractions(projectRepository, projectUserRepository);
+    verifyOneMget();
+  }
+
+  @Test
+  void mapsPresenceAndCallStatusFromMget() {
+    givenRole(Role.OWNER);
+
+    List<ProjectWithUsersResponse> responses = projectService.getProjects(caller, GROUP_ID);
+
+    assertThat(responses.get(0).getCallStatus()).isEqualTo("active");
+    // 키가 없으면 inactive로 응답하고 저장하지 않는다
+    assertThat(responses.get(1).getCallStatus()).isEqualTo("inactive");
+    assertThat(responses.get(1).getUsers()).extracting(ProjectUserDto::getId)
+        .containsExactly(1, 2, 3, 4, 5);
+    assertThat(responses.get(1).getUsers()).extracting(ProjectUserDto::getStatus)
+        .containsExactly(true, false, false, false, false);
+  }
+
+  private void givenRole(Role role) {
+    GroupUser groupUser = mock(GroupUser.class);
+    when(groupUser.getRole()).thenReturn(role);
+    when(groupUserRepository.findByGroupIdAndUserId(GROUP_ID, caller.getId()))
+        .thenReturn(Optional.of(groupUser));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void verifyOneMget() {
+    ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+    verify(redisUtil, times(1)).mget(keys.capture());
+    verifyNoMoreInteractions(redisUtil);
+    assertThat(keys.getValue()).hasSize(PROJECTS * (1 + USERS_PER_PROJECT))
+        .startsWith("callStatusProjectId:1", "project:1:user:1", "project:1:user:2");
+  }
+}
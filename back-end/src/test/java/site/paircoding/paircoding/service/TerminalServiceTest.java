@@ -0,0 +1,146 @@
+package site.paircoding.paircoding.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.ExecListenable;
+import io.fabric8.kubernetes.client.dsl.ExecListener;
+import io.fabric8.kubernetes.client.dsl.ExecWatch;
+import io.fabric8.kubernetes.client.dsl.Execable;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.PodResource;
+import io.fabric8.kubernetes.client.dsl.TtyExecErrorChannelable;
+import io.fabric8.kubernetes.client.dsl.TtyExecErrorable;
+import io.fabric8.kubernetes.client.dsl.TtyExecOutputErrorable;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import site.paircoding.paircoding.entity.Project;
+import site.paircoding.paircoding.util.PodRegistry;
+import site.paircoding.paircoding.util.TerminalOutputPump;
+import site.paircoding.paircoding.util.TerminalOutputPump.Channel;
+
+class TerminalServiceTest {
+
+  private static final String TERMINAL_ID = "terminal-1";
+
+  private final List<ExecWatch> watches = new ArrayList<>();
+  private final List<ExecListener> listeners = new ArrayList<>();
+  private final List<ByteArrayOutputStream> inputs = new ArrayList<>();
+  private final List<Channel> channels = new ArrayList<>();
+  private TerminalService terminalService;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    KubernetesClient kubernetesClient = mock(KubernetesClient.class);
+    MixedOperation<Pod, PodList, PodResource> pods = mock(MixedOperation.class);
+    NonNamespaceOperation<Pod, PodList, PodResource> namespacedPods =
+        mock(NonNamespaceOperation.class);
+    PodResource pod = mock(PodResource.class);
+    TtyExecOutputErrorable input = mock(TtyExecOutputErrorable.class);
+    TtyExecErrorable output = mock(TtyExecErrorable.class);
+    TtyExecErrorChannelable error = mock(TtyExecErrorChannelable.class);
+    ExecListenable tty = mock(ExecListenable.class);
+    when(kubernetesClient.pods()).thenReturn(pods);
+    when(pods.inNamespace(any())).thenReturn(namespacedPods);
+    when(namespacedPods.withName(any())).thenReturn(pod);
+    when(pod.redirectingInput()).thenReturn(input);
+    when(input.writingOutput(any())).thenReturn(output);
+    when(output.writingError(any())).thenReturn(error);
+    when(error.withTTY()).thenReturn(tty);
+    when(tty.usingListener(any())).thenAnswer(invocation -> {
+      listeners.add(invocation.getArgument(0));
+      Execable execable = mock(Execable.class);
+      when(execable.exec(any(String[].class))).thenAnswer(exec -> newWatch());
+      return execable;
+    });
+
+    TerminalOutputPump terminalOutputPump = mock(TerminalOutputPump.class);
+    when(terminalOutputPump.open(anyString(), anyString())).thenAnswer(invocation -> {
+      Channel channel = mock(Channel.class);
+      channels.add(channel);
+      return channel;
+    });
+    ProjectService projectService = mock(ProjectService.class);
+    Project project = mock(Project.class);
+    when(project.getContainerId()).thenReturn("project-a");
+    when(projectService.getProject(1, 10)).thenReturn(project);
+    PodRegistry podRegistry = mock(PodRegistry.class);
+    when(podRegistry.getReadyPodName("project-a")).thenReturn("project-a-pod");
+
+    terminalService = new TerminalService(kubernetesClient, mock(SimpMessagingTemplate.class),
+        projectService, terminalOutputPump, podRegistry);
+  }
+
+  @Test
+  void reattachesToLiveShellOnSameDestination() throws Exception {
+    terminalService.connectToPod(1, 10, TERMINAL_ID, "/sub/a");
+    terminalService.connectToPod(1, 10, TERMINAL_ID, "/sub/a");
+
+    assertThat(watches).hasSize(1);
+    verify(channels.get(0)).replay();
+    verify(watches.get(0), never()).close();
+  }
+
+  @Test
+  void closesReplacedShellOnOtherDestination() throws Exception {
+    terminalService.connectToPod(1, 10, TERMINAL_ID, "/sub/a");
+    terminalService.connectToPod(1, 10, TERMINAL_ID, "/sub/b");
+
+    assertThat(watches).hasSize(2);
+    verify(watches.get(0), times(1)).close();
+    verify(channels.get(0)).close();
+    verify(watches.get(1), never()).close();
+
+    terminalService.handleInput(TERMINAL_ID, "ls\n");
+    assertThat(inputs.get(0).toString(StandardCharsets.UTF_8)).isEmpty();
+    assertThat(inputs.get(1).toString(StandardCharsets.UTF_8)).isEqualTo("ls\n");
+  }
+
+  @Test
+  void closeOfReplacedShellKeepsNewBridge() throws Exception {
+    terminalService.connectToPod(1, 10, TERMINAL_ID, "/sub/a");
+    terminalService.connectToPod(1, 10, TERMINAL_ID, "/sub/b");
+
+    // 이전 셸의 onClose/onFailure가 늦게 와도 새 브리지는 남는다
+    listeners.get(0).onClose(1000, "closed");
+    listeners.get(0).onFailure(new IllegalStateException("gone"), null);
+
+    terminalService.handleInput(TERMINAL_ID, "pwd\n");
+    assertThat(inputs.get(1).toString(StandardCharsets.UTF_8)).isEqualTo("pwd\n");
+  }
+
+  @Test
+  void closeOfCurrentShellRemovesBridge() throws Exception {
+    terminalService.connectToPod(1, 10, TERMINAL_ID, "/sub/a");
+
+    listeners.get(0).onClose(1000, "exit");
+    terminalService.handleInput(TERMINAL_ID, "pwd\n");
+
+    assertThat(inputs.get(0).toString(StandardCharsets.UTF_8)).isEmpty();
+  }
+
+  private ExecWatch newWatch() {
+    ExecWatch execWatch = mock(ExecWatch.class);
+    ByteArrayOutputStream input = new ByteArrayOutputStream();
+    when(execWatch.getInput()).thenReturn(input);
+    watches.add(execWatch);
+    inputs.add(input);
+    return execWatch;
+  }
+}
@@ -0,0 +1,102 @@
+package site.paircoding.paircoding.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import site.paircoding.paircoding.entity.Performance;
+import site.paircoding.paircoding.entity.ProjectImage;
+import site.paircoding.paircoding.repository.PerformanceRepository;
+import site.paircoding.paircoding.repository.ProjectImageRepository;
+import site.paircoding.paircoding.util.KubernetesUtil;
+import site.paircoding.paircoding.util.PodProvisioning;
+import site.paircoding.paircoding.util.RedisUtil;
+
+/**
+ * 여러 인스턴스가 같은 풀을 동시에 채우지 않도록 Redis 잠금을 얻은 인스턴스만 보충하는지 확인한다.
+ */
+class WarmPoolServiceTest {
+
+  private static final String POOL = "python-3.11_1";
+  private static final String LOCK_KEY = "warmPoolRefill:" + POOL;
+
+  private final AtomicReference<Object> lockOwner = new AtomicReference<>();
+  private KubernetesUtil kubernetesUtil;
+  private RedisUtil redisUtil;
+  private WarmPoolService warmPoolService;
+
+  @BeforeEach
+  void setUp() {
+    kubernetesUtil = mock(KubernetesUtil.class);
+    redisUtil = mock(RedisUtil.class);
+    ProjectImageRepository projectImageRepository = mock(ProjectImageRepository.class);
+    PerformanceRepository performanceRepository = mock(PerformanceRepository.class);
+    when(projectImageRepository.findById("python-3.11"))
+        .thenReturn(Optional.of(mock(ProjectImage.class)));
+    when(performanceRepository.findById(1)).thenReturn(Optional.of(mock(Performance.class)));
+    when(kubernetesUtil.countWarmDeployments(POOL)).thenReturn(1);
+    when(kubernetesUtil.createWarmPodAsync(eq(POOL), anyString(), any(), any()))
+        .thenReturn(mock(PodProvisioning.class));
+    when(redisUtil.setIfAbsent(eq(LOCK_KEY), any(), anyLong())).thenAnswer(invocation ->
+        lockOwner.compareAndSet(null, invocation.getArgument(1)));
+    when(redisUtil.get(LOCK_KEY)).thenAnswer(invocation -> lockOwner.get());
+
+    warmPoolService = new WarmPoolService(kubernetesUtil, projectImageRepository,
+        performanceRepository, redisUtil);
+    ReflectionTestUtils.setField(warmPoolService, "sizesProperty", "python-3.11/1=2");
+    ReflectionTestUtils.setField(warmPoolService, "refillLockSeconds", 600L);
+    warmPoolService.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    warmPoolService.shutdown();
+  }
+
+  @Test
+  void refillsMissingDeploymentsAndReleasesLock() {
+    refill();
+
+    verify(kubernetesUtil).createWarmPodAsync(eq(POOL), anyString(), any(), any());
+    verify(redisUtil).delete(LOCK_KEY);
+  }
+
+  @Test
+  void skipsRefillWhileAnotherInstanceHoldsLock() {
+    lockOwner.set("other-instance");
+
+    refill();
+
+    verify(kubernetesUtil, never()).countWarmDeployments(any());
+    verify(kubernetesUtil, never()).createWarmPodAsync(any(), any(), any(), any());
+    verify(redisUtil, never()).delete(any());
+  }
+
+  @Test
+  void keepsLockTakenOverByAnotherInstance() {
+    // 보충하는 동안 잠금이 만료되어 다른 인스턴스가 다시 얻었다
+    when(kubernetesUtil.countWarmDeployments(POOL)).thenAnswer(invocation -> {
+      lockOwner.set("other-instance");
+      return 1;
+    });
+
+    refill();
+
+    verify(redisUtil, never()).delete(any());
+  }
+
+  private void refill() {
+    ReflectionTestUtils.invokeMethod(warmPoolService, "refill", POOL);
+  }
+}
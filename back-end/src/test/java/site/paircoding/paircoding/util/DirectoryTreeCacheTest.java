@@ -0,0 +1,170 @@
+package site.paircoding.paircoding.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import site.paircoding.paircoding.entity.dto.DirectoryChildren;
+import site.paircoding.paircoding.entity.enums.DirectoryType;
+
+class DirectoryTreeCacheTest {
+
+  private PodCommandExecutor podCommandExecutor;
+  private SimpMessagingTemplate messagingTemplate;
+  private DirectoryTreeCache cache;
+  private final Map<String, OutputStream> watchOutputs = new ConcurrentHashMap<>();
+
+  @BeforeEach
+  void setUp() {
+    podCommandExecutor = mock(PodCommandExecutor.class);
+    messagingTemplate = mock(SimpMessagingTemplate.class);
+    when(podCommandExecutor.watch(anyString(), anyString(), any(), any()))
+        .thenAnswer(invocation -> {
+          watchOutputs.put(invocation.getArgument(0), invocation.getArgument(2));
+          return new CompletableFuture<>();
+        });
+
+    IgnoredDirectories ignoredDirectories = new IgnoredDirectories();
+    ReflectionTestUtils.setField(ignoredDirectories, "patterns", List.of("node_modules", ".git"));
+    cache = new DirectoryTreeCache(podCommandExecutor, messagingTemplate, ignoredDirectories);
+    ReflectionTestUtils.setField(cache, "enabled", true);
+    ReflectionTestUtils.setField(cache, "pollIntervalSeconds", 2);
+    ReflectionTestUtils.setField(cache, "debounceMillis", 10L);
+    ReflectionTestUtils.setField(cache, "watchMaxSeconds", 3600L);
+    ReflectionTestUtils.setField(cache, "refreshThreads", 4);
+    cache.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    cache.shutdown();
+  }
+
+  @Test
+  void watchesWithoutCommandPermitsAndSkipsIgnoredDirectories() {
+    cache.list(1, 10, "project-a", "", path -> List.of());
+
+    ArgumentCaptor<String> command = ArgumentCaptor.forClass(String.class);
+    verify(podCommandExecutor).watch(eq("project-a"), command.capture(), any(), any());
+    verify(podCommandExecutor, never()).stream(any(), any(), any(), any(), any());
+    assertThat(command.getValue())
+        .contains("--exclude '(^|/)(node_modules|\\.git)/.'")
+        .contains("find /app \\( -name 'node_modules' -o -name '.git' \\) -type d -prune -o"
+            + " -newer $m -type d -print;");
+  }
+
+  @Test
+  void doesNotCacheListingsInsideIgnoredDirectories() {
+    AtomicInteger loads = new AtomicInteger();
+    Function<String, List<DirectoryChildren>> loader = path -> {
+      loads.incrementAndGet();
+      return List.of(file("a.js"));
+    };
+
+    cache.list(1, 10, "project-a", "/node_modules/lib", loader);
+    cache.list(1, 10, "project-a", "/node_modules/lib", loader);
+    assertThat(loads).hasValue(2);
+
+    cache.list(1, 10, "project-a", "/src", loader);
+    cache.list(1, 10, "project-a", "/src", loader);
+    assertThat(loads).hasValue(3);
+  }
+
+  @Test
+  void refreshesProjectsInParallel() throws Exception {
+    CountDownLatch bothLoading = new CountDownLatch(2);
+    CountDownLatch release = new CountDownLatch(1);
+    for (int projectId : new int[]{10, 20}) {
+      AtomicInteger calls = new AtomicInteger();
+      cache.list(1, projectId, "project-" + projectId, "/src", path -> {
+        if (calls.incrementAndGet() == 1) {
+          return List.of(file("a.txt"));
+        }
+        bothLoading.countDown();
+        awaitQuietly(release);
+        return List.of(file("a.txt"), file("b.txt"));
+      });
+    }
+
+    changed("project-10", "/app/src/");
+    changed("project-20", "/app/src/");
+
+    // 한 프로젝트의 갱신이 끝나기 전에 다른 프로젝트의 갱신이 시작된다
+    assertThat(bothLoading.await(5, TimeUnit.SECONDS)).isTrue();
+    release.countDown();
+    await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+      verify(messagingTemplate).convertAndSend(
+          eq("/sub/groups/1/projects/10/users/all/directory"), any(Object.class));
+      verify(messagingTemplate).convertAndSend(
+          eq("/sub/groups/1/projects/20/users/all/directory"), any(Object.class));
+    });
+  }
+
+  @Test
+  void refreshesOneProjectAtATime() throws Exception {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    AtomicInteger version = new AtomicInteger();
+    cache.list(1, 10, "project-a", "/src", path -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      running.decrementAndGet();
+      return List.of(file("v" + version.get()));
+    });
+
+    for (int i = 1; i <= 10; i++) {
+      version.set(i);
+      changed("project-a", "/app/src/");
+      Thread.sleep(20);
+    }
+
+    // 마지막 변경까지 반영된다
+    await().atMost(Duration.ofSeconds(5)).until(() -> cache.list(1, 10, "project-a", "/src",
+            path -> List.of()).stream().map(DirectoryChildren::getName).toList(),
+        List.of("v10")::equals);
+    assertThat(maxRunning).hasValue(1);
+  }
+
+  private void changed(String deploymentName, String directory) throws Exception {
+    watchOutputs.get(deploymentName).write((directory + "\n").getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static DirectoryChildren file(String name) {
+    return new DirectoryChildren(null, DirectoryType.FILE, name);
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package site.paircoding.paircoding.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import site.paircoding.paircoding.util.FileSearchIndex.ProjectIndex;
+
+class FileSearchIndexTest {
+
+  private static final List<String> PATHS = List.of(
+      "/src/main/java/site/service/DirectoryService.java",
+      "/src/main/java/site/service/ProjectService.java",
+      "/src/main/java/site/util/DirectoryTreeCache.java",
+      "/src/test/java/site/service/DirectoryServiceTest.java",
+      "/docs/service.md",
+      "/README.md");
+
+  private FileSearchIndex fileSearchIndex;
+
+  @BeforeEach
+  void setUp() {
+    fileSearchIndex = new FileSearchIndex();
+    ReflectionTestUtils.setField(fileSearchIndex, "idleSeconds", 1800L);
+  }
+
+  @Test
+  void buildsOnceForConcurrentFirstSearches() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Supplier<List<String>> loader = () -> {
+      loads.incrementAndGet();
+      loading.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return PATHS;
+    };
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<ProjectIndex>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        results.add(executor.submit(() -> fileSearchIndex.get(1, loader)));
+      }
+      assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+      Thread.sleep(100);
+      release.countDown();
+
+      ProjectIndex first = results.get(0).get(5, TimeUnit.SECONDS);
+      for (Future<ProjectIndex> result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(first);
+      }
+      assertThat(loads).hasValue(1);
+      assertThat(first.size()).isEqualTo(PATHS.size());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void failedBuildIsRetriedOnNextSearch() {
+    assertThatThrownBy(() -> fileSearchIndex.get(1, () -> {
+      throw new IllegalStateException("pod not ready");
+    })).isInstanceOf(IllegalStateException.class).hasMessage("pod not ready");
+
+    assertThat(fileSearchIndex.get(1, () -> PATHS).size()).isEqualTo(PATHS.size());
+  }
+
+  @Test
+  void ranksFileNameMatchesFirst() {
+    ProjectIndex index = fileSearchIndex.get(1, () -> PATHS);
+
+    assertThat(index.search("directoryservice", 10)).containsExactly(
+        "/src/main/java/site/service/DirectoryService.java",
+        "/src/test/java/site/service/DirectoryServiceTest.java");
+    assertThat(index.search("service", 2)).containsExactly(
+        "/docs/service.md",
+        "/src/main/java/site/service/ProjectService.java");
+  }
+
+  @Test
+  void matchesCharactersInOrder() {
+    ProjectIndex index = fileSearchIndex.get(1, () -> PATHS);
+
+    assertThat(index.search("dsvc", 10)).first()
+        .isEqualTo("/src/main/java/site/service/DirectoryService.java");
+    assertThat(index.search("re", 10)).containsExactly("/README.md");
+  }
+
+  @Test
+  void appliesRenameAndRemove() {
+    ProjectIndex index = fileSearchIndex.get(1, () -> PATHS);
+
+    fileSearchIndex.rename(1, "/src/main/java/site/util", "/src/main/java/site/cache");
+    fileSearchIndex.remove(1, "/docs");
+    fileSearchIndex.add(1, "/src/Main.java");
+
+    assertThat(index.search("treecache", 10))
+        .containsExactly("/src/main/java/site/cache/DirectoryTreeCache.java");
+    assertThat(index.search("service.md", 10)).isEmpty();
+    assertThat(index.search("main.java", 10)).containsExactly("/src/Main.java");
+    assertThat(index.size()).isEqualTo(PATHS.size());
+  }
+
+  @Test
+  void changeDuringBuildRebuildsOnNextSearch() throws Exception {
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Thread first = new Thread(() -> fileSearchIndex.get(1, () -> {
+      loading.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return PATHS;
+    }));
+    first.start();
+    assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+    fileSearchIndex.add(1, "/src/Created.java");
+    release.countDown();
+    first.join(5000);
+
+    List<String> reloaded = new ArrayList<>(PATHS);
+    reloaded.add("/src/Created.java");
+    assertThat(fileSearchIndex.get(1, () -> reloaded).search("created", 10))
+        .containsExactly("/src/Created.java");
+  }
+}
@@ -0,0 +1,86 @@
+package site.paircoding.paircoding.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import site.paircoding.paircoding.util.FileVersionStore.FileVersion;
+
+class FileVersionStoreTest {
+
+  private FileVersionStore store;
+
+  @BeforeEach
+  void setUp() {
+    store = new FileVersionStore();
+    ReflectionTestUtils.setField(store, "cacheBytes", 10L);
+  }
+
+  @Test
+  void incrementsVersionPerPath() {
+    assertThat(store.put(1, "/app/a", "one").getVersion()).isEqualTo(1);
+    assertThat(store.put(1, "/app/a", "two").getVersion()).isEqualTo(2);
+    assertThat(store.put(1, "/app/b", "one").getVersion()).isEqualTo(1);
+    assertThat(store.put(2, "/app/a", "one").getVersion()).isEqualTo(1);
+  }
+
+  @Test
+  void hashesUtf8BytesWithSha256() {
+    FileVersion version = store.put(1, "/app/a", "한글\n");
+
+    assertThat(version.getHash())
+        .isEqualTo("712f4b5a23ccde2c6cacfa46258849855f00be71873bb8e377132b8436030684");
+    assertThat(version.getByteLength()).isEqualTo(7);
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedWhenOverBudget() {
+    store.put(1, "/app/a", "aaaa");
+    store.put(1, "/app/b", "bbbb");
+    store.get(1, "/app/a");
+
+    store.put(1, "/app/c", "cccc");
+
+    assertThat(store.get(1, "/app/a")).isNotNull();
+    assertThat(store.get(1, "/app/b")).isNull();
+    assertThat(store.get(1, "/app/c")).isNotNull();
+  }
+
+  @Test
+  void keepsFileLargerThanBudgetAlone() {
+    store.put(1, "/app/a", "aaaa");
+
+    store.put(1, "/app/big", "x".repeat(20));
+
+    assertThat(store.get(1, "/app/a")).isNull();
+    assertThat(store.get(1, "/app/big")).isNotNull();
+  }
+
+  @Test
+  void replacingContentReleasesPreviousSize() {
+    store.put(1, "/app/a", "aaaa");
+    store.put(1, "/app/b", "bbbbbb");
+
+    store.put(1, "/app/b", "b");
+    store.put(1, "/app/c", "ccc");
+
+    assertThat(store.get(1, "/app/a")).isNotNull();
+    assertThat(store.get(1, "/app/b")).isNotNull();
+  }
+
+  @Test
+  void invalidatesPathAndChildrenOnly() {
+    store.put(1, "/app/src", "d");
+    store.put(1, "/app/src/a", "a");
+    store.put(1, "/app/srcx", "x");
+    store.put(2, "/app/src/a", "a");
+
+    store.invalidate(1, "/app/src");
+
+    assertThat(store.get(1, "/app/src")).isNull();
+    assertThat(store.get(1, "/app/src/a")).isNull();
+    assertThat(store.get(1, "/app/srcx")).isNotNull();
+    assertThat(store.get(2, "/app/src/a")).isNotNull();
+  }
+}
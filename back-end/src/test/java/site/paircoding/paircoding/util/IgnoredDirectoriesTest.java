@@ -0,0 +1,77 @@
+package site.paircoding.paircoding.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * prune 조건을 로컬 find로 실행해 무시 디렉토리만 건너뛰는지 확인한다.
+ */
+class IgnoredDirectoriesTest {
+
+  @TempDir
+  Path root;
+
+  private IgnoredDirectories ignoredDirectories;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    ignoredDirectories = new IgnoredDirectories();
+    ReflectionTestUtils.setField(ignoredDirectories, "patterns", List.of("build", "*.egg-info"));
+
+    Files.createDirectories(root.resolve("build/classes"));
+    Files.writeString(root.resolve("build/classes/Main.class"), "");
+    Files.createDirectories(root.resolve("src/pkg.egg-info"));
+    Files.writeString(root.resolve("src/pkg.egg-info/PKG-INFO"), "");
+    // 무시 패턴과 이름이 같은 파일
+    Files.writeString(root.resolve("src/build"), "#!/bin/sh\n");
+    Files.writeString(root.resolve("src/Main.java"), "");
+  }
+
+  @Test
+  void prunesIgnoredDirectoriesButKeepsFilesWithSameName() throws Exception {
+    List<String> found = find(ignoredDirectories.pruneClause("") + " -printf '%P\\n'");
+
+    assertThat(found).containsExactlyInAnyOrder("", "src", "src/build", "src/Main.java");
+  }
+
+  @Test
+  void runsActionOnPrunedDirectoryOnly() throws Exception {
+    List<String> found = find(ignoredDirectories.pruneClause("-printf '%y %P\\n'")
+        + " -printf '%y %P\\n'");
+
+    assertThat(found).containsExactlyInAnyOrder("d ", "d build", "d src", "d src/pkg.egg-info",
+        "f src/build", "f src/Main.java");
+  }
+
+  @Test
+  void matchesNamesLikeFind() {
+    assertThat(ignoredDirectories.contains("build")).isTrue();
+    assertThat(ignoredDirectories.contains("pkg.egg-info")).isTrue();
+    assertThat(ignoredDirectories.contains("pkgxegg-info")).isFalse();
+    assertThat(ignoredDirectories.contains("builds")).isFalse();
+    assertThat(ignoredDirectories.covers("/build/classes")).isTrue();
+    assertThat(ignoredDirectories.covers("/src/pkg.egg-info/PKG-INFO")).isTrue();
+    assertThat(ignoredDirectories.covers("/src")).isFalse();
+    assertThat(ignoredDirectories.insideRegex()).isEqualTo("(^|/)(build|[^/]*\\.egg-info)/.");
+  }
+
+  private List<String> find(String clause) throws IOException, InterruptedException {
+    Process process = new ProcessBuilder("sh", "-c", "find " + root + clause)
+        .redirectErrorStream(true)
+        .start();
+    String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+    assertThat(process.waitFor(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(process.exitValue()).as(output).isZero();
+    return output.lines().toList();
+  }
+}
@@ -0,0 +1,127 @@
+package site.paircoding.paircoding.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * map 라우팅 모드의 스크립트를 /etc/nginx 대신 임시 디렉토리에서 로컬 sh로 실행해 map 파일 내용을 확인한다.
+ */
+class NginxConfigUtilTest {
+
+  @TempDir
+  Path root;
+
+  private Path routeMap;
+  private NginxReloadCoalescer nginxReloadCoalescer;
+  private NginxConfigUtil nginxConfigUtil;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Files.createDirectory(root.resolve("sites-available"));
+    Files.createDirectory(root.resolve("sites-enabled"));
+    routeMap = root.resolve("pading-routes.map");
+
+    nginxReloadCoalescer = mock(NginxReloadCoalescer.class);
+    when(nginxReloadCoalescer.submit(anyString()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    nginxConfigUtil = new NginxConfigUtil(nginxReloadCoalescer);
+    ReflectionTestUtils.setField(nginxConfigUtil, "SUBDOMAIN_PREFIX", "deploy-");
+    ReflectionTestUtils.setField(nginxConfigUtil, "routingMode", "map");
+  }
+
+  @Test
+  void rendersWholeMapAndWildcardServer() throws Exception {
+    Map<String, Integer> routes = new LinkedHashMap<>();
+    routes.put("deploy-a", 30001);
+    routes.put("deploy-b", 30002);
+
+    nginxConfigUtil.renderRouteMap(routes);
+    runSubmitted();
+
+    assertThat(Files.readString(routeMap)).isEqualTo(
+        "deploy-a.pair-coding.site 30001;\ndeploy-b.pair-coding.site 30002;\n");
+    assertThat(root.resolve("pading-routes.map.tmp")).doesNotExist();
+    Path server = root.resolve("sites-available/pading-routes.conf");
+    assertThat(root.resolve("sites-enabled/pading-routes.conf")).isSymbolicLink();
+    assertThat(Files.readString(server))
+        .contains("include " + routeMap + ";")
+        .contains("server_name ~^deploy-.+\\.pair-coding\\.site$;")
+        .contains("proxy_pass http://192.168.0.38:$pading_upstream_port;");
+  }
+
+  @Test
+  void createReplacesOnlyItsOwnLine() throws Exception {
+    // 점이 정규식의 아무 문자로 해석되면 deploy-axpair-coding.site 줄까지 지워진다
+    Files.writeString(routeMap, """
+        deploy-a.pair-coding.site 30001;
+        deploy-ab.pair-coding.site 30002;
+        deploy-axpair-coding.site 30003;
+        """);
+
+    nginxConfigUtil.createNginxConfig("deploy-a", 30009);
+    runSubmitted();
+
+    assertThat(Files.readString(routeMap)).isEqualTo("""
+        deploy-ab.pair-coding.site 30002;
+        deploy-axpair-coding.site 30003;
+        deploy-a.pair-coding.site 30009;
+        """);
+    assertThat(root.resolve("sites-available/deploy-a.conf")).doesNotExist();
+  }
+
+  @Test
+  void createWorksWithoutExistingMap() throws Exception {
+    nginxConfigUtil.createNginxConfig("deploy-a", 30001);
+    runSubmitted();
+
+    assertThat(Files.readString(routeMap)).isEqualTo("deploy-a.pair-coding.site 30001;\n");
+  }
+
+  @Test
+  void deleteRemovesOnlyItsOwnLine() throws Exception {
+    Files.writeString(routeMap, """
+        deploy-a.pair-coding.site 30001;
+        deploy-ab.pair-coding.site 30002;
+        deploy-axpair-coding.site 30003;
+        """);
+
+    // 삭제는 접두사 없는 deployment 이름을 받는다
+    nginxConfigUtil.deleteNginxConfig("deploy-a");
+    runSubmitted();
+
+    assertThat(Files.readString(routeMap)).isEqualTo("""
+        deploy-ab.pair-coding.site 30002;
+        deploy-axpair-coding.site 30003;
+        """);
+  }
+
+  private void runSubmitted() throws IOException, InterruptedException {
+    ArgumentCaptor<String> script = ArgumentCaptor.forClass(String.class);
+    verify(nginxReloadCoalescer).submit(script.capture());
+
+    ProcessBuilder builder = new ProcessBuilder("sh", "-c",
+        script.getValue().replace("/etc/nginx/", root + "/"));
+    builder.redirectErrorStream(true);
+    Process process = builder.start();
+    String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+    assertThat(process.waitFor(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(process.exitValue()).as(output).isZero();
+  }
+}
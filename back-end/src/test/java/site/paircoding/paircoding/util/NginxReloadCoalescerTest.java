@@ -0,0 +1,160 @@
+package site.paircoding.paircoding.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import site.paircoding.paircoding.util.SshSessionPool.ExecResult;
+
+/**
+ * 묶음 스크립트를 로컬 sh로 실행해 검사 실패 시 되돌리기와 실패한 변경만 실패시키는지 확인한다. nginx는 설정 파일에 BROKEN이 있으면
+ * 검사에 실패하는 가짜 스크립트를 사용한다.
+ */
+class NginxReloadCoalescerTest {
+
+  @TempDir
+  Path root;
+
+  private Path available;
+  private Path enabled;
+  private Path routeMap;
+  private Path reloadLog;
+  private Path bin;
+  private SshSessionPool sshSessionPool;
+  private NginxReloadCoalescer coalescer;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    available = Files.createDirectory(root.resolve("sites-available"));
+    enabled = Files.createDirectory(root.resolve("sites-enabled"));
+    routeMap = root.resolve("pading-routes.map");
+    reloadLog = root.resolve("reload.log");
+    bin = Files.createDirectory(root.resolve("bin"));
+    script(bin.resolve("sudo"), "exec \"$@\"");
+    script(bin.resolve("nginx"), """
+        case "$1" in
+          -t) if grep -rqs BROKEN %s %s %s; then echo "nginx: [emerg] BROKEN" >&2; exit 1; fi ;;
+          -s) echo reload >> %s ;;
+        esac
+        """.formatted(available, enabled, routeMap, reloadLog));
+
+    sshSessionPool = mock(SshSessionPool.class);
+    when(sshSessionPool.execute(eq("sh"), any())).thenAnswer(
+        invocation -> runLocally(invocation.getArgument(1)));
+
+    coalescer = new NginxReloadCoalescer(sshSessionPool);
+    ReflectionTestUtils.setField(coalescer, "debounceMillis", 200L);
+    ReflectionTestUtils.setField(coalescer, "configPaths",
+        List.of(available.toString(), enabled.toString(), routeMap.toString()));
+    coalescer.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    coalescer.shutdown();
+  }
+
+  @Test
+  void appliesBatchWithOneReload() throws Exception {
+    CompletableFuture<Void> first = coalescer.submit(writeSite("a", "server {}"));
+    CompletableFuture<Void> second = coalescer.submit(writeSite("b", "server {}"));
+
+    await(first);
+    await(second);
+    assertThat(available.resolve("a.conf")).exists();
+    assertThat(enabled.resolve("b.conf")).exists();
+    assertThat(Files.readAllLines(reloadLog)).containsExactly("reload");
+    verify(sshSessionPool, times(1)).execute(eq("sh"), any());
+  }
+
+  @Test
+  void failsOnlyChangeThatBreaksConfigTest() throws Exception {
+    CompletableFuture<Void> first = coalescer.submit(writeSite("a", "server {}"));
+    CompletableFuture<Void> broken = coalescer.submit(writeSite("b", "BROKEN"));
+    CompletableFuture<Void> third = coalescer.submit(writeSite("c", "server {}"));
+
+    await(first);
+    await(third);
+    assertThatThrownBy(() -> await(broken))
+        .isInstanceOf(ExecutionException.class)
+        .hasMessageContaining("[emerg] BROKEN");
+
+    assertThat(available.resolve("a.conf")).exists();
+    assertThat(available.resolve("c.conf")).exists();
+    assertThat(available.resolve("b.conf")).doesNotExist();
+    assertThat(enabled.resolve("b.conf")).doesNotExist();
+    assertThat(Files.readAllLines(reloadLog)).containsExactly("reload");
+  }
+
+  @Test
+  void restoresFileEditedByBrokenChange() throws Exception {
+    Files.writeString(routeMap, "deploy-a.pair-coding.site 30001;\n");
+
+    CompletableFuture<Void> broken = coalescer.submit("echo 'BROKEN' >> " + routeMap);
+    CompletableFuture<Void> added = coalescer.submit(
+        "echo 'deploy-b.pair-coding.site 30002;' >> " + routeMap);
+
+    await(added);
+    assertThatThrownBy(() -> await(broken)).isInstanceOf(ExecutionException.class);
+    assertThat(Files.readString(routeMap)).isEqualTo(
+        "deploy-a.pair-coding.site 30001;\ndeploy-b.pair-coding.site 30002;\n");
+  }
+
+  @Test
+  void failsChangeWhoseScriptFails() throws Exception {
+    CompletableFuture<Void> failing = coalescer.submit("false");
+    CompletableFuture<Void> ok = coalescer.submit(writeSite("a", "server {}"));
+
+    await(ok);
+    assertThatThrownBy(() -> await(failing)).isInstanceOf(ExecutionException.class);
+    assertThat(Files.readAllLines(reloadLog)).containsExactly("reload");
+  }
+
+  private String writeSite(String name, String content) {
+    Path file = available.resolve(name + ".conf");
+    return "cat > " + file + " <<'PADING_NGINX_CONF' && ln -sf " + file + " "
+        + enabled.resolve(name + ".conf") + "\n" + content + "\nPADING_NGINX_CONF";
+  }
+
+  private ExecResult runLocally(byte[] input) throws IOException, InterruptedException {
+    ProcessBuilder builder = new ProcessBuilder("sh");
+    builder.environment().put("PATH", bin + ":" + System.getenv("PATH"));
+    Path stdout = Files.createTempFile(root, "out", ".txt");
+    Path stderr = Files.createTempFile(root, "err", ".txt");
+    builder.redirectOutput(stdout.toFile()).redirectError(stderr.toFile());
+    Process process = builder.start();
+    process.getOutputStream().write(input);
+    process.getOutputStream().close();
+    process.waitFor(10, TimeUnit.SECONDS);
+    return new ExecResult(process.exitValue(),
+        Files.readString(stdout, StandardCharsets.UTF_8),
+        Files.readString(stderr, StandardCharsets.UTF_8));
+  }
+
+  private static void script(Path path, String body) throws IOException {
+    Files.writeString(path, "#!/bin/sh\n" + body);
+    path.toFile().setExecutable(true);
+  }
+
+  private static void await(CompletableFuture<Void> future) throws Exception {
+    future.get(10, TimeUnit.SECONDS);
+  }
+}
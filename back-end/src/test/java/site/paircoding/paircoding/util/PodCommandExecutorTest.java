@@ -0,0 +1,237 @@
+package site.paircoding.paircoding.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.ExecWatch;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.PodResource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import site.paircoding.paircoding.util.PodCommandExecutor.AsyncPermits;
+import site.paircoding.paircoding.util.PodCommandExecutor.StreamResult;
+import site.paircoding.paircoding.util.PodShellPool.CommandResult;
+
+class PodCommandExecutorTest {
+
+  private PodShellPool podShellPool;
+  private PodRegistry podRegistry;
+  private ExecWatch execWatch;
+  private PodResource pod;
+  private PodCommandExecutor executor;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    podShellPool = mock(PodShellPool.class);
+    podRegistry = mock(PodRegistry.class);
+    execWatch = mock(ExecWatch.class);
+    KubernetesClient kubernetesClient = mock(KubernetesClient.class);
+    MixedOperation<Pod, PodList, PodResource> pods = mock(MixedOperation.class);
+    NonNamespaceOperation<Pod, PodList, PodResource> namespacedPods =
+        mock(NonNamespaceOperation.class);
+    pod = mock(PodResource.class, RETURNS_DEEP_STUBS);
+    when(kubernetesClient.pods()).thenReturn(pods);
+    when(pods.inNamespace(any())).thenReturn(namespacedPods);
+    when(namespacedPods.withName(any())).thenReturn(pod);
+    when(pod.writingOutput(any()).writingError(any()).usingListener(any())
+        .exec(any(String[].class))).thenReturn(execWatch);
+    executor = new PodCommandExecutor(kubernetesClient, podRegistry, podShellPool);
+    ReflectionTestUtils.setField(executor, "maxConcurrent", 2);
+    ReflectionTestUtils.setField(executor, "maxConcurrentPerPod", 1);
+    ReflectionTestUtils.setField(executor, "acquireTimeoutMillis", 10_000L);
+    ReflectionTestUtils.setField(executor, "maxWatchers", 2);
+    executor.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  void waitsForPermitWithoutBlockingCaller() throws Exception {
+    CompletableFuture<CommandResult> running = new CompletableFuture<>();
+    when(podShellPool.execute("project-a", "first")).thenReturn(running);
+    AtomicReference<String> startedOn = new AtomicReference<>();
+    when(podShellPool.execute("project-a", "second")).thenAnswer(invocation -> {
+      startedOn.set(Thread.currentThread().getName());
+      return CompletableFuture.completedFuture(new CommandResult("ok", ""));
+    });
+
+    executor.execute("project-a", "first", Duration.ofSeconds(10));
+    long startedAt = System.nanoTime();
+    CompletableFuture<CommandResult> second =
+        executor.execute("project-a", "second", Duration.ofSeconds(10));
+
+    assertThat((System.nanoTime() - startedAt) / 1_000_000).isLessThan(100L);
+    Thread.sleep(200);
+    assertThat(second).isNotDone();
+
+    running.complete(new CommandResult("", ""));
+    assertThat(second.get(5, TimeUnit.SECONDS).getOutput()).isEqualTo("ok");
+    assertThat(startedOn.get()).isEqualTo("pod-exec-dispatch");
+  }
+
+  @Test
+  void failsWhenPermitIsNotFreedBeforeDeadline() {
+    when(podShellPool.execute(eq("project-a"), anyString())).thenReturn(new CompletableFuture<>());
+    executor.execute("project-a", "hang", Duration.ofSeconds(10));
+
+    long startedAt = System.nanoTime();
+    CompletableFuture<CommandResult> second =
+        executor.execute("project-a", "second", Duration.ofMillis(200));
+
+    assertThat((System.nanoTime() - startedAt) / 1_000_000).isLessThan(100L);
+    assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(KubernetesClientException.class);
+    assertThat((System.nanoTime() - startedAt) / 1_000_000).isBetween(150L, 2_000L);
+  }
+
+  @Test
+  void cancelledWaiterDoesNotStartAndPassesPermitOn() throws Exception {
+    CompletableFuture<CommandResult> running = new CompletableFuture<>();
+    when(podShellPool.execute("project-a", "first")).thenReturn(running);
+    when(podShellPool.execute("project-a", "third"))
+        .thenReturn(CompletableFuture.completedFuture(new CommandResult("ok", "")));
+
+    executor.execute("project-a", "first", Duration.ofSeconds(10));
+    executor.execute("project-a", "second", Duration.ofSeconds(10)).cancel(true);
+    CompletableFuture<CommandResult> third =
+        executor.execute("project-a", "third", Duration.ofSeconds(10));
+
+    running.complete(new CommandResult("", ""));
+    assertThat(third.get(5, TimeUnit.SECONDS).getOutput()).isEqualTo("ok");
+    verify(podShellPool, never()).execute("project-a", "second");
+  }
+
+  @Test
+  void limitsPerPodWithoutBlockingOtherPods() throws Exception {
+    when(podShellPool.execute(eq("project-a"), anyString())).thenReturn(new CompletableFuture<>());
+    when(podShellPool.execute(eq("project-b"), anyString()))
+        .thenReturn(CompletableFuture.completedFuture(new CommandResult("b", "")));
+    executor.execute("project-a", "hang", Duration.ofSeconds(10));
+
+    assertThat(executor.execute("project-b", "ls", Duration.ofSeconds(1)).get().getOutput())
+        .isEqualTo("b");
+  }
+
+  @Test
+  void forgetsPodPermitsWhenDeploymentIsRemoved() {
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+    verify(podRegistry).addRemovalListener(listener.capture());
+
+    CompletableFuture<CommandResult> running = new CompletableFuture<>();
+    when(podShellPool.execute(any(), any())).thenReturn(running);
+    executor.execute("project-a", "ls", Duration.ofSeconds(10));
+
+    @SuppressWarnings("unchecked")
+    Map<String, ?> podPermits = (Map<String, ?>) ReflectionTestUtils.getField(executor,
+        "podPermits");
+    assertThat(podPermits).containsKey("project-a");
+
+    listener.getValue().accept("project-a");
+    assertThat(podPermits).doesNotContainKey("project-a");
+
+    // 지운 뒤 끝난 명령도 자신이 받은 권한을 반납한다
+    running.complete(new CommandResult("", ""));
+    Object globalPermits = ReflectionTestUtils.getField(executor, "globalPermits");
+    assertThat(((AsyncPermits) globalPermits).availablePermits()).isEqualTo(2);
+  }
+
+  @Test
+  void writesInputToExecStdinAndClosesIt() throws Exception {
+    CompletableFuture<Integer> exitCode = new CompletableFuture<>();
+    when(execWatch.exitCode()).thenReturn(exitCode);
+    when(pod.redirectingInput().writingOutput(any()).writingError(any()).usingListener(any())
+        .exec(any(String[].class))).thenReturn(execWatch);
+    AtomicBoolean closed = new AtomicBoolean();
+    ByteArrayOutputStream stdin = new ByteArrayOutputStream() {
+      @Override
+      public void close() {
+        closed.set(true);
+      }
+    };
+    when(execWatch.getInput()).thenReturn(stdin);
+
+    CompletableFuture<StreamResult> result = executor.stream("project-a", "head -c 5 > f",
+        new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)),
+        OutputStream.nullOutputStream(), Duration.ofSeconds(10));
+
+    assertThat(stdin.toString(StandardCharsets.UTF_8)).isEqualTo("hello");
+    assertThat(closed).isTrue();
+    exitCode.complete(0);
+    assertThat(result.get(5, TimeUnit.SECONDS).getExitCode()).isZero();
+  }
+
+  @Test
+  void watchersDoNotTakeCommandPermits() throws Exception {
+    when(execWatch.exitCode()).thenReturn(new CompletableFuture<>());
+    when(podShellPool.execute("project-a", "ls"))
+        .thenReturn(CompletableFuture.completedFuture(new CommandResult("ok", "")));
+
+    CompletableFuture<StreamResult> first =
+        executor.watch("project-a", "inotifywait", OutputStream.nullOutputStream(),
+            Duration.ofHours(1));
+    CompletableFuture<StreamResult> second =
+        executor.watch("project-a", "inotifywait", OutputStream.nullOutputStream(),
+            Duration.ofHours(1));
+
+    assertThat(first).isNotDone();
+    assertThat(second).isNotDone();
+    assertThat(executor.execute("project-a", "ls", Duration.ofMillis(500)).get().getOutput())
+        .isEqualTo("ok");
+  }
+
+  @Test
+  void failsFastWhenWatchersAreExhaustedAndReleasesOnEnd() {
+    CompletableFuture<Integer> exitCode = new CompletableFuture<>();
+    // 첫 감시만 끝나고 나머지는 계속 실행된다
+    when(execWatch.exitCode()).thenReturn(exitCode).thenReturn(new CompletableFuture<>());
+    executor.watch("project-a", "watch", OutputStream.nullOutputStream(), Duration.ofHours(1));
+    executor.watch("project-b", "watch", OutputStream.nullOutputStream(), Duration.ofHours(1));
+
+    long startedAt = System.nanoTime();
+    CompletableFuture<StreamResult> third =
+        executor.watch("project-c", "watch", OutputStream.nullOutputStream(), Duration.ofHours(1));
+    assertThat((System.nanoTime() - startedAt) / 1_000_000).isLessThan(100L);
+    assertThatThrownBy(third::get)
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(KubernetesClientException.class)
+        .hasMessageContaining("Too many watchers");
+
+    exitCode.complete(0);
+    assertThat(executor.watch("project-c", "watch", OutputStream.nullOutputStream(),
+        Duration.ofHours(1))).isNotDone();
+  }
+}
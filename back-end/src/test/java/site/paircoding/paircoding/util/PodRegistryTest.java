@@ -0,0 +1,128 @@
+package site.paircoding.paircoding.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.server.mock.EnableKubernetesMockClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import site.paircoding.paircoding.entity.enums.LabelKey;
+
+@EnableKubernetesMockClient(crud = true)
+class PodRegistryTest {
+
+  private static final String NAMESPACE = "test";
+
+  private KubernetesClient client;
+  private PodRegistry podRegistry;
+
+  @BeforeEach
+  void setUp() {
+    podRegistry = new PodRegistry(client);
+    ReflectionTestUtils.setField(podRegistry, "namespace", NAMESPACE);
+  }
+
+  @AfterEach
+  void tearDown() {
+    podRegistry.stop();
+  }
+
+  @Test
+  void listsDirectlyBeforeInformerStarts() {
+    create(pod("pod-a", "project-a", true));
+
+    assertThat(podRegistry.getReadyPodName("project-a")).isEqualTo("pod-a");
+  }
+
+  @Test
+  void resolvesReadyPodFromInformerCache() {
+    create(pod("pod-a-1", "project-a", false));
+    create(pod("pod-a-2", "project-a", true));
+    create(pod("pod-b", "project-b", true));
+    startAndSync();
+
+    assertThat(podRegistry.getReadyPodName("project-a")).isEqualTo("pod-a-2");
+    assertThat(podRegistry.getReadyPodName("project-b")).isEqualTo("pod-b");
+  }
+
+  @Test
+  void failsFastWithoutReadyPod() {
+    create(pod("pod-a", "project-a", false));
+    startAndSync();
+
+    assertThat(podRegistry.isReady("project-a")).isFalse();
+    assertThat(podRegistry.isReady("scaled-to-zero")).isFalse();
+    assertThatThrownBy(() -> podRegistry.getReadyPodName("scaled-to-zero"))
+        .isInstanceOf(RuntimeException.class);
+  }
+
+  @Test
+  void followsWatchEvents() {
+    startAndSync();
+    assertThat(podRegistry.isReady("project-a")).isFalse();
+
+    create(pod("pod-a", "project-a", true));
+    await().atMost(Duration.ofSeconds(10))
+        .until(() -> podRegistry.isReady("project-a"));
+
+    client.pods().inNamespace(NAMESPACE).withName("pod-a").delete();
+    await().atMost(Duration.ofSeconds(10))
+        .until(() -> !podRegistry.isReady("project-a"));
+  }
+
+  @Test
+  void notifiesWhenLastPodOfDeploymentIsDeleted() {
+    create(pod("pod-a-1", "project-a", true));
+    create(pod("pod-a-2", "project-a", true));
+    List<String> removed = new CopyOnWriteArrayList<>();
+    podRegistry.addRemovalListener(removed::add);
+    startAndSync();
+
+    client.pods().inNamespace(NAMESPACE).withName("pod-a-1").delete();
+    await().atMost(Duration.ofSeconds(10))
+        .until(() -> podRegistry.findReadyPodName("project-a").orElse("").equals("pod-a-2"));
+    assertThat(removed).isEmpty();
+
+    client.pods().inNamespace(NAMESPACE).withName("pod-a-2").delete();
+    await().atMost(Duration.ofSeconds(10)).until(() -> removed.contains("project-a"));
+  }
+
+  private void startAndSync() {
+    podRegistry.start();
+    await().atMost(Duration.ofSeconds(10)).until(() -> {
+      Object informer = ReflectionTestUtils.getField(podRegistry, "informer");
+      return informer != null
+          && ((SharedIndexInformer<?>) informer).hasSynced();
+    });
+  }
+
+  private void create(Pod pod) {
+    client.pods().inNamespace(NAMESPACE).resource(pod).create();
+  }
+
+  private static Pod pod(String name, String deploymentName, boolean ready) {
+    return new PodBuilder()
+        .withNewMetadata()
+        .withName(name)
+        .withNamespace(NAMESPACE)
+        .addToLabels(LabelKey.DEPLOYMENT_NAME.getKey(), deploymentName)
+        .endMetadata()
+        .withNewStatus()
+        .addNewCondition()
+        .withType("Ready")
+        .withStatus(ready ? "True" : "False")
+        .endCondition()
+        .endStatus()
+        .build();
+  }
+}
@@ -0,0 +1,136 @@
+package site.paircoding.paircoding.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import site.paircoding.paircoding.util.PodShellPool.CommandResult;
+import site.paircoding.paircoding.util.PodShellPool.MarkerStream;
+import site.paircoding.paircoding.util.PodShellPool.Pending;
+
+class PodShellPoolMarkerStreamTest {
+
+  private MarkerStream stdout;
+  private MarkerStream stderr;
+
+  @BeforeEach
+  void setUp() {
+    stdout = new MarkerStream(false);
+    stderr = new MarkerStream(true);
+  }
+
+  @Test
+  void completesWhenBothStreamsReachMarker() throws Exception {
+    Pending pending = enqueue("__PADING_END_1__");
+
+    write(stdout, "file.txt\n\n__PADING_END_1__\n");
+    assertThat(pending.future).isNotDone();
+
+    write(stderr, "\n__PADING_END_1__\n");
+    CommandResult result = pending.future.get();
+    assertThat(result.getOutput()).isEqualTo("file.txt\n");
+    assertThat(result.getError()).isEmpty();
+  }
+
+  @Test
+  void findsMarkerSplitAcrossWrites() throws Exception {
+    byte[] bytes = "한글 출력\n__PADING_END_1__\n".getBytes(StandardCharsets.UTF_8);
+    for (int split = 1; split < bytes.length; split++) {
+      setUp();
+      Pending pending = enqueue("__PADING_END_1__");
+      stdout.write(bytes, 0, split);
+      stdout.write(bytes, split, bytes.length - split);
+      write(stderr, "\n__PADING_END_1__\n");
+
+      assertThat(pending.future.get().getOutput()).as("split at %d", split).isEqualTo("한글 출력");
+    }
+  }
+
+  @Test
+  void findsMarkerWrittenByteByByte() throws Exception {
+    Pending pending = enqueue("__PADING_END_1__");
+    for (byte b : "out\n__PADING_END_1__\n".getBytes(StandardCharsets.UTF_8)) {
+      stdout.write(b);
+    }
+    write(stderr, "\n__PADING_END_1__\n");
+
+    assertThat(pending.future.get().getOutput()).isEqualTo("out");
+  }
+
+  @Test
+  void framesStderrOfFailingCommand() throws Exception {
+    Pending pending = enqueue("__PADING_END_1__");
+
+    write(stdout, "\n__PADING_END_1__\n");
+    write(stderr, "ls: cannot access 'missing': No such file or directory\n\n__PADING_END_1__\n");
+
+    CommandResult result = pending.future.get();
+    assertThat(result.getOutput()).isEmpty();
+    assertThat(result.getError())
+        .isEqualTo("ls: cannot access 'missing': No such file or directory\n");
+  }
+
+  @Test
+  void separatesPipelinedCommandsInOneChunk() throws Exception {
+    Pending first = enqueue("__PADING_END_1__");
+    Pending second = enqueue("__PADING_END_2__");
+
+    write(stdout, "a\n__PADING_END_1__\nb\n__PADING_END_2__\n");
+    write(stderr, "\n__PADING_END_1__\nerr\n__PADING_END_2__\n");
+
+    assertThat(first.future.get().getOutput()).isEqualTo("a");
+    assertThat(first.future.get().getError()).isEmpty();
+    assertThat(second.future.get().getOutput()).isEqualTo("b");
+    assertThat(second.future.get().getError()).isEqualTo("err");
+  }
+
+  @Test
+  void doesNotMatchMarkerOfLaterCommand() {
+    Pending first = enqueue("__PADING_END_1__");
+    enqueue("__PADING_END_2__");
+
+    write(stdout, "a\n__PADING_END_2__\n");
+
+    assertThat(first.future).isNotDone();
+  }
+
+  @Test
+  void discardsOutputWithoutPendingCommand() throws Exception {
+    write(stdout, "motd\n");
+    Pending pending = enqueue("__PADING_END_1__");
+
+    write(stdout, "out\n__PADING_END_1__\n");
+    write(stderr, "\n__PADING_END_1__\n");
+
+    assertThat(pending.future.get().getOutput()).isEqualTo("out");
+  }
+
+  @Test
+  void failAllCompletesPendingExceptionally() {
+    Pending pending = enqueue("__PADING_END_1__");
+    write(stdout, "partial");
+
+    KubernetesClientException cause = new KubernetesClientException("Exec channel closed");
+    stdout.failAll(cause);
+
+    assertThatThrownBy(pending.future::get)
+        .isInstanceOf(ExecutionException.class)
+        .hasCause(cause);
+  }
+
+  private Pending enqueue(String marker) {
+    Pending pending = new Pending(marker);
+    stdout.enqueue(pending);
+    stderr.enqueue(pending);
+    return pending;
+  }
+
+  private static void write(MarkerStream stream, String text) {
+    byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    stream.write(bytes, 0, bytes.length);
+  }
+}
@@ -0,0 +1,164 @@
+package site.paircoding.paircoding.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.ExecWatch;
+import io.fabric8.kubernetes.client.dsl.Execable;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.PodResource;
+import io.fabric8.kubernetes.client.dsl.TtyExecErrorChannelable;
+import io.fabric8.kubernetes.client.dsl.TtyExecErrorable;
+import io.fabric8.kubernetes.client.dsl.TtyExecOutputErrorable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import site.paircoding.paircoding.util.PodShellPool.CommandResult;
+
+/**
+ * exec 스트림 대신 로컬 sh 프로세스를 상주 셸로 사용해 명령 구분과 재시도를 확인한다.
+ */
+class PodShellPoolTest {
+
+  private final List<Process> processes = new ArrayList<>();
+  private Execable execable;
+  private PodShellPool pool;
+  private OutputStream stdout;
+  private OutputStream stderr;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    KubernetesClient kubernetesClient = mock(KubernetesClient.class);
+    MixedOperation<Pod, PodList, PodResource> pods = mock(MixedOperation.class);
+    NonNamespaceOperation<Pod, PodList, PodResource> namespacedPods =
+        mock(NonNamespaceOperation.class);
+    PodResource pod = mock(PodResource.class);
+    TtyExecOutputErrorable input = mock(TtyExecOutputErrorable.class);
+    TtyExecErrorable output = mock(TtyExecErrorable.class);
+    TtyExecErrorChannelable error = mock(TtyExecErrorChannelable.class);
+    execable = mock(Execable.class);
+    when(kubernetesClient.pods()).thenReturn(pods);
+    when(pods.inNamespace(any())).thenReturn(namespacedPods);
+    when(namespacedPods.withName(any())).thenReturn(pod);
+    when(pod.redirectingInput()).thenReturn(input);
+    when(input.writingOutput(any())).thenAnswer(invocation -> {
+      stdout = invocation.getArgument(0);
+      return output;
+    });
+    when(output.writingError(any())).thenAnswer(invocation -> {
+      stderr = invocation.getArgument(0);
+      return error;
+    });
+    when(error.usingListener(any())).thenReturn(execable);
+    when(execable.exec("sh")).thenAnswer(invocation -> startShell());
+
+    PodRegistry podRegistry = mock(PodRegistry.class);
+    when(podRegistry.getReadyPodName(any())).thenReturn("project-a-pod");
+    pool = new PodShellPool(kubernetesClient, podRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.closeAll();
+    processes.forEach(Process::destroyForcibly);
+  }
+
+  @Test
+  void outputThatLooksLikeMarkerDoesNotEndCommand() throws Exception {
+    // 예전 순번 마커를 담은 파일을 cat 해도 명령이 일찍 끝나지 않는다
+    CommandResult first = get(pool.execute("project-a",
+        "printf 'a\\n__PADING_END_1__\\n__PADING_END_2__\\nb\\n'"));
+    CommandResult second = get(pool.execute("project-a", "echo second"));
+
+    assertThat(first.getOutput()).isEqualTo("a\n__PADING_END_1__\n__PADING_END_2__\nb\n");
+    assertThat(second.getOutput()).isEqualTo("second\n");
+  }
+
+  @Test
+  void retriesOnFreshShellWhenEvictedBeforeWrite() throws Exception {
+    evictAfterCheckout(1);
+
+    CommandResult result = get(pool.execute("project-a", "echo ok"));
+
+    assertThat(result.getOutput()).isEqualTo("ok\n");
+    // 닫힌 셸은 열리지 않았고, 새 셸 하나만 열렸다
+    verify(execable, times(1)).exec("sh");
+  }
+
+  @Test
+  void failsWhenRetryShellIsAlsoEvicted() {
+    evictAfterCheckout(2);
+
+    assertThatThrownBy(() -> get(pool.execute("project-a", "echo ok")))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(KubernetesClientException.class);
+  }
+
+  /**
+   * 다음 times번의 셸 꺼내기 직후 그 셸을 닫아, 꺼낸 뒤 명령을 보내기 전에 유휴 정리된 상황을 만든다.
+   */
+  private void evictAfterCheckout(int times) {
+    int[] remaining = {times};
+    ReflectionTestUtils.setField(pool, "shells", new ConcurrentHashMap<String, Object>() {
+      @Override
+      public Object computeIfAbsent(String key, Function<? super String, ?> mappingFunction) {
+        Object shell = super.computeIfAbsent(key, mappingFunction);
+        if (remaining[0]-- > 0) {
+          pool.close(key);
+        }
+        return shell;
+      }
+    });
+  }
+
+  private ExecWatch startShell() throws IOException {
+    Process process = new ProcessBuilder("sh").start();
+    processes.add(process);
+    pump(process.getInputStream(), stdout);
+    pump(process.getErrorStream(), stderr);
+    ExecWatch execWatch = mock(ExecWatch.class);
+    when(execWatch.getInput()).thenReturn(process.getOutputStream());
+    return execWatch;
+  }
+
+  private static void pump(InputStream from, OutputStream to) {
+    Thread thread = new Thread(() -> {
+      byte[] buffer = new byte[1024];
+      try {
+        for (int read; (read = from.read(buffer)) >= 0; ) {
+          to.write(buffer, 0, read);
+        }
+      } catch (IOException ignored) {
+        // 프로세스 종료
+      }
+    });
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private static CommandResult get(CompletableFuture<CommandResult> future) throws Exception {
+    return future.get(10, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,106 @@
+package site.paircoding.paircoding.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * 공유 해시를 메모리 맵으로 흉내 내 두 인스턴스의 라우팅 테이블이 알림과 주기 동기화로 맞춰지는지 확인한다.
+ */
+class ProjectRouteTableTest {
+
+  private final Map<Object, Object> shared = new HashMap<>();
+  private RedisUtil redisUtil;
+  private ProjectRouteTable local;
+  private ProjectRouteTable remote;
+  private MessageListener remoteListener;
+
+  @BeforeEach
+  void setUp() {
+    redisUtil = mock(RedisUtil.class);
+    doAnswer(invocation -> shared.put(invocation.getArgument(1),
+        invocation.getArgument(2))).when(redisUtil).hset(any(), any(), any());
+    doAnswer(invocation -> shared.remove(invocation.getArgument(1)))
+        .when(redisUtil).hdel(any(), any());
+    doAnswer(invocation -> {
+      shared.putAll(invocation.getArgument(1));
+      return null;
+    }).when(redisUtil).hsetAll(any(), any());
+    when(redisUtil.hget(any(), any())).thenAnswer(
+        invocation -> shared.get(invocation.getArgument(1)));
+    when(redisUtil.hgetAll(any())).thenAnswer(invocation -> new HashMap<>(shared));
+
+    local = table(mock(RedisMessageListenerContainer.class));
+    RedisMessageListenerContainer remoteContainer = mock(RedisMessageListenerContainer.class);
+    remote = table(remoteContainer);
+    ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+    verify(remoteContainer).addMessageListener(listener.capture(), any(Topic.class));
+    remoteListener = listener.getValue();
+  }
+
+  @Test
+  void otherInstanceAppliesPublishedChange() {
+    local.put("deploy-a", 30001);
+    assertThat(local.find("deploy-a")).isEqualTo(30001);
+    assertThat(remote.find("deploy-a")).isNull();
+
+    deliver("deploy-a");
+    assertThat(remote.find("deploy-a")).isEqualTo(30001);
+
+    local.remove("deploy-a");
+    deliver("deploy-a");
+    assertThat(remote.find("deploy-a")).isNull();
+    verify(redisUtil, times(2)).publish(any(), eq("deploy-a"));
+  }
+
+  @Test
+  void syncRecoversMissedChanges() {
+    local.put("deploy-a", 30001);
+    local.put("deploy-b", 30002);
+    remote.sync();
+    local.remove("deploy-a");
+
+    remote.sync();
+    assertThat(remote.find("deploy-a")).isNull();
+    assertThat(remote.find("deploy-b")).isEqualTo(30002);
+    assertThat(remote.size()).isEqualTo(1);
+  }
+
+  @Test
+  void loadSeedsSharedRoutes() {
+    shared.put("deploy-a", "30001");
+
+    local.load(Map.of("deploy-b", 30002));
+    assertThat(local.find("deploy-a")).isEqualTo(30001);
+    assertThat(local.find("deploy-b")).isEqualTo(30002);
+  }
+
+  private ProjectRouteTable table(RedisMessageListenerContainer container) {
+    ProjectRouteTable table = new ProjectRouteTable(redisUtil, container);
+    ReflectionTestUtils.setField(table, "enabled", true);
+    table.subscribe();
+    return table;
+  }
+
+  private void deliver(String subdomain) {
+    remoteListener.onMessage(new DefaultMessage("proxyRoutes".getBytes(StandardCharsets.UTF_8),
+        subdomain.getBytes(StandardCharsets.UTF_8)), null);
+  }
+}
@@ -0,0 +1,126 @@
+package site.paircoding.paircoding.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.sshd.common.session.Session;
+import org.apache.sshd.common.session.SessionListener;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.server.shell.ProcessShellFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import site.paircoding.paircoding.util.SshSessionPool.ExecResult;
+
+/**
+ * 내장 SSH 서버(Apache MINA SSHD)에 로컬 sh로 명령을 실행시켜 세션 재사용, 종료 코드, 제한 시간을 확인한다.
+ */
+class SshSessionPoolTest {
+
+  private static final String PASSWORD = "secret";
+
+  @TempDir
+  Path tempDir;
+
+  private SshServer server;
+  private SshSessionPool pool;
+  private final AtomicInteger sessionsOpened = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = SshServer.setUpDefaultServer();
+    server.setHost("127.0.0.1");
+    server.setPort(0);
+    server.setKeyPairProvider(new SimpleGeneratorHostKeyProvider(tempDir.resolve("host.ser")));
+    server.setPasswordAuthenticator((user, password, session) -> PASSWORD.equals(password));
+    // nginx 서버와 같이 명령 문자열을 sh -c로 실행한다
+    server.setCommandFactory((channel, command) ->
+        new ProcessShellFactory(command, "/bin/sh", "-c", command).createShell(channel));
+    server.addSessionListener(new SessionListener() {
+      @Override
+      public void sessionCreated(Session session) {
+        sessionsOpened.incrementAndGet();
+      }
+    });
+    server.start();
+
+    pool = new SshSessionPool();
+    ReflectionTestUtils.setField(pool, "SSH_HOST", "127.0.0.1");
+    ReflectionTestUtils.setField(pool, "SSH_PORT", server.getPort());
+    ReflectionTestUtils.setField(pool, "SSH_USER", "pading");
+    ReflectionTestUtils.setField(pool, "SSH_PASSWORD", PASSWORD);
+    ReflectionTestUtils.setField(pool, "poolSize", 2);
+    ReflectionTestUtils.setField(pool, "keepaliveIntervalMillis", 30000);
+    ReflectionTestUtils.setField(pool, "commandTimeoutMillis", 5000L);
+    pool.init();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    pool.closeAll();
+    server.stop(true);
+  }
+
+  @Test
+  void returnsExitStatusAndOutput() throws Exception {
+    ExecResult result = pool.execute("echo out; echo err >&2; exit 3", null);
+
+    assertThat(result.getExitStatus()).isEqualTo(3);
+    assertThat(result.isSuccess()).isFalse();
+    assertThat(result.getOutput()).isEqualTo("out\n");
+    assertThat(result.getError()).isEqualTo("err\n");
+  }
+
+  @Test
+  void runsBatchedScriptFromStdin() throws Exception {
+    Path config = tempDir.resolve("site.conf");
+    String script = "cat > " + config + " <<'EOF'\nserver {}\nEOF\n"
+        + "ln -sf " + config + " " + tempDir.resolve("enabled.conf") + "\n"
+        + "cat " + tempDir.resolve("enabled.conf") + "\n";
+
+    ExecResult result = pool.execute("sh", script.getBytes(StandardCharsets.UTF_8));
+
+    assertThat(result.isSuccess()).isTrue();
+    assertThat(result.getOutput()).isEqualTo("server {}\n");
+  }
+
+  @Test
+  void reusesSession() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      assertThat(pool.execute("true", null).isSuccess()).isTrue();
+    }
+
+    assertThat(sessionsOpened).hasValue(1);
+  }
+
+  @Test
+  void reconnectsAfterServerDropsSession() throws Exception {
+    pool.execute("true", null);
+    server.getActiveSessions().forEach(session -> session.close(true));
+
+    assertThat(pool.execute("echo again", null).getOutput()).isEqualTo("again\n");
+    assertThat(sessionsOpened).hasValue(2);
+  }
+
+  @Test
+  void disconnectsCommandAfterTimeout() throws Exception {
+    ReflectionTestUtils.setField(pool, "commandTimeoutMillis", 500L);
+
+    long startedAt = System.nanoTime();
+    assertThatThrownBy(() -> pool.execute("sleep 30", null))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("timed out");
+    assertThat((System.nanoTime() - startedAt) / 1_000_000).isLessThan(5000);
+
+    // 제한 시간이 지난 세션은 버리고 다음 명령은 새 세션에서 실행한다
+    ReflectionTestUtils.setField(pool, "commandTimeoutMillis", 5000L);
+    assertThat(pool.execute("echo ok", null).getOutput()).isEqualTo("ok\n");
+  }
+}
@@ -0,0 +1,85 @@
+package site.paircoding.paircoding.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class TerminalScrollbackTest {
+
+  @Test
+  void keepsEverythingBelowCapacity() {
+    TerminalScrollback scrollback = new TerminalScrollback(16);
+    append(scrollback, "hello ");
+    append(scrollback, "world");
+
+    assertThat(text(scrollback)).isEqualTo("hello world");
+  }
+
+  @Test
+  void keepsLastBytesAfterWraparound() {
+    TerminalScrollback scrollback = new TerminalScrollback(8);
+    append(scrollback, "abcdef");
+    append(scrollback, "ghij");
+
+    assertThat(text(scrollback)).isEqualTo("cdefghij");
+
+    append(scrollback, "klm");
+    assertThat(text(scrollback)).isEqualTo("fghijklm");
+  }
+
+  @Test
+  void keepsTailOfInputLongerThanCapacity() {
+    TerminalScrollback scrollback = new TerminalScrollback(4);
+    append(scrollback, "ab");
+    append(scrollback, "0123456789");
+
+    assertThat(text(scrollback)).isEqualTo("6789");
+  }
+
+  @Test
+  void appendsRangeOfArray() {
+    TerminalScrollback scrollback = new TerminalScrollback(8);
+    byte[] bytes = "xxabcxx".getBytes(StandardCharsets.UTF_8);
+    scrollback.append(bytes, 2, 3);
+
+    assertThat(text(scrollback)).isEqualTo("abc");
+  }
+
+  @Test
+  void snapshotSkipsContinuationBytesOfTruncatedCharacter() {
+    // "a한b" = 61 ED 95 9C 62, 뒤 3바이트만 남으면 한글의 앞 바이트가 잘린다
+    TerminalScrollback scrollback = new TerminalScrollback(3);
+    append(scrollback, "a한b");
+
+    assertThat(text(scrollback)).isEqualTo("b");
+  }
+
+  @Test
+  void snapshotIsIndependentCopy() {
+    TerminalScrollback scrollback = new TerminalScrollback(8);
+    append(scrollback, "abc");
+    byte[] snapshot = scrollback.snapshot();
+    append(scrollback, "def");
+
+    assertThat(new String(snapshot, StandardCharsets.UTF_8)).isEqualTo("abc");
+    assertThat(text(scrollback)).isEqualTo("abcdef");
+  }
+
+  @Test
+  void zeroCapacityKeepsNothing() {
+    TerminalScrollback scrollback = new TerminalScrollback(0);
+    append(scrollback, "abc");
+
+    assertThat(scrollback.snapshot()).isEmpty();
+  }
+
+  private static void append(TerminalScrollback scrollback, String text) {
+    byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    scrollback.append(bytes, 0, bytes.length);
+  }
+
+  private static String text(TerminalScrollback scrollback) {
+    return new String(scrollback.snapshot(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,75 @@
+package site.paircoding.paircoding.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class Utf8StreamDecoderTest {
+
+  @Test
+  void decodesCharactersSplitAcrossChunks() {
+    // 2바이트(é), 3바이트(한), 4바이트(😀) 문자를 가능한 모든 위치에서 나눈다
+    byte[] bytes = "aé한😀b".getBytes(StandardCharsets.UTF_8);
+    for (int split = 0; split <= bytes.length; split++) {
+      Utf8StreamDecoder decoder = new Utf8StreamDecoder(4);
+      String decoded = decoder.decode(bytes, 0, split)
+          + decoder.decode(bytes, split, bytes.length - split)
+          + decoder.flush();
+      assertThat(decoded).as("split at %d", split).isEqualTo("aé한😀b");
+    }
+  }
+
+  @Test
+  void decodesOneByteAtATime() {
+    String text = "터미널 출력 😀 output";
+    byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    Utf8StreamDecoder decoder = new Utf8StreamDecoder(2);
+    StringBuilder decoded = new StringBuilder();
+    for (int i = 0; i < bytes.length; i++) {
+      decoded.append(decoder.decode(bytes, i, 1));
+    }
+    decoded.append(decoder.flush());
+    assertThat(decoded.toString()).isEqualTo(text);
+  }
+
+  @Test
+  void holdsIncompleteSequenceUntilNextChunk() {
+    byte[] bytes = "한".getBytes(StandardCharsets.UTF_8);
+    Utf8StreamDecoder decoder = new Utf8StreamDecoder();
+
+    assertThat(decoder.decode(bytes, 0, 2)).isEmpty();
+    assertThat(decoder.decode(bytes, 2, 1)).isEqualTo("한");
+    assertThat(decoder.flush()).isEmpty();
+  }
+
+  @Test
+  void growsBuffersForLargeChunks() {
+    String text = "가나다라".repeat(10_000);
+    byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    Utf8StreamDecoder decoder = new Utf8StreamDecoder(16);
+
+    assertThat(decoder.decode(bytes, 0, bytes.length)).isEqualTo(text);
+  }
+
+  @Test
+  void replacesMalformedInput() {
+    byte[] bytes = {'a', (byte) 0xFF, 'b', (byte) 0xC3, 'c'};
+    Utf8StreamDecoder decoder = new Utf8StreamDecoder();
+
+    assertThat(decoder.decode(bytes, 0, bytes.length) + decoder.flush())
+        .isEqualTo("a\uFFFDb\uFFFDc");
+  }
+
+  @Test
+  void flushReplacesTruncatedSequenceAndResets() {
+    byte[] bytes = "한".getBytes(StandardCharsets.UTF_8);
+    Utf8StreamDecoder decoder = new Utf8StreamDecoder();
+
+    assertThat(decoder.decode(bytes, 0, 2)).isEmpty();
+    assertThat(decoder.flush()).isEqualTo("\uFFFD");
+
+    // flush 후에는 새 스트림처럼 동작한다
+    assertThat(decoder.decode(bytes, 0, bytes.length)).isEqualTo("한");
+  }
+}